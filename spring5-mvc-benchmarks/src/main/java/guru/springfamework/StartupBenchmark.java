@@ -0,0 +1,81 @@
+package guru.springfamework;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a cold JVM to the first successful {@code GET /api/v1/customers}. Every fork starts
+ * the app exactly once, so the forks are the samples. Build with {@code -Pfast-start} so the app
+ * jar carries the component index.
+ * <ul>
+ *     <li>{@code default}: how the app starts today, classpath scan and Springfox</li>
+ *     <li>{@code index}: components from {@code META-INF/spring.components}, static API document</li>
+ *     <li>{@code fast-start}: the index plus the {@code fast-start} profile</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"default", "index", "fast-start"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (mode.equals("default")) {
+            System.setProperty("spring.index.ignore", "true");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int firstRequest() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .logStartupInfo(false)
+                .profiles(mode.equals("fast-start") ? new String[]{"fast-start"} : new String[0])
+                .run("--server.port=0", "--management.server.port=0", "--logging.level.root=WARN",
+                        "--app.warm-up.enabled=false", "--app.api-docs.static=" + !mode.equals("default"));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URL url = new URL("http://localhost:" + port + "/api/v1/customers");
+        while (true) {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                if (connection.getResponseCode() == 200) {
+                    return connection.getInputStream().read();
+                }
+            } finally {
+                connection.disconnect();
+            }
+            Thread.sleep(1);
+        }
+    }
+}
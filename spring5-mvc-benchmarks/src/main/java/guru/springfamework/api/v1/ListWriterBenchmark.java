@@ -0,0 +1,115 @@
+package guru.springfamework.api.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.api.v1.model.ModelModule;
+import guru.springfamework.api.v1.stream.ListRowWriter;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
+import guru.springfamework.config.SerializationEngine;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The customer listing written from the same rows two ways: mapped to a list DTO and written by
+ * Jackson, and written straight from the rows by a {@link ListRowWriter}. The output is discarded,
+ * so running with {@code -prof gc} shows what each way allocates per list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListWriterBenchmark {
+
+    @Param({"1000"})
+    int size;
+
+    @Param({"json", "xml"})
+    String format;
+
+    ListStreamWriters listStreamWriters;
+    ObjectMapper mapper;
+    MediaType mediaType;
+    SimpleResultSet rows;
+    OutputStream discard;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ModelModule()).build();
+        XmlMapper xmlMapper = SerializationEngine.STANDARD.xmlMapper(Jackson2ObjectMapperBuilder.xml()
+                .modulesToInstall(new ModelModule()));
+        listStreamWriters = new ListStreamWriters(jsonMapper, xmlMapper);
+        mapper = "xml".equals(format) ? xmlMapper : jsonMapper;
+        mediaType = "xml".equals(format) ? MediaType.APPLICATION_XML : MediaType.APPLICATION_JSON;
+
+        rows = new SimpleResultSet();
+        rows.setAutoClose(false);
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("firstname", Types.VARCHAR, 255, 0);
+        rows.addColumn("lastname", Types.VARCHAR, 255, 0);
+        for (long i = 1; i <= size; i++) {
+            rows.addRow(i, "Firstname" + i, "Lastname" + i);
+        }
+
+        discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+    }
+
+    @Benchmark
+    public void dtos() throws Exception {
+        rows.beforeFirst();
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        while (rows.next()) {
+            customerListDTO.getCustomers().add(customerDTO(rows));
+        }
+        mapper.writeValue(discard, customerListDTO);
+    }
+
+    @Benchmark
+    public void rows() throws Exception {
+        rows.beforeFirst();
+        try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, discard)) {
+            while (rows.next()) {
+                writer.processRow(rows);
+            }
+            writer.finish();
+        }
+    }
+
+    //what the mapper and the resource URL builder do for each entity
+    private static CustomerDTO customerDTO(ResultSet rs) throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname(rs.getString("firstname"));
+        customerDTO.setLastname(rs.getString("lastname"));
+        customerDTO.setCustomerUrl(CustomerController.BASE_URL + "/" + rs.getLong("id"));
+        return customerDTO;
+    }
+}
@@ -0,0 +1,131 @@
+package guru.springfamework.api.v1;
+
+import com.fasterxml.jackson.databind.Module;
+import guru.springfamework.api.v1.model.ModelModule;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.JsonCodecHttpMessageConverter;
+import guru.springfamework.config.SerializationEngine;
+import guru.springfamework.config.XmlCodecHttpMessageConverter;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON and XML output of the list DTOs through the message converters each
+ * {@link SerializationEngine} sets up, with mappers built the way Spring MVC builds them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    @Param({"json", "xml"})
+    String format;
+
+    @Param({"standard", "fast", "generated"})
+    String engine;
+
+    HttpMessageConverter<Object> converter;
+    MediaType mediaType;
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    CustomerListDTO customerListDTO;
+    VendorListDTO vendorListDTO;
+
+    @Setup
+    public void setUp() {
+        SerializationEngine serializationEngine = SerializationEngine.of(engine);
+        boolean xml = "xml".equals(format);
+        mediaType = xml ? MediaType.APPLICATION_XML : MediaType.APPLICATION_JSON;
+        if (serializationEngine == SerializationEngine.GENERATED) {
+            converter = xml ? new XmlCodecHttpMessageConverter(serializationEngine)
+                    : new JsonCodecHttpMessageConverter(
+                            Jackson2ObjectMapperBuilder.json().modulesToInstall(new ModelModule()).build());
+        } else {
+            converter = xml
+                    ? new MappingJackson2XmlHttpMessageConverter(serializationEngine.xmlMapper(
+                            Jackson2ObjectMapperBuilder.xml().modulesToInstall(modules(serializationEngine))))
+                    : new MappingJackson2HttpMessageConverter(
+                            Jackson2ObjectMapperBuilder.json().modulesToInstall(modules(serializationEngine)).build());
+        }
+
+        customerListDTO = new CustomerListDTO();
+        List<VendorDTO> vendors = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname("Firstname" + i);
+            customerDTO.setLastname("Lastname" + i);
+            customerDTO.setCustomerUrl(CustomerController.BASE_URL + "/" + i);
+            customerListDTO.getCustomers().add(customerDTO);
+
+            vendors.add(new VendorDTO("Vendor " + i, VendorController.BASE_URL + "/" + i));
+        }
+        vendorListDTO = new VendorListDTO(vendors, null);
+    }
+
+    @Benchmark
+    public int customerList() throws Exception {
+        return write(customerListDTO);
+    }
+
+    @Benchmark
+    public int vendorList() throws Exception {
+        return write(vendorListDTO);
+    }
+
+    private int write(Object value) throws Exception {
+        body.reset();
+        HttpHeaders headers = new HttpHeaders();
+        converter.write(value, mediaType, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body.size();
+    }
+
+    //what SerializationConfig installs
+    private static Module[] modules(SerializationEngine engine) {
+        List<Module> modules = new ArrayList<>(Arrays.asList(engine.modules()));
+        modules.add(new ModelModule());
+        return modules.toArray(new Module[0]);
+    }
+}
@@ -0,0 +1,111 @@
+package guru.springfamework.api.v1.mapper;
+
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryView;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
+import guru.springfamework.model.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions between entities, projections and DTOs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    CustomerMapper customerMapper = CustomerMapper.INSTANCE;
+    VendorMapper vendorMapper = VendorMapper.INSTANCE;
+    CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    Customer customer;
+    CustomerView customerView;
+    CustomerDTO customerDTO;
+    Vendor vendor;
+    VendorView vendorView;
+    VendorDTO vendorDTO;
+    Category category;
+    CategoryView categoryView;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setVersion(0L);
+        customer.setFirstname("Michael");
+        customer.setLastname("Weston");
+        customerView = new CustomerView(1L, "Michael", "Weston");
+        customerDTO = customerMapper.customerToCustomerDTO(customer);
+
+        vendor = new Vendor();
+        vendor.setId(1L);
+        vendor.setVersion(0L);
+        vendor.setName("Western Tasty Fruits Ltd.");
+        vendorView = new VendorView(1L, "Western Tasty Fruits Ltd.");
+        vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Fruits");
+        categoryView = new CategoryView(1L, "Fruits");
+    }
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDTO() {
+        return customerMapper.customerToCustomerDTO(customer);
+    }
+
+    @Benchmark
+    public CustomerDTO customerViewToCustomerDTO() {
+        return customerMapper.customerViewToCustomerDTO(customerView);
+    }
+
+    @Benchmark
+    public Customer customerDtoToCustomer() {
+        return customerMapper.customerDtoToCustomer(customerDTO);
+    }
+
+    @Benchmark
+    public VendorDTO vendorToVendorDTO() {
+        return vendorMapper.vendorToVendorDTO(vendor);
+    }
+
+    @Benchmark
+    public VendorDTO vendorViewToVendorDTO() {
+        return vendorMapper.vendorViewToVendorDTO(vendorView);
+    }
+
+    @Benchmark
+    public Vendor vendorDtoToVendor() {
+        return vendorMapper.vendorDtoToVendor(vendorDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToCategoryDTO() {
+        return categoryMapper.categoryToCategoryDTO(category);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryViewToCategoryDTO() {
+        return categoryMapper.categoryViewToCategoryDTO(categoryView);
+    }
+}
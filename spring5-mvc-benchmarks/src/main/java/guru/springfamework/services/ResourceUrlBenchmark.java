@@ -0,0 +1,56 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.mapper.VendorMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the resource URLs every DTO carries. Lives in the services package to reach the
+ * package-private URL builders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceUrlBenchmark {
+
+    //short and long ids, the URL length changes with the digit count
+    @Param({"7", "1234567890123"})
+    long id;
+
+    Long boxedId;
+
+    CustomerServiceImpl customerService;
+    VendorServiceImpl vendorService;
+
+    @Setup
+    public void setUp() {
+        boxedId = id;
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, null);
+        vendorService = new VendorServiceImpl(VendorMapper.INSTANCE, null);
+    }
+
+    @Benchmark
+    public String getCustomerURL() {
+        return customerService.getCustomerURL(boxedId);
+    }
+
+    @Benchmark
+    public String getVendorURL() {
+        return vendorService.getVendorURL(boxedId);
+    }
+}
@@ -0,0 +1,141 @@
+package guru.springfamework.services;
+
+import guru.springfamework.Spring5MvcRestApplication;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer and vendor service calls against the application context backed by in-memory H2.
+ * The context is the full servlet one (Swagger needs the MVC mappings) on a random port, but the
+ * benchmarks call the service beans directly. Springfox needs the classpath scan, so a
+ * {@code -Pfast-start} component index is ignored.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dspring.index.ignore=true")
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"1000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    CustomerService customerService;
+    VendorService vendorService;
+
+    List<Long> customerIds = new ArrayList<>();
+    List<Long> vendorIds = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0", "--management.server.port=0", "--logging.level.root=WARN",
+                        "--app.warm-up.enabled=false");
+        customerService = context.getBean(CustomerService.class);
+        vendorService = context.getBean(VendorService.class);
+
+        List<CustomerDTO> customers = new ArrayList<>();
+        List<VendorDTO> vendors = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname("Firstname" + i);
+            customerDTO.setLastname("Lastname" + i);
+            customers.add(customerDTO);
+            vendors.add(new VendorDTO("Vendor " + i, null));
+        }
+        customerService.createNewCustomers(customers).forEach(dto -> customerIds.add(idOf(dto.getCustomerUrl())));
+        vendorService.createNewVendors(vendors).forEach(dto -> vendorIds.add(idOf(dto.getVendorUrl())));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Long idOf(String url) {
+        return Long.valueOf(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    private static Long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public List<CustomerDTO> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @Benchmark
+    public CustomerListDTO getCustomerPage() {
+        return customerService.getCustomerPage(null, 50);
+    }
+
+    @Benchmark
+    public void streamAllCustomerRows(Blackhole blackhole) {
+        customerService.streamAllCustomerRows(rs -> blackhole.consume(rs.getString("lastname")));
+    }
+
+    @Benchmark
+    public Versioned<CustomerDTO> getVersionedCustomerById() {
+        return customerService.getVersionedCustomerById(pick(customerIds));
+    }
+
+    @Benchmark
+    public CustomerDTO patchCustomer() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setLastname("Patched");
+        return customerService.patchCustomer(pick(customerIds), customerDTO);
+    }
+
+    @Benchmark
+    public List<VendorDTO> getAllVendors() {
+        return vendorService.getAllVendors();
+    }
+
+    @Benchmark
+    public VendorListDTO getVendorPage() {
+        return vendorService.getVendorPage(null, 50);
+    }
+
+    @Benchmark
+    public void streamAllVendorRows(Blackhole blackhole) {
+        vendorService.streamAllVendorRows(rs -> blackhole.consume(rs.getString("name")));
+    }
+
+    //served from the vendor cache after the first hit per id
+    @Benchmark
+    public Versioned<VendorDTO> getVersionedVendorById() {
+        return vendorService.getVersionedVendorById(pick(vendorIds));
+    }
+
+    @Benchmark
+    public VendorDTO patchVendor() {
+        return vendorService.patchVendor(pick(vendorIds), new VendorDTO("Patched", null));
+    }
+}
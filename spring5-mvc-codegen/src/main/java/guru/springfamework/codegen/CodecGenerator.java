@@ -0,0 +1,70 @@
+package guru.springfamework.codegen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a JSON and XML codec for every complex type of the given schemas, and the registry
+ * holding them. Run at build time by the module using the codecs:
+ * <pre>
+ * CodecGenerator &lt;output directory&gt; &lt;package&gt; &lt;xjc package&gt; &lt;schema resource&gt;...
+ * </pre>
+ * Schemas are read from the classpath. Files whose content is unchanged are not rewritten.
+ */
+public class CodecGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            throw new IllegalArgumentException(
+                    "Usage: CodecGenerator <output directory> <package> <xjc package> <schema resource>...");
+        }
+
+        Map<String, String> sources = generate(args[1], args[2], Arrays.asList(args).subList(3, args.length));
+
+        Path directory = Paths.get(args[0]).resolve(args[1].replace('.', '/'));
+        Files.createDirectories(directory);
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            write(directory.resolve(source.getKey() + ".java"), source.getValue());
+        }
+    }
+
+    /**
+     * The generated sources by class name.
+     */
+    static Map<String, String> generate(String packageName, String xjcPackage, List<String> schemas) throws IOException {
+        SchemaReader reader = new SchemaReader(xjcPackage);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (String schema : schemas) {
+            try (InputStream in = classLoader.getResourceAsStream(schema)) {
+                if (in == null) {
+                    throw new IOException("Schema " + schema + " is not on the classpath");
+                }
+                reader.read(schema.substring(schema.lastIndexOf('/') + 1), in);
+            }
+        }
+
+        CodecSourceWriter writer = new CodecSourceWriter(packageName);
+        Map<String, String> sources = new LinkedHashMap<>();
+        List<SchemaType> types = reader.types();
+        for (SchemaType type : types) {
+            sources.put(CodecSourceWriter.codecName(type.name), writer.codec(type));
+        }
+        sources.put("Codecs", writer.registry(types));
+        return sources;
+    }
+
+    private static void write(Path file, String source) throws IOException {
+        byte[] content = source.getBytes(StandardCharsets.UTF_8);
+        if (!Files.exists(file) || !Arrays.equals(Files.readAllBytes(file), content)) {
+            Files.write(file, content);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package guru.springfamework.codegen;
+
+import guru.springfamework.codegen.SchemaType.Kind;
+import guru.springfamework.codegen.SchemaType.Property;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The Java source of the codec for a schema type and of the {@code Codecs} registry. Codecs call
+ * the accessors of the bound class directly and switch on element and field names, the helpers
+ * they share are in the target package's {@code CodecSupport}.
+ */
+class CodecSourceWriter {
+
+    static final String GENERATOR = CodecGenerator.class.getName();
+
+    private final String packageName;
+
+    CodecSourceWriter(String packageName) {
+        this.packageName = packageName;
+    }
+
+    static String codecName(String typeName) {
+        return typeName + "Codec";
+    }
+
+    String codec(SchemaType type) {
+        String javaType = type.simpleClassName();
+        StringBuilder source = new StringBuilder();
+
+        source.append("package ").append(packageName).append(";\n\n")
+                .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import com.fasterxml.jackson.core.io.SerializedString;\n")
+                .append("import ").append(type.javaClass).append(";\n")
+                .append("import org.codehaus.stax2.XMLStreamReader2;\n")
+                .append("import org.codehaus.stax2.XMLStreamWriter2;\n\n")
+                .append("import javax.annotation.Generated;\n")
+                .append("import javax.xml.stream.XMLStreamException;\n")
+                .append("import java.io.IOException;\n\n")
+                .append("/**\n")
+                .append(" * {@link ").append(javaType).append("} as the ").append(type.name)
+                .append(" type of ").append(type.schema).append(".\n")
+                .append(" */\n")
+                .append("@Generated(\"").append(GENERATOR).append("\")\n")
+                .append("final class ").append(codecName(type.name)).append(" implements Codec<").append(javaType).append("> {\n\n")
+                .append("    static final ").append(codecName(type.name)).append(" INSTANCE = new ")
+                .append(codecName(type.name)).append("();\n\n");
+
+        for (Property property : type.properties) {
+            source.append("    private static final SerializedString ").append(constant(property))
+                    .append(" = new SerializedString(\"").append(property.name).append("\");\n");
+        }
+        if (!type.properties.isEmpty()) {
+            source.append("\n");
+        }
+
+        source.append("    @Override\n")
+                .append("    public Class<").append(javaType).append("> type() {\n")
+                .append("        return ").append(javaType).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public String rootName() {\n")
+                .append("        return \"").append(type.rootName).append("\";\n")
+                .append("    }\n\n");
+
+        writeJson(source, type, javaType);
+        readJson(source, type, javaType);
+        writeXml(source, type, javaType);
+        readXml(source, type, javaType);
+
+        source.setLength(source.length() - 1);
+        return source.append("}\n").toString();
+    }
+
+    private void writeJson(StringBuilder source, SchemaType type, String javaType) {
+        source.append("    @Override\n")
+                .append("    public void writeJson(").append(javaType).append(" value, JsonGenerator generator) throws IOException {\n")
+                .append("        generator.writeStartObject();\n");
+        for (Property property : type.properties) {
+            String value = "value." + property.getter() + "()";
+            String indent = startOmitNull(source, property, value);
+            source.append(indent).append("generator.writeFieldName(").append(constant(property)).append(");\n");
+            if (property.list) {
+                source.append(indent).append("CodecSupport.writeJsonList(generator, ").append(value).append(", ")
+                        .append(codecName(property.typeName)).append(".INSTANCE);\n");
+            } else if (property.kind == Kind.COMPLEX) {
+                source.append(indent).append("CodecSupport.writeJson(generator, ").append(value).append(", ")
+                        .append(codecName(property.typeName)).append(".INSTANCE);\n");
+            } else if (property.kind == Kind.LONG) {
+                source.append(indent).append("CodecSupport.writeJsonNumber(generator, ").append(value).append(");\n");
+            } else {
+                source.append(indent).append("generator.writeString(").append(value).append(");\n");
+            }
+            endOmitNull(source, property);
+        }
+        source.append("        generator.writeEndObject();\n")
+                .append("    }\n\n");
+    }
+
+    /**
+     * Opens the null check around the statements writing an {@code omitNull} property.
+     *
+     * @return the indent of the statements
+     */
+    private static String startOmitNull(StringBuilder source, Property property, String value) {
+        if (!property.omitNull) {
+            return "        ";
+        }
+        source.append("        if (").append(value).append(" != null) {\n");
+        return "            ";
+    }
+
+    private static void endOmitNull(StringBuilder source, Property property) {
+        if (property.omitNull) {
+            source.append("        }\n");
+        }
+    }
+
+    private void readJson(StringBuilder source, SchemaType type, String javaType) {
+        source.append("    @Override\n")
+                .append("    public ").append(javaType).append(" readJson(JsonParser parser) throws IOException {\n")
+                .append("        if (!CodecSupport.startObject(parser, ").append(javaType).append(".class)) {\n")
+                .append("            return null;\n")
+                .append("        }\n\n")
+                .append("        ").append(javaType).append(" value = new ").append(javaType).append("();\n")
+                .append("        while (parser.nextToken() == JsonToken.FIELD_NAME) {\n")
+                .append("            String field = parser.getCurrentName();\n")
+                .append("            parser.nextToken();\n")
+                .append("            switch (field) {\n");
+        for (Property property : type.properties) {
+            source.append("                case \"").append(property.name).append("\":\n")
+                    .append("                    ").append(read(type, property, "Json", "parser")).append(";\n")
+                    .append("                    break;\n");
+        }
+        source.append("                default:\n")
+                .append("                    parser.skipChildren();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return value;\n")
+                .append("    }\n\n");
+    }
+
+    private void writeXml(StringBuilder source, SchemaType type, String javaType) {
+        source.append("    @Override\n")
+                .append("    public void writeXml(").append(javaType).append(" value, XMLStreamWriter2 writer) throws XMLStreamException {\n");
+        for (Property property : type.properties) {
+            String value = "value." + property.getter() + "()";
+            String name = "\"" + property.name + "\"";
+            String indent = startOmitNull(source, property, value);
+            if (property.list) {
+                source.append(indent).append("CodecSupport.writeXmlList(writer, ").append(name).append(", ").append(value)
+                        .append(", ").append(codecName(property.typeName)).append(".INSTANCE);\n");
+            } else if (property.kind == Kind.COMPLEX) {
+                source.append(indent).append("CodecSupport.writeXml(writer, ").append(name).append(", ").append(value)
+                        .append(", ").append(codecName(property.typeName)).append(".INSTANCE);\n");
+            } else if (property.kind == Kind.LONG) {
+                source.append(indent).append("CodecSupport.writeXmlNumber(writer, ").append(name).append(", ").append(value).append(");\n");
+            } else {
+                source.append(indent).append("CodecSupport.writeXmlString(writer, ").append(name).append(", ").append(value).append(");\n");
+            }
+            endOmitNull(source, property);
+        }
+        source.append("    }\n\n");
+    }
+
+    private void readXml(StringBuilder source, SchemaType type, String javaType) {
+        source.append("    @Override\n")
+                .append("    public ").append(javaType).append(" readXml(XMLStreamReader2 reader) throws XMLStreamException {\n")
+                .append("        ").append(javaType).append(" value = new ").append(javaType).append("();\n")
+                .append("        while (CodecSupport.nextElement(reader)) {\n")
+                .append("            switch (reader.getLocalName()) {\n");
+        for (Property property : type.properties) {
+            source.append("                case \"").append(property.name).append("\":\n")
+                    .append("                    ").append(read(type, property, "Xml", "reader")).append(";\n")
+                    .append("                    break;\n");
+        }
+        source.append("                default:\n")
+                .append("                    reader.skipElement();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return value;\n")
+                .append("    }\n\n");
+    }
+
+    //the statement reading a property, xjc lists are filled in place as they have no setter
+    private static String read(SchemaType type, Property property, String format, String source) {
+        if (property.list && !type.bound) {
+            return "CodecSupport.read" + format + "List(" + source + ", " + codecName(property.typeName)
+                    + ".INSTANCE, value." + property.getter() + "())";
+        }
+
+        String read;
+        if (property.list) {
+            read = "CodecSupport.read" + format + "List(" + source + ", " + codecName(property.typeName) + ".INSTANCE)";
+        } else if (property.kind == Kind.COMPLEX) {
+            read = codecName(property.typeName) + ".INSTANCE.read" + format + "(" + source + ")";
+        } else if (property.kind == Kind.LONG) {
+            read = "CodecSupport.read" + format + "Long(" + source + ")";
+        } else {
+            read = "CodecSupport.read" + format + "String(" + source + ")";
+        }
+        return "value." + property.setter() + "(" + read + ")";
+    }
+
+    String registry(List<SchemaType> types) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n")
+                .append("import javax.annotation.Generated;\n")
+                .append("import java.util.Collection;\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.LinkedHashMap;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n")
+                .append(" * The codecs of all schema types, by the class they are bound to.\n")
+                .append(" */\n")
+                .append("@Generated(\"").append(GENERATOR).append("\")\n")
+                .append("public final class Codecs {\n\n")
+                .append("    private static final Map<Class<?>, Codec<?>> CODECS = new LinkedHashMap<>();\n\n")
+                .append("    static {\n");
+        for (SchemaType type : types) {
+            source.append("        register(").append(codecName(type.name)).append(".INSTANCE);\n");
+        }
+        source.append("    }\n\n")
+                .append("    private Codecs() {\n")
+                .append("    }\n\n")
+                .append("    private static void register(Codec<?> codec) {\n")
+                .append("        CODECS.put(codec.type(), codec);\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * The codec for exactly {@code type}, {@code null} for other classes, subclasses included.\n")
+                .append("     */\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public static <T> Codec<T> forType(Class<T> type) {\n")
+                .append("        return (Codec<T>) CODECS.get(type);\n")
+                .append("    }\n\n")
+                .append("    public static Collection<Codec<?>> all() {\n")
+                .append("        return Collections.unmodifiableCollection(CODECS.values());\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    //nextCursor becomes NEXT_CURSOR
+    private static String constant(Property property) {
+        return property.name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").replaceAll("[^A-Za-z0-9]", "_")
+                .toUpperCase(Locale.ROOT);
+    }
+}
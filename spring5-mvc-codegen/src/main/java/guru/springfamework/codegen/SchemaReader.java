@@ -0,0 +1,202 @@
+package guru.springfamework.codegen;
+
+import guru.springfamework.codegen.SchemaType.Kind;
+import guru.springfamework.codegen.SchemaType.Property;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the subset of XML Schema the API schemas use: named complex types holding a sequence of
+ * {@code xs:string}, {@code xs:long} or complex type elements, optional or repeated, and global
+ * elements naming the document roots.
+ * <p>
+ * Types are bound the way xjc binds them, to a class of the xjc package named after the type, or
+ * to an existing class with {@code jaxb:class ref}. {@code jaxb:property name} renames a property.
+ * {@code codec:omitNull}, in the {@link #CODEC_NS} namespace, leaves an element out when its value
+ * is {@code null}, for properties annotated with Jackson's {@code @JsonInclude(NON_NULL)}.
+ */
+class SchemaReader {
+
+    static final String JAXB_NS = "http://java.sun.com/xml/ns/jaxb";
+    //customizations of the codecs only, xjc ignores them
+    static final String CODEC_NS = "urn:guru.springfamework:codec";
+
+    private final String xjcPackage;
+    private final DocumentBuilder documentBuilder;
+
+    private final Map<String, Element> complexTypes = new LinkedHashMap<>();
+    private final Map<String, String> schemaOfType = new LinkedHashMap<>();
+    private final Map<String, String> rootNames = new LinkedHashMap<>();
+
+    SchemaReader(String xjcPackage) {
+        this.xjcPackage = xjcPackage;
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            documentBuilder = factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void read(String schemaName, InputStream schema) throws IOException {
+        Document document;
+        try {
+            document = documentBuilder.parse(schema);
+        } catch (SAXException e) {
+            throw new IOException("Invalid schema", e);
+        }
+
+        for (Element child : children(document.getDocumentElement(), XMLConstants.W3C_XML_SCHEMA_NS_URI)) {
+            String name = child.getAttribute("name");
+            if ("element".equals(child.getLocalName())) {
+                rootNames.put(localName(child.getAttribute("type")), name);
+            } else if ("complexType".equals(child.getLocalName())) {
+                if (complexTypes.put(name, child) != null) {
+                    throw new IllegalArgumentException("Complex type " + name + " is defined twice");
+                }
+                schemaOfType.put(name, schemaName);
+            }
+        }
+    }
+
+    /**
+     * The complex types of all schemas read, in the order they were defined.
+     */
+    List<SchemaType> types() {
+        List<SchemaType> types = new ArrayList<>();
+        for (Map.Entry<String, Element> complexType : complexTypes.entrySet()) {
+            types.add(type(complexType.getKey(), complexType.getValue()));
+        }
+        return types;
+    }
+
+    private SchemaType type(String name, Element complexType) {
+        Element classBinding = binding(complexType, JAXB_NS, "class");
+        String ref = classBinding == null ? "" : classBinding.getAttribute("ref");
+
+        List<Property> properties = new ArrayList<>();
+        for (Element sequence : children(complexType, XMLConstants.W3C_XML_SCHEMA_NS_URI)) {
+            if (!"sequence".equals(sequence.getLocalName())) {
+                throw new IllegalArgumentException(name + ": only xs:sequence content is supported");
+            }
+            for (Element element : children(sequence, XMLConstants.W3C_XML_SCHEMA_NS_URI)) {
+                properties.add(property(name, element));
+            }
+        }
+
+        String rootName = rootNames.containsKey(name) ? rootNames.get(name) : name;
+        String schema = schemaOfType.get(name);
+        return ref.isEmpty()
+                ? new SchemaType(name, schema, xjcPackage + "." + name, false, rootName, properties)
+                : new SchemaType(name, schema, ref, true, rootName, properties);
+    }
+
+    private Property property(String typeName, Element element) {
+        String name = element.getAttribute("name");
+        String type = element.getAttribute("type");
+        boolean list = "unbounded".equals(element.getAttribute("maxOccurs"));
+        boolean optional = "0".equals(element.getAttribute("minOccurs"));
+
+        Element propertyBinding = binding(element, JAXB_NS, "property");
+        boolean omitNull = binding(element, CODEC_NS, "omitNull") != null;
+        String javaName = propertyBinding == null ? javaName(name) : propertyBinding.getAttribute("name");
+
+        String typeNamespace = element.lookupNamespaceURI(prefix(type));
+        Kind kind;
+        if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(typeNamespace)) {
+            if ("string".equals(localName(type))) {
+                kind = Kind.STRING;
+            } else if ("long".equals(localName(type))) {
+                kind = Kind.LONG;
+            } else {
+                throw new IllegalArgumentException(typeName + "." + name + ": unsupported type " + type);
+            }
+            if (list) {
+                throw new IllegalArgumentException(typeName + "." + name + ": only complex types can repeat");
+            }
+            //a required xs:long would be bound to a primitive
+            if (kind == Kind.LONG && !optional) {
+                throw new IllegalArgumentException(typeName + "." + name + ": xs:long elements must be optional");
+            }
+        } else if (complexTypes.containsKey(localName(type))) {
+            kind = Kind.COMPLEX;
+        } else {
+            throw new IllegalArgumentException(typeName + "." + name + ": unknown type " + type);
+        }
+
+        return new Property(name, javaName, kind, kind == Kind.COMPLEX ? localName(type) : null, list, omitNull);
+    }
+
+    /**
+     * The property name xjc derives from an element name, {@code vendor_url} becomes
+     * {@code vendorUrl}.
+     */
+    static String javaName(String elementName) {
+        StringBuilder javaName = new StringBuilder();
+        boolean upper = false;
+        for (char c : elementName.toCharArray()) {
+            if (c == '_' || c == '-' || c == '.') {
+                upper = javaName.length() > 0;
+            } else {
+                javaName.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        javaName.setCharAt(0, Character.toLowerCase(javaName.charAt(0)));
+        return javaName.toString();
+    }
+
+    //the <name> customization in the namespace in the annotation of a schema component
+    private static Element binding(Element component, String namespace, String name) {
+        for (Node annotation = component.getFirstChild(); annotation != null; annotation = annotation.getNextSibling()) {
+            if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(annotation.getNamespaceURI())
+                    && "annotation".equals(annotation.getLocalName())) {
+                for (Element appinfo : children((Element) annotation, XMLConstants.W3C_XML_SCHEMA_NS_URI)) {
+                    for (Element binding : children(appinfo, namespace)) {
+                        if (name.equals(binding.getLocalName())) {
+                            return binding;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    //child elements in the namespace, without annotations
+    private static List<Element> children(Element parent, String namespace) {
+        List<Element> children = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && namespace.equals(child.getNamespaceURI())
+                    && !"annotation".equals(child.getLocalName())) {
+                children.add((Element) child);
+            }
+        }
+        return children;
+    }
+
+    private static String prefix(String qName) {
+        int colon = qName.indexOf(':');
+        return colon < 0 ? null : qName.substring(0, colon);
+    }
+
+    private static String localName(String qName) {
+        return qName.substring(qName.indexOf(':') + 1);
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springfamework.codegen;
+
+import java.util.List;
+
+/**
+ * A complex type of the schemas and the Java class it is bound to.
+ */
+final class SchemaType {
+
+    enum Kind {
+        STRING, LONG, COMPLEX
+    }
+
+    final String name;
+    //the schema defining the type
+    final String schema;
+    final String javaClass;
+    //bound with jaxb:class ref to a JavaBean, lists have setters, otherwise generated by xjc, lists
+    //only have a getter returning the live list
+    final boolean bound;
+    //the element name when the value is a whole XML document
+    final String rootName;
+    final List<Property> properties;
+
+    SchemaType(String name, String schema, String javaClass, boolean bound, String rootName, List<Property> properties) {
+        this.name = name;
+        this.schema = schema;
+        this.javaClass = javaClass;
+        this.bound = bound;
+        this.rootName = rootName;
+        this.properties = properties;
+    }
+
+    String simpleClassName() {
+        return javaClass.substring(javaClass.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * An element of the type's sequence, in schema order.
+     */
+    static final class Property {
+
+        final String name;
+        final String javaName;
+        final Kind kind;
+        //the complex type of COMPLEX properties
+        final String typeName;
+        final boolean list;
+        //left out when null rather than written as null
+        final boolean omitNull;
+
+        Property(String name, String javaName, Kind kind, String typeName, boolean list, boolean omitNull) {
+            this.name = name;
+            this.javaName = javaName;
+            this.kind = kind;
+            this.typeName = typeName;
+            this.list = list;
+            this.omitNull = omitNull;
+        }
+
+        String getter() {
+            return "get" + Character.toUpperCase(javaName.charAt(0)) + javaName.substring(1);
+        }
+
+        String setter() {
+            return "set" + Character.toUpperCase(javaName.charAt(0)) + javaName.substring(1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package guru.springfamework.codegen;
+
+import guru.springfamework.codegen.SchemaType.Kind;
+import guru.springfamework.codegen.SchemaType.Property;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaReaderTest {
+
+    static final String SCHEMA = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\""
+            + " xmlns:jaxb=\"http://java.sun.com/xml/ns/jaxb\" jaxb:version=\"2.1\""
+            + " xmlns:codec=\"urn:guru.springfamework:codec\">"
+            + "<xs:element name=\"Listing\" type=\"ItemList\"/>"
+            + "<xs:complexType name=\"Item\">"
+            + "<xs:annotation><xs:appinfo><jaxb:class ref=\"com.example.ItemDTO\"/></xs:appinfo></xs:annotation>"
+            + "<xs:sequence>"
+            + "<xs:element type=\"xs:long\" name=\"id\" minOccurs=\"0\"/>"
+            + "<xs:element type=\"xs:string\" name=\"item_url\" minOccurs=\"0\">"
+            + "<xs:annotation><xs:appinfo><jaxb:property name=\"link\"/></xs:appinfo></xs:annotation>"
+            + "</xs:element>"
+            + "</xs:sequence>"
+            + "</xs:complexType>"
+            + "<xs:complexType name=\"ItemList\">"
+            + "<xs:sequence>"
+            + "<xs:element type=\"Item\" name=\"items\" maxOccurs=\"unbounded\" minOccurs=\"0\"/>"
+            + "<xs:element type=\"xs:string\" name=\"next_cursor\">"
+            + "<xs:annotation><xs:appinfo><codec:omitNull/></xs:appinfo></xs:annotation>"
+            + "</xs:element>"
+            + "</xs:sequence>"
+            + "</xs:complexType>"
+            + "</xs:schema>";
+
+    @Test
+    public void readsTypes() throws Exception {
+        //given
+        SchemaReader reader = new SchemaReader("com.example.model");
+
+        //when
+        reader.read("items.xsd", stream(SCHEMA));
+        List<SchemaType> types = reader.types();
+
+        //then
+        assertEquals(2, types.size());
+
+        SchemaType item = types.get(0);
+        assertEquals("com.example.ItemDTO", item.javaClass);
+        assertTrue(item.bound);
+        assertEquals("Item", item.rootName);
+        assertEquals("items.xsd", item.schema);
+        assertProperty(item.properties.get(0), "id", "id", Kind.LONG, false);
+        assertFalse(item.properties.get(0).omitNull);
+        assertProperty(item.properties.get(1), "item_url", "link", Kind.STRING, false);
+        assertEquals("getLink", item.properties.get(1).getter());
+
+        SchemaType itemList = types.get(1);
+        assertEquals("com.example.model.ItemList", itemList.javaClass);
+        assertFalse(itemList.bound);
+        assertEquals("Listing", itemList.rootName);
+        assertProperty(itemList.properties.get(0), "items", "items", Kind.COMPLEX, true);
+        assertEquals("Item", itemList.properties.get(0).typeName);
+        assertProperty(itemList.properties.get(1), "next_cursor", "nextCursor", Kind.STRING, false);
+        assertTrue(itemList.properties.get(1).omitNull);
+    }
+
+    @Test
+    public void generatesACodecPerType() throws Exception {
+        //given
+        SchemaReader reader = new SchemaReader("com.example.model");
+        reader.read("items.xsd", stream(SCHEMA));
+        CodecSourceWriter writer = new CodecSourceWriter("com.example.codec");
+
+        //when
+        String itemList = writer.codec(reader.types().get(1));
+        String registry = writer.registry(reader.types());
+
+        //then
+        assertTrue(itemList.contains("final class ItemListCodec implements Codec<ItemList>"));
+        assertTrue(itemList.contains("private static final SerializedString NEXT_CURSOR = new SerializedString(\"next_cursor\");"));
+        //xjc lists have no setter
+        assertTrue(itemList.contains("CodecSupport.readJsonList(parser, ItemCodec.INSTANCE, value.getItems())"));
+        assertTrue(itemList.contains("value.setNextCursor(CodecSupport.readXmlString(reader))"));
+        assertTrue(itemList.contains("        if (value.getNextCursor() != null) {\n"
+                + "            generator.writeFieldName(NEXT_CURSOR);\n"
+                + "            generator.writeString(value.getNextCursor());\n"
+                + "        }\n"));
+        assertTrue(itemList.contains("        generator.writeFieldName(ITEMS);\n"));
+        assertTrue(registry.contains("register(ItemCodec.INSTANCE);\n        register(ItemListCodec.INSTANCE);"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedTypes() throws Exception {
+        SchemaReader reader = new SchemaReader("com.example.model");
+        reader.read("items.xsd", stream(SCHEMA.replace("xs:long", "xs:dateTime")));
+
+        reader.types();
+    }
+
+    @Test
+    public void javaName() throws Exception {
+        assertEquals("vendorUrl", SchemaReader.javaName("vendor_url"));
+        assertEquals("customerUrl", SchemaReader.javaName("customerUrl"));
+        assertEquals("firstname", SchemaReader.javaName("firstname"));
+        assertEquals("name", SchemaReader.javaName("Name"));
+    }
+
+    private static void assertProperty(Property property, String name, String javaName, Kind kind, boolean list) {
+        assertEquals(name, property.name);
+        assertEquals(javaName, property.javaName);
+        assertEquals(kind, property.kind);
+        assertEquals(list, property.list);
+    }
+
+    private static ByteArrayInputStream stream(String schema) {
+        return new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,68 @@
+package guru.springfamework.loadtest;
+
+import guru.springfamework.bootstrap.DataSeeder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rows seeded before a run, which the requests pick their ids and names from.
+ */
+class Dataset {
+
+    private final long[] customerIds;
+    private final long[] vendorIds;
+    private final String[] categoryNames;
+
+    Dataset(long[] customerIds, long[] vendorIds, String[] categoryNames) {
+        this.customerIds = customerIds;
+        this.vendorIds = vendorIds;
+        this.categoryNames = categoryNames;
+    }
+
+    /**
+     * Bulk inserts the rows with {@link DataSeeder} and reads back all ids and category names, the
+     * app's sample rows among them.
+     */
+    static Dataset seed(ApplicationContext context, LoadSettings settings) {
+        List<DataSeeder.Seeded> seeded = context.getBean(DataSeeder.class)
+                .seed(settings.customers, settings.vendors, settings.categories);
+        seeded.forEach(table -> System.out.println("Seeded " + table));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long[] customerIds = ids(jdbcTemplate, "select id from customer order by id");
+        long[] vendorIds = ids(jdbcTemplate, "select id from vendor order by id");
+        String[] categoryNames = jdbcTemplate.queryForList("select name from category order by id", String.class)
+                .toArray(new String[0]);
+
+        return new Dataset(customerIds, vendorIds, categoryNames);
+    }
+
+    private static long[] ids(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    long customerId(Random random) {
+        return pick(customerIds, random, "customers");
+    }
+
+    long vendorId(Random random) {
+        return pick(vendorIds, random, "vendors");
+    }
+
+    String categoryName(Random random) {
+        if (categoryNames.length == 0) {
+            throw new IllegalStateException("The mix reads categories but none were seeded");
+        }
+        return categoryNames[random.nextInt(categoryNames.length)];
+    }
+
+    private static long pick(long[] ids, Random random, String what) {
+        if (ids.length == 0) {
+            throw new IllegalStateException("The mix reads " + what + " but none were seeded");
+        }
+        return ids[random.nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,98 @@
+package guru.springfamework.loadtest;
+
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends the operations as JSON requests over HttpURLConnection, which keeps connections alive as
+ * long as every response body is read to the end.
+ */
+class HttpTarget implements Target {
+
+    private static final int PAGE_SIZE = 50;
+
+    private final String baseUrl;
+    private final Dataset dataset;
+
+    HttpTarget(String baseUrl, Dataset dataset) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+    }
+
+    @Override
+    public int send(Operation operation) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case CUSTOMERS_LIST:
+                return exchange(operation, CustomerController.BASE_URL, null);
+            case CUSTOMERS_PAGE:
+                return exchange(operation, CustomerController.BASE_URL + "?limit=" + PAGE_SIZE, null);
+            case CUSTOMERS_GET:
+                return exchange(operation, CustomerController.BASE_URL + "/" + dataset.customerId(random), null);
+            case CUSTOMERS_CREATE:
+                return exchange(operation, CustomerController.BASE_URL, customer(random));
+            case CUSTOMERS_UPDATE:
+                return exchange(operation, CustomerController.BASE_URL + "/" + dataset.customerId(random), customer(random));
+            case VENDORS_LIST:
+                return exchange(operation, VendorController.BASE_URL, null);
+            case VENDORS_PAGE:
+                return exchange(operation, VendorController.BASE_URL + "?limit=" + PAGE_SIZE, null);
+            case VENDORS_GET:
+                return exchange(operation, VendorController.BASE_URL + "/" + dataset.vendorId(random), null);
+            case VENDORS_CREATE:
+                return exchange(operation, VendorController.BASE_URL, vendor(random));
+            case VENDORS_UPDATE:
+                return exchange(operation, VendorController.BASE_URL + "/" + dataset.vendorId(random), vendor(random));
+            case CATEGORIES_LIST:
+                return exchange(operation, CategoryController.BASE_URL, null);
+            case CATEGORIES_GET:
+                return exchange(operation, CategoryController.BASE_URL
+                        + UriUtils.encodePathSegment(dataset.categoryName(random), StandardCharsets.UTF_8), null);
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    private static String customer(ThreadLocalRandom random) {
+        int n = random.nextInt(1_000_000);
+        return "{\"firstname\":\"Load" + n + "\",\"lastname\":\"Test" + n + "\"}";
+    }
+
+    private static String vendor(ThreadLocalRandom random) {
+        return "{\"name\":\"Load Vendor " + random.nextInt(1_000_000) + "\"}";
+    }
+
+    private int exchange(Operation operation, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(operation.method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            try (InputStream drained = in) {
+                byte[] buffer = new byte[8192];
+                while (drained.read(buffer) >= 0) {
+                    //read to the end so the connection goes back to the keep-alive cache
+                }
+            }
+        }
+        return status;
+    }
+}
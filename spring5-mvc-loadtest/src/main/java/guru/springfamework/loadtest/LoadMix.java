@@ -0,0 +1,70 @@
+package guru.springfamework.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Weighted choice of {@link Operation}s, written as {@code customers.get=30,vendors.update=5,...}.
+ */
+class LoadMix {
+
+    static final String DEFAULT = "customers.list=1,customers.page=9,customers.get=30,customers.create=5,"
+            + "customers.update=5,vendors.list=1,vendors.page=9,vendors.get=25,vendors.create=5,"
+            + "vendors.update=5,categories.list=3,categories.get=2";
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadMix(List<Operation> operations, List<Integer> weights) {
+        this.operations = operations.toArray(new Operation[0]);
+        this.cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static LoadMix parse(String spec) {
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got " + entry);
+            }
+            Operation operation = Operation.forKey(keyAndWeight[0].trim());
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight < 0 || operations.contains(operation)) {
+                throw new IllegalArgumentException("Invalid mix entry " + entry);
+            }
+            if (weight > 0) {
+                operations.add(operation);
+                weights.add(weight);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + spec);
+        }
+        return new LoadMix(operations, weights);
+    }
+
+    Operation next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= pick) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    Set<Operation> operations() {
+        Set<Operation> set = EnumSet.noneOf(Operation.class);
+        Collections.addAll(set, operations);
+        return set;
+    }
+}
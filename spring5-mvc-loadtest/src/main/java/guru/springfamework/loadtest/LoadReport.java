@@ -0,0 +1,82 @@
+package guru.springfamework.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per operation for one phase of a run, recorded in microseconds.
+ */
+class LoadReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private Map<Operation, Histogram> histograms;
+    private long elapsedNanos;
+
+    LoadReport(Set<Operation> operations) {
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(HIGHEST_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * A non-zero expected interval back-fills the samples a closed loop skipped while it waited on
+     * a slow response, see {@link Recorder#recordValueWithExpectedInterval}.
+     */
+    void record(Operation operation, long latencyNanos, long expectedIntervalNanos, boolean ok) {
+        long micros = Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        recorders.get(operation).recordValueWithExpectedInterval(micros,
+                TimeUnit.NANOSECONDS.toMicros(expectedIntervalNanos));
+        if (!ok) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        this.histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+    }
+
+    Histogram histogram(Operation operation) {
+        return histograms.get(operation);
+    }
+
+    Histogram total() {
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        histograms.values().forEach(total::add);
+        return total;
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%-18s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        histograms.forEach((operation, histogram) ->
+                printRow(out, operation.key, histogram, errors.get(operation).sum(), seconds));
+        printRow(out, "total", total(), errors(), seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-18s %9d %7d %10.1f", name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+}
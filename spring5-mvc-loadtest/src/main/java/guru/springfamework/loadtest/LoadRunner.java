@@ -0,0 +1,99 @@
+package guru.springfamework.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Target} with the settings' mix, first for the warm-up and then for the measured
+ * phase.
+ * <p>
+ * Both modes correct for coordinated omission. The open loop has a schedule: request n is due at
+ * start + n / rate and its latency is measured from that moment, so requests held up behind a
+ * stall count the time they waited. The closed loop has no schedule, there the mean latency of the
+ * warm-up is taken as the expected interval and longer samples are back-filled in the histogram.
+ */
+class LoadRunner {
+
+    private final LoadSettings settings;
+    private final Target target;
+
+    LoadRunner(LoadSettings settings, Target target) {
+        this.settings = settings;
+        this.target = target;
+    }
+
+    LoadReport run() throws InterruptedException {
+        long expectedIntervalNanos = 0;
+        if (!settings.warmup.isZero()) {
+            LoadReport warmup = phase(settings.warmup, 0);
+            if (!settings.isOpenLoop()) {
+                expectedIntervalNanos = TimeUnit.MICROSECONDS.toNanos((long) warmup.total().getMean());
+            }
+        }
+        return phase(settings.duration, expectedIntervalNanos);
+    }
+
+    private LoadReport phase(Duration length, long expectedIntervalNanos) throws InterruptedException {
+        LoadReport report = new LoadReport(settings.mix.operations());
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+        AtomicLong tickets = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (int i = 0; i < settings.concurrency; i++) {
+            if (settings.isOpenLoop()) {
+                workers.execute(() -> openLoop(start, end, tickets, report));
+            } else {
+                workers.execute(() -> closedLoop(end, expectedIntervalNanos, report));
+            }
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(length.getSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Workers did not finish within a minute of the phase end");
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void closedLoop(long end, long expectedIntervalNanos, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            Operation operation = settings.mix.next(random);
+            long sent = System.nanoTime();
+            boolean ok = send(operation);
+            report.record(operation, System.nanoTime() - sent, expectedIntervalNanos, ok);
+        }
+    }
+
+    private void openLoop(long start, long end, AtomicLong tickets, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+        while (true) {
+            long due = start + tickets.getAndIncrement() * intervalNanos;
+            if (due >= end) {
+                return;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = settings.mix.next(random);
+            boolean ok = send(operation);
+            report.record(operation, System.nanoTime() - due, 0, ok);
+        }
+    }
+
+    private boolean send(Operation operation) {
+        try {
+            return target.send(operation) < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
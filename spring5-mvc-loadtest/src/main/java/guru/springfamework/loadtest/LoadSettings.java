@@ -0,0 +1,93 @@
+package guru.springfamework.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Knobs for one load run, given on the command line as {@code name=value} or {@code --name=value}.
+ * <ul>
+ * <li>customers, vendors, categories: rows seeded before the run</li>
+ * <li>seed: random seed of the seeded names, the same seed seeds the same rows</li>
+ * <li>concurrency: worker threads, each with its own connection</li>
+ * <li>rate: requests per second across all workers, 0 runs a closed loop where every worker sends
+ * its next request as soon as the previous one returned</li>
+ * <li>warmup, duration: seconds</li>
+ * <li>mix: see {@link LoadMix}</li>
+ * </ul>
+ */
+class LoadSettings {
+
+    int customers = 1000;
+    int vendors = 1000;
+    int categories = 20;
+    long seed = 1;
+    int concurrency = 16;
+    int rate = 0;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(30);
+    LoadMix mix = LoadMix.parse(LoadMix.DEFAULT);
+
+    boolean isOpenLoop() {
+        return rate > 0;
+    }
+
+    static LoadSettings parse(String... args) {
+        LoadSettings settings = new LoadSettings();
+        for (String arg : args) {
+            String setting = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = setting.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            String name = setting.substring(0, equals);
+            String value = setting.substring(equals + 1);
+            switch (name) {
+                case "customers":
+                    settings.customers = atLeast(0, name, value);
+                    break;
+                case "vendors":
+                    settings.vendors = atLeast(0, name, value);
+                    break;
+                case "categories":
+                    settings.categories = atLeast(0, name, value);
+                    break;
+                case "seed":
+                    settings.seed = Long.parseLong(value);
+                    break;
+                case "concurrency":
+                    settings.concurrency = atLeast(1, name, value);
+                    break;
+                case "rate":
+                    settings.rate = atLeast(0, name, value);
+                    break;
+                case "warmup":
+                    settings.warmup = Duration.ofSeconds(atLeast(0, name, value));
+                    break;
+                case "duration":
+                    settings.duration = Duration.ofSeconds(atLeast(1, name, value));
+                    break;
+                case "mix":
+                    settings.mix = LoadMix.parse(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown setting " + name);
+            }
+        }
+        return settings;
+    }
+
+    private static int atLeast(int min, String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min + " but was " + value);
+        }
+        return parsed;
+    }
+
+    @Override
+    public String toString() {
+        return (isOpenLoop() ? "open loop at " + rate + " req/s" : "closed loop")
+                + ", " + concurrency + " workers, " + duration.getSeconds() + " s after "
+                + warmup.getSeconds() + " s warm-up, seeded with " + customers + " customers, "
+                + vendors + " vendors, " + categories + " categories";
+    }
+}
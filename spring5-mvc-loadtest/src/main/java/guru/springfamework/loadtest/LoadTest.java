@@ -0,0 +1,34 @@
+package guru.springfamework.loadtest;
+
+import guru.springfamework.Spring5MvcRestApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the rest app on a random local port with in-memory H2, seeds it and puts it under load
+ * over HTTP from the same JVM. Arguments are described in {@link LoadSettings}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+
+        //HttpURLConnection only keeps 5 idle connections per host by default
+        System.setProperty("http.maxConnections", String.valueOf(settings.concurrency));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0", "--management.server.port=0", "--logging.level.root=WARN",
+                        "--app.warm-up.enabled=false", "--app.seed.random-seed=" + settings.seed)) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            System.out.println("Metrics at http://localhost:"
+                    + context.getEnvironment().getProperty("local.management.port") + "/actuator/prometheus");
+
+            System.out.println("Seeding " + settings);
+            Dataset dataset = Dataset.seed(context, settings);
+
+            LoadReport report = new LoadRunner(settings, new HttpTarget("http://localhost:" + port, dataset)).run();
+            report.print(System.out);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package guru.springfamework.loadtest;
+
+/**
+ * The requests a load mix is made of, keyed the way they are written in the mix.
+ */
+enum Operation {
+
+    CUSTOMERS_LIST("customers.list", "GET"),
+    CUSTOMERS_PAGE("customers.page", "GET"),
+    CUSTOMERS_GET("customers.get", "GET"),
+    CUSTOMERS_CREATE("customers.create", "POST"),
+    CUSTOMERS_UPDATE("customers.update", "PUT"),
+    VENDORS_LIST("vendors.list", "GET"),
+    VENDORS_PAGE("vendors.page", "GET"),
+    VENDORS_GET("vendors.get", "GET"),
+    VENDORS_CREATE("vendors.create", "POST"),
+    VENDORS_UPDATE("vendors.update", "PUT"),
+    CATEGORIES_LIST("categories.list", "GET"),
+    CATEGORIES_GET("categories.get", "GET");
+
+    final String key;
+    final String method;
+
+    Operation(String key, String method) {
+        this.key = key;
+        this.method = method;
+    }
+
+    static Operation forKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
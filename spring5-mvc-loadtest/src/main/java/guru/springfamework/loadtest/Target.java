@@ -0,0 +1,14 @@
+package guru.springfamework.loadtest;
+
+import java.io.IOException;
+
+/**
+ * Whatever the load is sent to.
+ */
+interface Target {
+
+    /**
+     * Sends one request for the operation and returns its HTTP status.
+     */
+    int send(Operation operation) throws IOException;
+}
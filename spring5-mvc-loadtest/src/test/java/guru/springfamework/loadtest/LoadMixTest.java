@@ -0,0 +1,61 @@
+package guru.springfamework.loadtest;
+
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadMixTest {
+
+    @Test
+    public void nextFollowsWeights() {
+        //given
+        LoadMix mix = LoadMix.parse("customers.get=3, vendors.get=1, categories.list=0");
+        Random random = new Random(42);
+
+        //when
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        //then
+        assertEquals(EnumSet.of(Operation.CUSTOMERS_GET, Operation.VENDORS_GET), mix.operations());
+        assertEquals(EnumSet.of(Operation.CUSTOMERS_GET, Operation.VENDORS_GET), counts.keySet());
+        assertEquals(30_000, counts.get(Operation.CUSTOMERS_GET), 500);
+        assertEquals(10_000, counts.get(Operation.VENDORS_GET), 500);
+    }
+
+    @Test
+    public void defaultMixCoversEveryOperation() {
+        assertEquals(EnumSet.allOf(Operation.class), LoadMix.parse(LoadMix.DEFAULT).operations());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownOperation() {
+        LoadMix.parse("customers.delete=1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allWeightsZero() {
+        LoadMix.parse("customers.get=0");
+    }
+
+    @Test
+    public void settingsParse() {
+        //when
+        LoadSettings settings = LoadSettings.parse("--rate=500", "concurrency=4", "duration=5", "mix=vendors.get=1");
+
+        //then
+        assertTrue(settings.isOpenLoop());
+        assertEquals(500, settings.rate);
+        assertEquals(4, settings.concurrency);
+        assertEquals(5, settings.duration.getSeconds());
+        assertEquals(EnumSet.of(Operation.VENDORS_GET), settings.mix.operations());
+    }
+}
@@ -0,0 +1,72 @@
+package guru.springfamework.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadRunnerTest {
+
+    private static final long SERVICE_MILLIS = 5;
+
+    //answers every request after SERVICE_MILLIS, or fails it when the status says so
+    private static Target slowTarget(int status) {
+        return operation -> {
+            try {
+                Thread.sleep(SERVICE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return status;
+        };
+    }
+
+    private static LoadSettings settings(int rate) {
+        LoadSettings settings = new LoadSettings();
+        settings.concurrency = 1;
+        settings.rate = rate;
+        settings.warmup = Duration.ZERO;
+        settings.duration = Duration.ofSeconds(1);
+        settings.mix = LoadMix.parse("customers.get=1");
+        return settings;
+    }
+
+    @Test
+    public void closedLoopRecordsServiceTime() throws Exception {
+        //when
+        LoadReport report = new LoadRunner(settings(0), slowTarget(200)).run();
+
+        //then
+        Histogram histogram = report.histogram(Operation.CUSTOMERS_GET);
+        assertTrue(histogram.getTotalCount() > 50);
+        assertTrue(histogram.getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toMicros(SERVICE_MILLIS));
+        assertTrue(histogram.getValueAtPercentile(50) < TimeUnit.MILLISECONDS.toMicros(SERVICE_MILLIS * 10));
+        assertEquals(0, report.errors());
+    }
+
+    @Test
+    public void openLoopCountsQueueingBehindSlowResponses() throws Exception {
+        //given one worker asked for twice the rate it can serve
+        LoadSettings settings = settings((int) (2000 / SERVICE_MILLIS));
+
+        //when
+        LoadReport report = new LoadRunner(settings, slowTarget(200)).run();
+
+        //then the backlog grows for the whole second, so the median waits far longer than one call
+        Histogram histogram = report.histogram(Operation.CUSTOMERS_GET);
+        assertTrue(histogram.getValueAtPercentile(50) > TimeUnit.MILLISECONDS.toMicros(100));
+    }
+
+    @Test
+    public void errorStatusesAreCounted() throws Exception {
+        //when
+        LoadReport report = new LoadRunner(settings(0), slowTarget(500)).run();
+
+        //then
+        assertEquals(report.total().getTotalCount(), report.errors());
+    }
+}
@@ -0,0 +1,43 @@
+package guru.springfamework.api.v1.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.codehaus.stax2.XMLStreamWriter2;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+
+/**
+ * Reads and writes one schema type as JSON and XML without reflection. The implementations are
+ * generated at build time from the schemas in spring5-mvc-model, see {@link Codecs}, and write
+ * the same bytes Jackson writes for the bound class.
+ */
+public interface Codec<T> {
+
+    Class<T> type();
+
+    /**
+     * The element name when the value is a whole XML document.
+     */
+    String rootName();
+
+    void writeJson(T value, JsonGenerator generator) throws IOException;
+
+    /**
+     * Reads the value starting at the parser's current token, {@code null} for a JSON null. Unknown
+     * fields are skipped.
+     */
+    T readJson(JsonParser parser) throws IOException;
+
+    /**
+     * Writes the content of the element holding the value, the caller writes the element itself.
+     */
+    void writeXml(T value, XMLStreamWriter2 writer) throws XMLStreamException;
+
+    /**
+     * Reads the content of the element the reader is on and leaves the reader on its end. Unknown
+     * elements and attributes are skipped.
+     */
+    T readXml(XMLStreamReader2 reader) throws XMLStreamException;
+}
@@ -0,0 +1,241 @@
+package guru.springfamework.api.v1.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.codehaus.stax2.XMLStreamWriter2;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the generated codecs share. Values are read the way Jackson reads them with Boot's
+ * defaults: scalars are coerced to strings and numeric strings to numbers, an empty XML element is
+ * {@code null} while a start and end tag with nothing between them is an empty string, and lists
+ * are wrapped in an element named after the property. Nulls are written as Jackson writes them,
+ * the generated codecs themselves leave out the properties the schema marks {@code omitNull}.
+ */
+final class CodecSupport {
+
+    private CodecSupport() {
+    }
+
+    static void writeJsonNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    static <T> void writeJson(JsonGenerator generator, T value, Codec<T> codec) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            codec.writeJson(value, generator);
+        }
+    }
+
+    static <T> void writeJsonList(JsonGenerator generator, List<T> values, Codec<T> codec) throws IOException {
+        if (values == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartArray();
+        for (T value : values) {
+            writeJson(generator, value, codec);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Whether the parser is on the start of an object, {@code false} for a JSON null.
+     */
+    static boolean startObject(JsonParser parser, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw mismatch(parser, type);
+        }
+        return true;
+    }
+
+    static String readJsonString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == null || !token.isScalarValue()) {
+            throw mismatch(parser, String.class);
+        }
+        return parser.getText();
+    }
+
+    static Long readJsonLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            try {
+                return text.isEmpty() ? null : Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                throw InvalidFormatException.from(parser, "not a valid Long value", text, Long.class);
+            }
+        }
+        throw mismatch(parser, Long.class);
+    }
+
+    static <T> List<T> readJsonList(JsonParser parser, Codec<T> codec) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        List<T> values = new ArrayList<>();
+        readJsonList(parser, codec, values);
+        return values;
+    }
+
+    /**
+     * Fills {@code values} with the elements of the array, leaves it alone for a JSON null. A
+     * repeated field replaces the earlier one as it does in Jackson.
+     */
+    static <T> void readJsonList(JsonParser parser, Codec<T> codec, List<T> values) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw mismatch(parser, ArrayList.class);
+        }
+
+        values.clear();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(codec.readJson(parser));
+        }
+    }
+
+    private static MismatchedInputException mismatch(JsonParser parser, Class<?> type) {
+        return MismatchedInputException.from(parser, type,
+                "Cannot deserialize instance of `" + type.getName() + "` out of " + parser.currentToken() + " token");
+    }
+
+    static void writeXmlString(XMLStreamWriter2 writer, String name, String value) throws XMLStreamException {
+        if (value == null) {
+            writer.writeEmptyElement(name);
+            return;
+        }
+
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    static void writeXmlNumber(XMLStreamWriter2 writer, String name, Long value) throws XMLStreamException {
+        if (value == null) {
+            writer.writeEmptyElement(name);
+            return;
+        }
+
+        writer.writeStartElement(name);
+        writer.writeLong(value);
+        writer.writeEndElement();
+    }
+
+    static <T> void writeXml(XMLStreamWriter2 writer, String name, T value, Codec<T> codec) throws XMLStreamException {
+        if (value == null) {
+            writer.writeEmptyElement(name);
+            return;
+        }
+
+        writer.writeStartElement(name);
+        codec.writeXml(value, writer);
+        writer.writeEndElement();
+    }
+
+    /**
+     * A wrapper element holding an element per value, both named {@code name}. Jackson leaves out
+     * null lists altogether.
+     */
+    static <T> void writeXmlList(XMLStreamWriter2 writer, String name, List<T> values, Codec<T> codec)
+            throws XMLStreamException {
+        if (values == null) {
+            return;
+        }
+
+        writer.writeStartElement(name);
+        for (T value : values) {
+            writeXml(writer, name, value, codec);
+        }
+        writer.writeEndElement();
+    }
+
+    /**
+     * Moves to the start of the next child element, {@code false} at the end of the parent.
+     */
+    static boolean nextElement(XMLStreamReader2 reader) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    static String readXmlString(XMLStreamReader2 reader) throws XMLStreamException {
+        if (reader.isEmptyElement()) {
+            reader.next();
+            return null;
+        }
+        return reader.getElementText();
+    }
+
+    static Long readXmlLong(XMLStreamReader2 reader) throws XMLStreamException {
+        String text = readXmlString(reader);
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException("Not a valid Long value: " + text, reader.getLocation(), e);
+        }
+    }
+
+    /**
+     * The values of the wrapper element, {@code null} when it has no children as Jackson reads it.
+     */
+    static <T> List<T> readXmlList(XMLStreamReader2 reader, Codec<T> codec) throws XMLStreamException {
+        List<T> values = new ArrayList<>();
+        readXmlList(reader, codec, values);
+        return values.isEmpty() ? null : values;
+    }
+
+    /**
+     * Fills {@code values} with a value for each child of the wrapper element, whatever the
+     * child's name. A repeated wrapper replaces the earlier one as it does in Jackson.
+     */
+    static <T> void readXmlList(XMLStreamReader2 reader, Codec<T> codec, List<T> values) throws XMLStreamException {
+        values.clear();
+        while (nextElement(reader)) {
+            values.add(codec.readXml(reader));
+        }
+    }
+}
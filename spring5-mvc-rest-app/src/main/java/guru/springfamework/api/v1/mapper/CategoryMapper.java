@@ -2,6 +2,7 @@ package guru.springfamework.api.v1.mapper;
 
 import guru.springfamework.api.v1.model.CategoryDTO;
 import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
 
@@ -15,4 +16,6 @@ public interface CategoryMapper {
 
 
     CategoryDTO categoryToCategoryDTO(Category category);
+
+    CategoryDTO categoryViewToCategoryDTO(CategoryView categoryView);
 }
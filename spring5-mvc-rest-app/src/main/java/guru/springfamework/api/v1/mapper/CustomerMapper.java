@@ -1,8 +1,10 @@
 package guru.springfamework.api.v1.mapper;
 
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
 import guru.springfamework.model.CustomerDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -15,5 +17,10 @@ public interface CustomerMapper {
 
     CustomerDTO customerToCustomerDTO(Customer customer);
 
+    CustomerDTO customerViewToCustomerDTO(CustomerView customerView);
+
+    //the id comes from the allocator and the version from Hibernate, neither from the client
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Customer customerDtoToCustomer(CustomerDTO customerDTO);
 }
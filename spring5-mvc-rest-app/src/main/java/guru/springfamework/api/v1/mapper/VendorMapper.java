@@ -2,7 +2,9 @@ package guru.springfamework.api.v1.mapper;
 
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -15,5 +17,10 @@ public interface VendorMapper {
 
     VendorDTO vendorToVendorDTO(Vendor vendor);
 
+    VendorDTO vendorViewToVendorDTO(VendorView vendorView);
+
+    //the id comes from the allocator and the version from Hibernate, neither from the client
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Vendor vendorDtoToVendor(VendorDTO vendorDTO);
 }
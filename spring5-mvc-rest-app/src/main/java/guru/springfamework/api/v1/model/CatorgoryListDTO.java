@@ -2,6 +2,7 @@ package guru.springfamework.api.v1.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
@@ -9,6 +10,7 @@ import java.util.List;
  * Created by jt on 9/26/17.
  */
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class CatorgoryListDTO {
 
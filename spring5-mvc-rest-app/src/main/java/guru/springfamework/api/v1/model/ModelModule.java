@@ -0,0 +1,24 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import guru.springfamework.model.CustomerListDTO;
+
+/**
+ * The Jackson annotations of the types xjc generates from the schemas, which can't carry them
+ * themselves.
+ */
+public class ModelModule extends SimpleModule {
+
+    public ModelModule() {
+        super(ModelModule.class.getSimpleName());
+        setMixInAnnotation(CustomerListDTO.class, CustomerListDTOMixIn.class);
+    }
+
+    abstract static class CustomerListDTOMixIn {
+
+        //only paged responses have one, as in VendorListDTO
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        abstract String getNextCursor();
+    }
+}
@@ -1,5 +1,6 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,7 @@ import java.util.List;
 @AllArgsConstructor
 public class VendorListDTO {
     List<VendorDTO> vendors;
+    //only paged responses have one
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String nextCursor;
 }
@@ -0,0 +1,67 @@
+package guru.springfamework.api.v1.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+
+import javax.xml.namespace.QName;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The envelope of a list document, the object holding the list, in the shape Jackson writes for
+ * the equivalent list DTO. Subclasses write the elements in between. Streamed lists are never
+ * paged, the null cursor is left out as it is from the DTO.
+ * <p>
+ * The document is only completed by {@link #finish()}, once every element is written. Closing a
+ * writer that was not finished leaves the document open, so a listing that failed part way can't
+ * be mistaken for a complete one.
+ */
+abstract class ListDocumentWriter implements Closeable {
+
+    final JsonGenerator generator;
+    final QName listName;
+
+    private boolean finished;
+
+    ListDocumentWriter(JsonGenerator generator, String rootName, String listName) throws IOException {
+        this.generator = generator;
+        this.listName = new QName(listName);
+
+        if (generator instanceof ToXmlGenerator) {
+            ((ToXmlGenerator) generator).setNextName(new QName(rootName));
+        }
+
+        generator.writeStartObject();
+        generator.writeFieldName(listName);
+
+        if (generator instanceof ToXmlGenerator) {
+            ((ToXmlGenerator) generator).startWrappedValue(this.listName, this.listName);
+        }
+
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the end of the list, closing the document.
+     */
+    public void finish() throws IOException {
+        generator.writeEndArray();
+
+        if (generator instanceof ToXmlGenerator) {
+            ((ToXmlGenerator) generator).finishWrappedValue(listName, listName);
+        }
+
+        generator.writeEndObject();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            generator.close();
+        } else {
+            //closing the generator would end the open elements, the client has to see a cut off document
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package guru.springfamework.api.v1.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes a list document straight from JDBC rows, each row one element, with the same bytes
+ * Jackson writes for the list DTO. There are no DTOs and no strings per element: field names are
+ * encoded once, column values are copied into the output buffer as the driver returns them and the
+ * resource URL is a prefix followed by the id digits.
+ * <p>
+ * Columns are looked up by label on the first row.
+ */
+public class ListRowWriter extends ListDocumentWriter implements RowCallbackHandler {
+
+    private final Field[] fields;
+    private final int[] columns;
+    private final XMLStreamWriter xmlWriter;
+    private final String elementName;
+    //the URL prefix, followed by room for the digits of any long
+    private final char[] url;
+    private final int urlPrefixLength;
+
+    private boolean columnsResolved;
+
+    ListRowWriter(JsonGenerator generator, String urlPrefix, Field[] fields, String rootName,
+                  String listName) throws IOException {
+        super(generator, rootName, listName);
+        this.fields = fields;
+        this.columns = new int[fields.length];
+        this.xmlWriter = generator instanceof ToXmlGenerator ? ((ToXmlGenerator) generator).getStaxWriter() : null;
+        this.elementName = listName;
+        this.urlPrefixLength = urlPrefix.length();
+        this.url = new char[urlPrefixLength + 20];
+        urlPrefix.getChars(0, urlPrefixLength, url, 0);
+    }
+
+    /**
+     * A field taking the value of a string column.
+     */
+    static Field column(String name, String columnLabel) {
+        return new Field(name, columnLabel, false);
+    }
+
+    /**
+     * The URL prefix followed by the value of the id column.
+     */
+    static Field url(String name, String idColumnLabel) {
+        return new Field(name, idColumnLabel, true);
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        if (!columnsResolved) {
+            for (int i = 0; i < fields.length; i++) {
+                columns[i] = rs.findColumn(fields[i].columnLabel);
+            }
+            columnsResolved = true;
+        }
+
+        try {
+            if (xmlWriter != null) {
+                writeXml(rs);
+            } else {
+                writeJson(rs);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException(e));
+        }
+    }
+
+    private void writeJson(ResultSet rs) throws SQLException, IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            generator.writeFieldName(field.jsonName);
+            if (field.url) {
+                generator.writeString(url, 0, url(rs.getLong(columns[i])));
+            } else {
+                String value = rs.getString(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    //the generator is inside the wrapped list, elements go to the StAX writer underneath
+    private void writeXml(ResultSet rs) throws SQLException, XMLStreamException {
+        xmlWriter.writeStartElement(elementName);
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field.url) {
+                xmlWriter.writeStartElement(field.name);
+                xmlWriter.writeCharacters(url, 0, url(rs.getLong(columns[i])));
+                xmlWriter.writeEndElement();
+            } else {
+                String value = rs.getString(columns[i]);
+                if (value == null) {
+                    xmlWriter.writeEmptyElement(field.name);
+                } else {
+                    xmlWriter.writeStartElement(field.name);
+                    xmlWriter.writeCharacters(value);
+                    xmlWriter.writeEndElement();
+                }
+            }
+        }
+        xmlWriter.writeEndElement();
+    }
+
+    /**
+     * Writes the digits of {@code id} after the URL prefix, ids are never negative.
+     *
+     * @return the length of the URL
+     */
+    private int url(long id) {
+        int digits = 1;
+        for (long rest = id / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+
+        int length = urlPrefixLength + digits;
+        long rest = id;
+        for (int i = length - 1; i >= urlPrefixLength; i--) {
+            url[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        return length;
+    }
+
+    /**
+     * An element field, shareable between writers so its name is only encoded once.
+     */
+    static final class Field {
+
+        final String name;
+        final SerializableString jsonName;
+        final String columnLabel;
+        final boolean url;
+
+        private Field(String name, String columnLabel, boolean url) {
+            this.name = name;
+            this.jsonName = new SerializedString(name);
+            this.columnLabel = columnLabel;
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package guru.springfamework.api.v1.stream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.config.SerializationEngine;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Opens {@link ListRowWriter}s for the list endpoints, using the same Jackson configuration
+ * as the regular JSON and XML message converters.
+ */
+@Component
+public class ListStreamWriters {
+
+    //CustomerDTO and VendorDTO, in their property order
+    private static final ListRowWriter.Field[] CUSTOMER_FIELDS = {
+            ListRowWriter.column("firstname", "firstname"),
+            ListRowWriter.column("lastname", "lastname"),
+            ListRowWriter.url("customerUrl", "id")};
+    private static final ListRowWriter.Field[] VENDOR_FIELDS = {
+            ListRowWriter.column("name", "name"),
+            ListRowWriter.url("vendor_url", "id")};
+
+    private final ObjectMapper jsonMapper;
+    private final XmlMapper xmlMapper;
+
+    @Autowired
+    public ListStreamWriters(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                             SerializationEngine serializationEngine) {
+        this(objectMapper, serializationEngine.xmlMapper(objectMapperBuilder));
+    }
+
+    public ListStreamWriters(ObjectMapper jsonMapper, XmlMapper xmlMapper) {
+        this.jsonMapper = jsonMapper;
+        this.xmlMapper = xmlMapper;
+    }
+
+    /**
+     * Picks XML when the client prefers it over JSON, JSON otherwise.
+     */
+    public MediaType negotiate(String acceptHeader) {
+        if (acceptHeader != null) {
+            List<MediaType> accepted = MediaType.parseMediaTypes(acceptHeader);
+            MediaType.sortBySpecificityAndQuality(accepted);
+
+            for (MediaType mediaType : accepted) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return MediaType.APPLICATION_JSON;
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_XML)) {
+                    return MediaType.APPLICATION_XML;
+                }
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * A writer for customer rows with {@code id}, {@code firstname} and {@code lastname} columns.
+     */
+    public ListRowWriter openCustomerRows(MediaType mediaType, OutputStream outputStream) throws IOException {
+        return new ListRowWriter(generator(mediaType, outputStream), CustomerController.BASE_URL + "/", CUSTOMER_FIELDS,
+                "CustomerListDTO", "customers");
+    }
+
+    /**
+     * A writer for vendor rows with {@code id} and {@code name} columns.
+     */
+    public ListRowWriter openVendorRows(MediaType mediaType, OutputStream outputStream) throws IOException {
+        return new ListRowWriter(generator(mediaType, outputStream), VendorController.BASE_URL + "/", VENDOR_FIELDS,
+                "VendorListDTO", "vendors");
+    }
+
+    private ObjectMapper mapper(MediaType mediaType) {
+        return MediaType.APPLICATION_XML.isCompatibleWith(mediaType) ? xmlMapper : jsonMapper;
+    }
+
+    private JsonGenerator generator(MediaType mediaType, OutputStream outputStream) throws IOException {
+        return mapper(mediaType).getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+    }
+}
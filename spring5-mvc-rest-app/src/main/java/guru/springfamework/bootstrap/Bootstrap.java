@@ -6,23 +6,34 @@ import guru.springfamework.domain.Vendor;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
 import guru.springfamework.repositories.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 /**
  * Created by jt on 9/24/17.
+ * <p>
+ * Loads a few sample rows, then whatever volume {@link DataSeeder} is configured for.
  */
 @Component
 public class Bootstrap implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(Bootstrap.class);
+
     private final CategoryRepository categoryRepository;
     private final CustomerRepository customerRepository;
     private final VendorRepository vendorRepository;
+    private final DataSeeder dataSeeder;
 
-    public Bootstrap(CategoryRepository categoryRespository, CustomerRepository customerRepository, VendorRepository vendorRepository) {
+    public Bootstrap(CategoryRepository categoryRespository, CustomerRepository customerRepository,
+                     VendorRepository vendorRepository, DataSeeder dataSeeder) {
         this.categoryRepository = categoryRespository;
         this.customerRepository = customerRepository;
         this.vendorRepository = vendorRepository;
+        this.dataSeeder = dataSeeder;
     }
 
     @Override
@@ -31,6 +42,7 @@ public class Bootstrap implements CommandLineRunner {
         loadCategories();
         loadCustomers();
         loadVendors();
+        dataSeeder.seed();
     }
 
     private void loadCategories() {
@@ -49,13 +61,9 @@ public class Bootstrap implements CommandLineRunner {
         Category nuts = new Category();
         nuts.setName("Nuts");
 
-        categoryRepository.save(fruits);
-        categoryRepository.save(dried);
-        categoryRepository.save(fresh);
-        categoryRepository.save(exotic);
-        categoryRepository.save(nuts);
+        categoryRepository.saveAll(Arrays.asList(fruits, dried, fresh, exotic, nuts));
 
-        System.out.println("Categories Loaded: " + categoryRepository.count());
+        log.info("Categories Loaded: {}", categoryRepository.count());
     }
 
     private void loadCustomers() {
@@ -64,29 +72,28 @@ public class Bootstrap implements CommandLineRunner {
         customer1.setId(1l);
         customer1.setFirstname("Michale");
         customer1.setLastname("Weston");
-        customerRepository.save(customer1);
 
         Customer customer2 = new Customer();
         customer2.setId(2l);
         customer2.setFirstname("Sam");
         customer2.setLastname("Axe");
 
-        customerRepository.save(customer2);
+        customerRepository.saveAll(Arrays.asList(customer1, customer2));
 
-        System.out.println("Customers Loaded: " + customerRepository.count());
+        log.info("Customers Loaded: {}", customerRepository.count());
     }
 
     private void loadVendors() {
         Vendor vendor1 = new Vendor();
         vendor1.setId(1L);
         vendor1.setName("vendor1");
-        vendorRepository.save(vendor1);
 
         Vendor vendor2 = new Vendor();
         vendor2.setId(2L);
         vendor2.setName("vendor2");
-        vendorRepository.save(vendor2);
 
-        System.out.println("Vendors Loaded: " + vendorRepository.count());
+        vendorRepository.saveAll(Arrays.asList(vendor1, vendor2));
+
+        log.info("Vendors Loaded: {}", vendorRepository.count());
     }
 }
@@ -0,0 +1,250 @@
+package guru.springfamework.bootstrap;
+
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.TableChangeCounter;
+import guru.springfamework.domain.Vendor;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the tables with synthetic customers, vendors and categories in bulk, for trying the app
+ * against production sized data. Rows are inserted as JDBC batches on {@code threads} threads, one
+ * transaction per chunk of rows, without going through entities. Ids come from each entity's own
+ * generator, so rows saved through JPA afterwards don't collide with the seeded ones. Names are
+ * drawn by {@link SyntheticNames} from the row number and the seed, the same seed gives the same
+ * rows in the same id order.
+ * <p>
+ * Configured with {@code app.seed.*}, {@link Bootstrap} seeds the configured counts at startup.
+ */
+@Component
+public class DataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    //batches per chunk, a chunk is inserted and committed by one thread
+    private static final int CHUNK_BATCHES = 10;
+
+    private static final String CUSTOMER_INSERT = "insert into customer (id, version, firstname, lastname) values (?, 0, ?, ?)";
+    private static final String VENDOR_INSERT = "insert into vendor (id, version, name) values (?, 0, ?)";
+    private static final String CATEGORY_INSERT = "insert into category (id, name) values (?, ?)";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSource dataSource;
+    private final int customers;
+    private final int vendors;
+    private final int categories;
+    private final int threads;
+    private final int batchSize;
+    private final SyntheticNames names;
+
+    public DataSeeder(EntityManagerFactory entityManagerFactory, DataSource dataSource,
+                      @Value("${app.seed.customers:0}") int customers,
+                      @Value("${app.seed.vendors:0}") int vendors,
+                      @Value("${app.seed.categories:0}") int categories,
+                      @Value("${app.seed.random-seed:1}") long randomSeed,
+                      @Value("${app.seed.name-skew:1.0}") double nameSkew,
+                      @Value("${app.seed.threads:4}") int threads,
+                      @Value("${app.seed.batch-size:1000}") int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Seeding needs at least one thread and a positive batch size");
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = dataSource;
+        this.customers = customers;
+        this.vendors = vendors;
+        this.categories = categories;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.names = new SyntheticNames(randomSeed, nameSkew);
+    }
+
+    /**
+     * Seeds the counts configured with {@code app.seed.customers}, {@code app.seed.vendors} and
+     * {@code app.seed.categories}.
+     */
+    public List<Seeded> seed() {
+        return seed(customers, vendors, categories);
+    }
+
+    public List<Seeded> seed(int customers, int vendors, int categories) {
+        List<Seeded> seeded = new ArrayList<>();
+        if (customers > 0) {
+            seeded.add(insert(Customer.class, "customers", CUSTOMER_INSERT, customers, (statement, index) -> {
+                statement.setString(2, names.firstname(index));
+                statement.setString(3, names.lastname(index));
+            }));
+        }
+        if (vendors > 0) {
+            seeded.add(insert(Vendor.class, "vendors", VENDOR_INSERT, vendors,
+                    (statement, index) -> statement.setString(2, names.vendorName(index))));
+        }
+        if (categories > 0) {
+            seeded.add(insert(Category.class, "categories", CATEGORY_INSERT, categories,
+                    (statement, index) -> statement.setString(2, names.categoryName(index))));
+        }
+        return seeded;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+
+        /**
+         * Sets the parameters after the id for row number {@code index}.
+         */
+        void bind(PreparedStatement statement, long index) throws SQLException;
+    }
+
+    private Seeded insert(Class<?> entityType, String table, String sql, int rows, RowBinder binder) {
+        long start = System.nanoTime();
+        IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(entityType).getIdentifierGenerator();
+        int chunkSize = batchSize * CHUNK_BATCHES;
+
+        //a full queue makes this thread insert the chunk itself, which keeps the ids in memory bounded
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), new SeedThreadFactory(table), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> chunks = new ArrayList<>();
+        try {
+            for (int first = 0; first < rows; first += chunkSize) {
+                long firstIndex = first;
+                //ids are taken here in row order, so they follow the row numbers whatever thread inserts them
+                long[] ids = allocateIds(generator, Math.min(chunkSize, rows - first));
+                chunks.add(executor.submit(() -> {
+                    insertChunk(sql, ids, firstIndex, binder);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding " + table + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding " + table + " was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+            //the rows are committed even if a later chunk failed
+            TableChangeCounter.changed(entityType);
+        }
+
+        Seeded seeded = new Seeded(table, rows, System.nanoTime() - start, threads);
+        log.info("Seeded {}", seeded);
+        return seeded;
+    }
+
+    private long[] allocateIds(IdentifierGenerator generator, int count) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+            }
+            return ids;
+        } finally {
+            session.close();
+        }
+    }
+
+    private void insertChunk(String sql, long[] ids, long firstIndex, RowBinder binder) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < ids.length; i++) {
+                    statement.setLong(1, ids[i]);
+                    binder.bind(statement, firstIndex + i);
+                    statement.addBatch();
+                    if ((i + 1) % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static final class SeedThreadFactory implements ThreadFactory {
+
+        private final String table;
+        private final AtomicInteger count = new AtomicInteger();
+
+        SeedThreadFactory(String table) {
+            this.table = table;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "seed-" + table + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Rows seeded into one table and how fast they went in.
+     */
+    public static final class Seeded {
+
+        private final String table;
+        private final int rows;
+        private final long durationNanos;
+        private final int threads;
+
+        Seeded(String table, int rows, long durationNanos, int threads) {
+            this.table = table;
+            this.rows = rows;
+            this.durationNanos = durationNanos;
+            this.threads = threads;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getDurationMs() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public long getRowsPerSecond() {
+            return durationNanos == 0 ? rows : Math.round(rows * 1e9 / durationNanos);
+        }
+
+        @Override
+        public String toString() {
+            return rows + " " + table + " in " + getDurationMs() + " ms, " + getRowsPerSecond() + " rows/s on "
+                    + threads + " threads";
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package guru.springfamework.bootstrap;
+
+/**
+ * Names for seeded rows. Each name is a pure function of the random seed and the row index, so a
+ * seed gives the same rows whatever the number of threads or the order they run in. Picks from the
+ * name lists follow a Zipf distribution with exponent {@code skew}: with 1.0 the most common first
+ * name is 5 times as frequent as the fifth, with 0 all names are equally likely.
+ */
+final class SyntheticNames {
+
+    static final String[] FIRSTNAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+            "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+            "Margaret", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily",
+            "Andrew", "Donna", "Joshua", "Michelle", "Kenneth", "Carol", "Kevin", "Amanda", "Brian",
+            "Dorothy", "George", "Melissa", "Timothy", "Deborah", "Søren", "Zoë", "José", "Ngozi", "Wei"};
+
+    static final String[] LASTNAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore",
+            "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez",
+            "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+            "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell",
+            "Carter", "Roberts", "O'Brien", "Müller", "Weston", "Axe", "Østergaard"};
+
+    static final String[] PRODUCE = {
+            "Fruits", "Nuts", "Berries", "Citrus", "Apples", "Grapes", "Melons", "Dates", "Figs", "Cherries",
+            "Plums", "Mangoes", "Pears", "Peaches", "Almonds", "Walnuts", "Pistachios", "Cashews"};
+
+    static final String[] KINDS = {
+            "Fresh", "Dried", "Exotic", "Organic", "Wild", "Frozen", "Roasted", "Candied", "Local", "Imported"};
+
+    static final String[] VENDOR_SUFFIXES = {
+            "Ltd.", "Inc.", "& Sons", "Co.", "Market", "Farms", "Traders", "Wholesale", "GmbH", "Collective"};
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final double[] firstnames;
+    private final double[] lastnames;
+    private final double[] produce;
+    private final double[] kinds;
+    private final double[] vendorSuffixes;
+
+    SyntheticNames(long seed, double skew) {
+        if (skew < 0) {
+            throw new IllegalArgumentException("Skew must not be negative: " + skew);
+        }
+        this.seed = seed;
+        this.firstnames = zipf(FIRSTNAMES.length, skew);
+        this.lastnames = zipf(LASTNAMES.length, skew);
+        this.produce = zipf(PRODUCE.length, skew);
+        this.kinds = zipf(KINDS.length, skew);
+        this.vendorSuffixes = zipf(VENDOR_SUFFIXES.length, skew);
+    }
+
+    String firstname(long index) {
+        return FIRSTNAMES[pick(firstnames, index, 1)];
+    }
+
+    String lastname(long index) {
+        return LASTNAMES[pick(lastnames, index, 2)];
+    }
+
+    String vendorName(long index) {
+        return LASTNAMES[pick(lastnames, index, 3)] + " " + PRODUCE[pick(produce, index, 4)] + " "
+                + VENDOR_SUFFIXES[pick(vendorSuffixes, index, 5)];
+    }
+
+    /**
+     * Categories are looked up by name, so these are unique: the row number follows the words.
+     */
+    String categoryName(long index) {
+        return KINDS[pick(kinds, index, 6)] + " " + PRODUCE[pick(produce, index, 7)] + " " + (index + 1);
+    }
+
+    private int pick(double[] cumulative, long index, int field) {
+        double uniform = (mix(seed + (index * 8 + field) * GOLDEN_GAMMA) >>> 11) * 0x1.0p-53;
+
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= uniform) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Cumulative probabilities of the ranks 1 to n, each weighted 1 / rank^skew.
+     */
+    private static double[] zipf(int n, double skew) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            total += 1 / Math.pow(rank, skew);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    //SplitMix64 finalizer, spreads consecutive inputs over the whole long range
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,300 @@
+package guru.springfamework.bootstrap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.zaxxer.hikari.HikariDataSource;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.api.v1.stream.ListRowWriter;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import guru.springfamework.services.CategoryService;
+import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.VendorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the hot paths in process once {@link Bootstrap} has loaded the data, so the first requests
+ * after a deploy don't pay for class loading, JIT compilation, Hibernate query plans and Jackson
+ * serializer construction: service reads, writes in a transaction that is rolled back, JSON and XML
+ * serialization and, when there is a web server, GET requests through the whole stack. Before that
+ * the connection pool is filled up to its minimum idle size.
+ * <p>
+ * Lists are read a page at a time, tables can be seeded with millions of rows. Only the streamed
+ * lists go through whole tables, the way {@code ?stream=true} does, with the output discarded.
+ * Iterations stop early once {@code app.warm-up.time-budget-ms} is used up.
+ * <p>
+ * Runs on its own thread, {@link WarmUpHealthIndicator} reports the node out of service until it is
+ * done. A failing warm-up is logged and the node reported ready anyway, cold is better than absent.
+ */
+@Component
+public class WarmUp {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final CustomerService customerService;
+    private final VendorService vendorService;
+    private final CategoryService categoryService;
+    private final ListStreamWriters listStreamWriters;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<List<AbstractJackson2HttpMessageConverter>> converters;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final int iterations;
+    private final long timeBudgetMs;
+
+    private volatile boolean done;
+    private volatile long durationMs;
+    private volatile String error;
+
+    public WarmUp(CustomerService customerService, VendorService vendorService, CategoryService categoryService,
+                  ListStreamWriters listStreamWriters, PlatformTransactionManager transactionManager,
+                  ObjectProvider<List<AbstractJackson2HttpMessageConverter>> converters, DataSource dataSource,
+                  @Value("${app.warm-up.enabled:true}") boolean enabled,
+                  @Value("${app.warm-up.iterations:500}") int iterations,
+                  @Value("${app.warm-up.time-budget-ms:30000}") long timeBudgetMs) {
+        this.customerService = customerService;
+        this.vendorService = vendorService;
+        this.categoryService = categoryService;
+        this.listStreamWriters = listStreamWriters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.converters = converters;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        int port = event.getApplicationContext() instanceof WebServerApplicationContext
+                ? ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort() : -1;
+        Thread thread = new Thread(() -> run(port), "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void run(int port) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeBudgetMs;
+        try {
+            fillPool();
+            //there is no category page, the list is read once and its first names looked up
+            List<CategoryDTO> categories = categoryService.getAllCategories().stream()
+                    .limit(PAGE_SIZE).collect(Collectors.toList());
+            int i = 0;
+            for (; i < iterations && System.currentTimeMillis() < deadline; i++) {
+                reads(categories);
+                streams();
+                serialization(categories);
+            }
+            if (i < iterations) {
+                log.info("Warm-up time budget of {} ms used up after {} of {} iterations", timeBudgetMs, i, iterations);
+            }
+            for (int j = 0; j < Math.max(1, iterations / 10) && (j == 0 || System.currentTimeMillis() < deadline); j++) {
+                rolledBackWrites();
+            }
+            if (port > 0) {
+                requests(port, deadline);
+            }
+        } catch (RuntimeException | SQLException e) {
+            log.warn("Warm-up failed, reporting ready without it", e);
+            error = e.toString();
+        } finally {
+            durationMs = System.currentTimeMillis() - start;
+            done = true;
+            log.info("Warm-up finished in {} ms", durationMs);
+        }
+    }
+
+    private void fillPool() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return;
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(hikari.getMinimumIdle(), hikari.getMaximumPoolSize()); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void reads(List<CategoryDTO> categories) {
+        CustomerListDTO customers = customerService.getCustomerPage(null, PAGE_SIZE);
+        if (customers.getNextCursor() != null) {
+            customerService.getCustomerPage(customers.getNextCursor(), PAGE_SIZE);
+        }
+        customerService.getCustomerListVersion();
+        for (CustomerDTO customer : customers.getCustomers()) {
+            Long id = id(customer.getCustomerUrl());
+            customerService.getVersionedCustomerById(id);
+            customerService.getCustomerVersion(id);
+        }
+
+        VendorListDTO vendors = vendorService.getVendorPage(null, PAGE_SIZE);
+        if (vendors.getNextCursor() != null) {
+            vendorService.getVendorPage(vendors.getNextCursor(), PAGE_SIZE);
+        }
+        vendorService.getVendorListVersion();
+        for (VendorDTO vendor : vendors.getVendors()) {
+            Long id = id(vendor.getVendorUrl());
+            vendorService.getVersionedVendorById(id);
+            vendorService.getVendorVersion(id);
+        }
+
+        categories.forEach(category -> categoryService.getCategoryByName(category.getName()));
+    }
+
+    private void streams() {
+        try {
+            for (MediaType mediaType : Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML)) {
+                try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, DISCARD)) {
+                    customerService.streamAllCustomerRows(writer);
+                    writer.finish();
+                }
+                try (ListRowWriter writer = listStreamWriters.openVendorRows(mediaType, DISCARD)) {
+                    vendorService.streamAllVendorRows(writer);
+                    writer.finish();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void serialization(List<CategoryDTO> categories) {
+        CustomerListDTO customers = customerService.getCustomerPage(null, PAGE_SIZE);
+        VendorListDTO vendors = vendorService.getVendorPage(null, PAGE_SIZE);
+        List<Object> values = Arrays.asList(customers, vendors, categories);
+        for (AbstractJackson2HttpMessageConverter converter : converters.getObject()) {
+            try {
+                for (Object value : values) {
+                    converter.getObjectMapper().writeValueAsBytes(value);
+                }
+                if (!customers.getCustomers().isEmpty()) {
+                    converter.getObjectMapper().writeValueAsBytes(customers.getCustomers().get(0));
+                }
+                if (!vendors.getVendors().isEmpty()) {
+                    converter.getObjectMapper().writeValueAsBytes(vendors.getVendors().get(0));
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void rolledBackWrites() {
+        transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+
+            CustomerDTO customer = new CustomerDTO();
+            customer.setFirstname("Warm");
+            customer.setLastname("Up");
+            Long customerId = id(customerService.createNewCustomer(customer).getCustomerUrl());
+            customerService.createNewCustomers(Arrays.asList(customer, customer));
+            customerService.saveCustomerByDTO(customerId, customer);
+            customerService.patchCustomer(customerId, customer);
+            status.flush();
+            customerService.deleteCustomerById(customerId);
+
+            VendorDTO vendor = new VendorDTO();
+            vendor.setName("Warm Up");
+            Long vendorId = id(vendorService.createNewVendor(vendor).getVendorUrl());
+            vendorService.createNewVendors(Collections.singletonList(vendor));
+            vendorService.saveVendorByDTO(vendorId, vendor);
+            vendorService.patchVendor(vendorId, vendor);
+            status.flush();
+            vendorService.deleteVendorById(vendorId);
+            status.flush();
+            return null;
+        });
+    }
+
+    private void requests(int port, long deadline) {
+        RestTemplate restTemplate = new RestTemplate();
+        String base = "http://localhost:" + port;
+        String page = "?limit=" + PAGE_SIZE;
+        List<String> paths = new ArrayList<>(Arrays.asList(CustomerController.BASE_URL + page,
+                VendorController.BASE_URL + page, CategoryController.BASE_URL));
+        customerService.getCustomerPage(null, PAGE_SIZE).getCustomers().forEach(customer -> paths.add(customer.getCustomerUrl()));
+        vendorService.getVendorPage(null, PAGE_SIZE).getVendors().forEach(vendor -> paths.add(vendor.getVendorUrl()));
+        for (MediaType mediaType : Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML)) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(Collections.singletonList(mediaType));
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+            for (int i = 0; i < Math.max(1, iterations / 10) && (i == 0 || System.currentTimeMillis() < deadline); i++) {
+                for (String path : paths) {
+                    restTemplate.exchange(base + path, HttpMethod.GET, request, byte[].class);
+                }
+            }
+        }
+    }
+
+    private static Long id(String resourceUrl) {
+        return Long.valueOf(resourceUrl.substring(resourceUrl.lastIndexOf('/') + 1));
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,31 @@
+package guru.springfamework.bootstrap;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service, so {@code /actuator/health} answers 503, until the {@link WarmUp} is done.
+ * Load balancers checking health don't send traffic to a node that is still cold.
+ */
+@Component
+public class WarmUpHealthIndicator extends AbstractHealthIndicator {
+
+    private final WarmUp warmUp;
+
+    public WarmUpHealthIndicator(WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (!warmUp.isDone()) {
+            builder.outOfService();
+            return;
+        }
+        builder.up().withDetail("durationMs", warmUp.getDurationMs());
+        if (warmUp.getError() != null) {
+            builder.withDetail("error", warmUp.getError());
+        }
+    }
+}
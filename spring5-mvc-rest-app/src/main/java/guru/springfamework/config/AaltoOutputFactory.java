@@ -0,0 +1,159 @@
+package guru.springfamework.config;
+
+import com.fasterxml.aalto.stax.OutputFactoryImpl;
+import org.codehaus.stax2.XMLStreamWriter2;
+import org.codehaus.stax2.util.StreamWriter2Delegate;
+
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Result;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Aalto's writer, escaping text the way Woodstox does so both engines write the same bytes. They
+ * differ on {@code >} and {@code ]}, on carriage returns, which Aalto drops, and on the C1 control
+ * characters. Text without those goes to Aalto as is.
+ */
+class AaltoOutputFactory extends XMLOutputFactory {
+
+    private final XMLOutputFactory factory = new OutputFactoryImpl();
+
+    @Override
+    public XMLStreamWriter createXMLStreamWriter(Writer writer) throws XMLStreamException {
+        return escaping(factory.createXMLStreamWriter(writer));
+    }
+
+    @Override
+    public XMLStreamWriter createXMLStreamWriter(OutputStream out) throws XMLStreamException {
+        return escaping(factory.createXMLStreamWriter(out));
+    }
+
+    @Override
+    public XMLStreamWriter createXMLStreamWriter(OutputStream out, String encoding) throws XMLStreamException {
+        return escaping(factory.createXMLStreamWriter(out, encoding));
+    }
+
+    @Override
+    public XMLStreamWriter createXMLStreamWriter(Result result) throws XMLStreamException {
+        return escaping(factory.createXMLStreamWriter(result));
+    }
+
+    @Override
+    public XMLEventWriter createXMLEventWriter(Result result) throws XMLStreamException {
+        return factory.createXMLEventWriter(result);
+    }
+
+    @Override
+    public XMLEventWriter createXMLEventWriter(OutputStream out) throws XMLStreamException {
+        return factory.createXMLEventWriter(out);
+    }
+
+    @Override
+    public XMLEventWriter createXMLEventWriter(OutputStream out, String encoding) throws XMLStreamException {
+        return factory.createXMLEventWriter(out, encoding);
+    }
+
+    @Override
+    public XMLEventWriter createXMLEventWriter(Writer writer) throws XMLStreamException {
+        return factory.createXMLEventWriter(writer);
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+        factory.setProperty(name, value);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return factory.getProperty(name);
+    }
+
+    @Override
+    public boolean isPropertySupported(String name) {
+        return factory.isPropertySupported(name);
+    }
+
+    private static XMLStreamWriter escaping(XMLStreamWriter writer) {
+        return new TextEscapingWriter((XMLStreamWriter2) writer);
+    }
+
+    static class TextEscapingWriter extends StreamWriter2Delegate {
+
+        TextEscapingWriter(XMLStreamWriter2 writer) {
+            super(writer);
+            //the constructor leaves the Stax2 delegate unset, setParent sets it
+            setParent(writer);
+        }
+
+        @Override
+        public void writeCharacters(String text) throws XMLStreamException {
+            if (!differs(text)) {
+                super.writeCharacters(text);
+                return;
+            }
+
+            //Aalto's writeRaw mangles surrogate pairs, so only the characters it would escape
+            //differently are written raw and the runs between them still go through Aalto
+            int run = 0;
+            for (int i = 0; i < text.length(); i++) {
+                String raw = raw(text, i);
+                if (raw != null) {
+                    if (run < i) {
+                        super.writeCharacters(text.substring(run, i));
+                    }
+                    writeRaw(raw);
+                    run = i + 1;
+                }
+            }
+            if (run < text.length()) {
+                super.writeCharacters(text.substring(run));
+            }
+        }
+
+        private static boolean differs(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (differs(text.charAt(i))) {
+                    return true;
+                }
+            }
+            //Aalto escapes a trailing ']', it might start a "]]>" in the next call
+            return text.endsWith("]");
+        }
+
+        private static boolean differs(char c) {
+            return c == '>' || c == '\r' || c >= 0x7F && c <= 0x9F;
+        }
+
+        /**
+         * What Woodstox writes for the character at {@code i}, if Aalto may write it differently.
+         */
+        private static String raw(String text, int i) {
+            char c = text.charAt(i);
+            if (c == ']') {
+                return "]";
+            }
+            if (c == '>') {
+                //Woodstox can not see what preceded the first character, so it may end a "]]>"
+                return i == 0 || text.charAt(i - 1) == ']' ? "&gt;" : ">";
+            }
+            if (c == '\r' || c >= 0x7F && c <= 0x9F) {
+                return "&#x" + Integer.toHexString(c) + ";";
+            }
+            return null;
+        }
+
+        @Override
+        public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+            for (int i = start; i < start + len; i++) {
+                if (differs(text[i]) || text[i] == ']' && i == start + len - 1) {
+                    writeCharacters(new String(text, start, len));
+                    return;
+                }
+            }
+            super.writeCharacters(text, start, len);
+        }
+    }
+}
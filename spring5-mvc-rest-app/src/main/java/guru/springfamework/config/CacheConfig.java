@@ -0,0 +1,56 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Caches are Caffeine backed, sized and expired through {@code spring.cache.caffeine.spec}.
+ * Stats are recorded and published as {@code cache.*} metrics under {@code /actuator/metrics}.
+ * <p>
+ * Puts and evictions made in a transaction only reach the cache once it commits, a rolled back
+ * update leaves the cached value as it was.
+ */
+@EnableCaching
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String VENDORS = "vendors";
+
+    //replaces Boot's cache manager, which has no transaction aware option for Caffeine
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    //actuator only binds metrics for the Caffeine caches themselves, not for their decorators
+    @Bean
+    public CacheMeterBinderProvider<TransactionAwareCacheDecorator> transactionAwareCacheMeterBinderProvider() {
+        return (cache, tags) -> {
+            Cache target = cache.getTargetCache();
+            return target instanceof CaffeineCache
+                    ? new CaffeineCacheMetrics(((CaffeineCache) target).getNativeCache(), target.getName(), tags)
+                    : null;
+        };
+    }
+}
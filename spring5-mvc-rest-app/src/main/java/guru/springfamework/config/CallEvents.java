@@ -0,0 +1,28 @@
+package guru.springfamework.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+
+/**
+ * Events {@link LayerTimingAspect} emits around service and repository calls. The flight recorder
+ * events live behind this interface, so the aspect also loads on JVMs without {@code jdk.jfr}.
+ */
+interface CallEvents {
+
+    CallEvents NONE = new CallEvents() {
+        @Override
+        public Object begin(boolean repository) {
+            return null;
+        }
+
+        @Override
+        public void end(Object event, ProceedingJoinPoint joinPoint, Object result, Throwable failure) {
+        }
+    };
+
+    /**
+     * @return the started event, or {@code null} when nothing records it
+     */
+    Object begin(boolean repository);
+
+    void end(Object event, ProceedingJoinPoint joinPoint, Object result, Throwable failure);
+}
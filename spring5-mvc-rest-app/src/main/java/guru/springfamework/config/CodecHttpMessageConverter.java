@@ -0,0 +1,47 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.codec.Codec;
+import guru.springfamework.api.v1.codec.Codecs;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes the classes with a generated {@link Codec}, exactly those classes, leaving
+ * everything else to the Jackson converters after it. Writes are timed like the Jackson ones, see
+ * {@link TimedSerialization}.
+ */
+public abstract class CodecHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    CodecHttpMessageConverter(MediaType... supportedMediaTypes) {
+        super(StandardCharsets.UTF_8, supportedMediaTypes);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Codecs.forType(clazz) != null;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(Codecs.forType(clazz), inputMessage.getBody());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        Codec<Object> codec = (Codec<Object>) Codecs.forType(object.getClass());
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        TimedSerialization.write(outputMessage, message -> write(codec, object, contentType, message.getBody()));
+    }
+
+    abstract <T> T read(Codec<T> codec, InputStream body) throws IOException;
+
+    abstract <T> void write(Codec<T> codec, T value, MediaType contentType, OutputStream body) throws IOException;
+}
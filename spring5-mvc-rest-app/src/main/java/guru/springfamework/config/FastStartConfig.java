@@ -0,0 +1,79 @@
+package guru.springfamework.config;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code fast-start} profile, for nodes added under load that should answer as soon as
+ * possible. Controllers are created on their first request, the XML converter on the first XML
+ * body, and the profile's properties turn off the Springfox scan and JMX.
+ * <p>
+ * Boot would build the default converters, XML included, only to replace most of them, so the
+ * profile lists the converters itself.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    static final String XML_CONVERTER = "mappingJackson2XmlHttpMessageConverter";
+
+    //its constructor collects every converter bean, the XML one included, only for the
+    //HttpMessageConverters bean defined here instead
+    private static final String CONVERTERS_AUTO_CONFIGURATION = HttpMessageConvertersAutoConfiguration.class.getName();
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String className = definition.getBeanClassName();
+                if (beanName.equals(XML_CONVERTER) || beanName.equals(CONVERTERS_AUTO_CONFIGURATION)
+                        || className != null && (className.startsWith("guru.springfamework.controllers.")
+                        || className.startsWith("springfox."))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public HttpMessageConverters messageConverters(StringHttpMessageConverter stringHttpMessageConverter,
+                                                   MappingJackson2HttpMessageConverter jsonConverter,
+                                                   ObjectProvider<List<CodecHttpMessageConverter>> codecConverters,
+                                                   BeanFactory beanFactory) {
+        //the generated engine's codec converters first, as Boot would put them
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(codecConverters.getIfAvailable(Collections::emptyList));
+        converters.addAll(Arrays.asList(
+                new ByteArrayHttpMessageConverter(),
+                stringHttpMessageConverter,
+                new ResourceHttpMessageConverter(),
+                new ResourceRegionHttpMessageConverter(),
+                new FormHttpMessageConverter(),
+                jsonConverter,
+                new LazyHttpMessageConverter<>(
+                        Arrays.asList(MediaType.APPLICATION_XML, MediaType.TEXT_XML, new MediaType("application", "*+xml")),
+                        () -> beanFactory.getBean(XML_CONVERTER, HttpMessageConverter.class))));
+        return new HttpMessageConverters(false, converters);
+    }
+}
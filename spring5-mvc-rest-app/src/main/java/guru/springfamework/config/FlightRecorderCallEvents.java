@@ -0,0 +1,115 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.model.CatorgoryListDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * {@link ServiceCallEvent}s and {@link RepositoryCallEvent}s while a flight recording is running.
+ * The entity id is the first numeric argument, the rows are counted from the result.
+ */
+class FlightRecorderCallEvents implements CallEvents {
+
+    @Override
+    public Object begin(boolean repository) {
+        jdk.jfr.Event event = repository ? new RepositoryCallEvent() : new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void end(Object event, ProceedingJoinPoint joinPoint, Object result, Throwable failure) {
+        if (event instanceof RepositoryCallEvent) {
+            end((RepositoryCallEvent) event, joinPoint, result, failure);
+        } else if (event instanceof ServiceCallEvent) {
+            end((ServiceCallEvent) event, joinPoint, result, failure);
+        }
+    }
+
+    private static void end(ServiceCallEvent event, ProceedingJoinPoint joinPoint, Object result, Throwable failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            event.method = joinPoint.getSignature().getName();
+            event.entityId = entityId(joinPoint.getArgs());
+            event.rows = rows(result);
+            event.exception = failure != null ? failure.getClass().getSimpleName() : null;
+            event.commit();
+        }
+    }
+
+    private static void end(RepositoryCallEvent event, ProceedingJoinPoint joinPoint, Object result, Throwable failure) {
+        event.end();
+        long rows = rows(result);
+        FlightRecorderFilter.rowsRead(rows);
+        if (event.shouldCommit()) {
+            event.repository = repositoryName(joinPoint);
+            event.method = joinPoint.getSignature().getName();
+            event.entityId = entityId(joinPoint.getArgs());
+            event.rows = rows;
+            event.exception = failure != null ? failure.getClass().getSimpleName() : null;
+            event.commit();
+        }
+    }
+
+    /**
+     * Repositories are JDK proxies, the interface tells more than the proxy class.
+     */
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = joinPoint.getThis().getClass().getInterfaces();
+        return interfaces.length > 0 ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    static long entityId(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Number) {
+                return ((Number) arg).longValue();
+            }
+        }
+        return 0;
+    }
+
+    static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        if (result instanceof CustomerListDTO) {
+            return ((CustomerListDTO) result).getCustomers().size();
+        }
+        if (result instanceof VendorListDTO) {
+            return rows(((VendorListDTO) result).getVendors());
+        }
+        //what CategoryController returns, CategoryListDTO is only used by the serialization engines
+        if (result instanceof CatorgoryListDTO) {
+            return rows(((CatorgoryListDTO) result).getCategories());
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream) {
+            // counts, versions and existence checks, streams are read after the call returns
+            return 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,35 @@
+package guru.springfamework.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * JDK Flight Recorder events for requests, service and repository calls, and the
+ * {@code flightrecorder} actuator endpoint to record them. Events cost next to nothing while no
+ * recording runs. Needs a JVM with the {@code jdk.jfr} API, 8u262 or later.
+ */
+@Configuration
+@ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+public class FlightRecorderConfig {
+
+    @Bean
+    public FlightRecorderFilter flightRecorderFilter() {
+        return new FlightRecorderFilter();
+    }
+
+    @Bean
+    public CallEvents flightRecorderCallEvents() {
+        return new FlightRecorderCallEvents();
+    }
+
+    @Bean
+    public FlightRecorderEndpoint flightRecorderEndpoint(@Value("${app.flight-recorder.directory:${java.io.tmpdir}}") String directory,
+                                                         @Value("${app.flight-recorder.max-age-minutes:30}") long maxAgeMinutes) {
+        return new FlightRecorderEndpoint(Paths.get(directory), Duration.ofMinutes(maxAgeMinutes));
+    }
+}
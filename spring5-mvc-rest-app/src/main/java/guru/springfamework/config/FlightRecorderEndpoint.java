@@ -0,0 +1,128 @@
+package guru.springfamework.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controls one flight recording, without attaching anything to the JVM.
+ * <ul>
+ * <li>{@code GET /actuator/flightrecorder} shows the state of the recording</li>
+ * <li>{@code POST /actuator/flightrecorder/start} starts it, optionally with {@code {"settings": "profile"}}
+ * for the more detailed JDK settings</li>
+ * <li>{@code POST /actuator/flightrecorder/dump} writes what was recorded so far to a file</li>
+ * <li>{@code POST /actuator/flightrecorder/stop} stops the recording and writes it to a file</li>
+ * </ul>
+ * Files go to {@code app.flight-recorder.directory}, the server's file system, and the response
+ * has their path. Besides the application's events a recording holds the JDK's GC, lock and
+ * allocation events, so slow requests can be lined up against them in JDK Mission Control.
+ */
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "default";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxAge;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecorderEndpoint(Path directory, Duration maxAge) {
+        this.directory = directory;
+        this.maxAge = maxAge;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", FlightRecorder.isAvailable());
+        status.put("state", recording != null ? recording.getState() : RecordingState.CLOSED);
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("startTime", recording.getStartTime());
+            status.put("size", recording.getSize());
+        }
+        status.put("maxAge", maxAge);
+        status.put("lastDump", lastDump != null ? lastDump.toString() : null);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action, @Nullable String settings) {
+        switch (action) {
+            case "start":
+                start(settings != null ? settings : DEFAULT_SETTINGS);
+                break;
+            case "dump":
+                dump();
+                break;
+            case "stop":
+                dump();
+                recording.close();
+                recording = null;
+                break;
+            default:
+                throw new InvalidEndpointRequestException("Unknown action " + action,
+                        "Action must be start, dump or stop");
+        }
+        return status();
+    }
+
+    private void start(String settings) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new InvalidEndpointRequestException("Flight recorder unavailable",
+                    "The JVM does not support flight recording");
+        }
+        if (recording != null) {
+            throw new InvalidEndpointRequestException("Recording already running",
+                    "A recording is already running, stop it first");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown settings " + settings,
+                    "Settings must be default or profile");
+        }
+        Recording started = new Recording(configuration);
+        started.setName("spring5-mvc-rest");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.start();
+        recording = started;
+    }
+
+    private void dump() {
+        if (recording == null) {
+            throw new InvalidEndpointRequestException("No recording running", "Start a recording first");
+        }
+        Path file = directory.resolve("spring5-mvc-rest-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastDump = file;
+    }
+}
@@ -0,0 +1,67 @@
+package guru.springfamework.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Emits an {@link HttpRequestEvent} per request while a flight recording is running. Repository
+ * calls add their rows to the event of the request they run in.
+ */
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<HttpRequestEvent> CURRENT = new ThreadLocal<>();
+
+    static void rowsRead(long rows) {
+        HttpRequestEvent event = CURRENT.get();
+        if (event != null) {
+            event.rows += rows;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        CURRENT.set(event);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                event.status = response.getStatus();
+                event.entityId = entityId(request);
+                event.commit();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long entityId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables instanceof Map ? ((Map<String, String>) variables).get("id") : null;
+        if (id == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package guru.springfamework.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("guru.springfamework.HttpRequest")
+@Label("HTTP Request")
+@Description("A request handled by the REST API")
+@Category({"Spring5 MVC REST", "HTTP"})
+@StackTrace(false)
+class HttpRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI Pattern")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Entity Id")
+    @Description("The {id} path variable, 0 for requests without one")
+    long entityId;
+
+    @Label("Rows")
+    @Description("Rows returned by repository calls during the request")
+    long rows;
+}
@@ -0,0 +1,32 @@
+package guru.springfamework.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Registers each request in {@link InFlightRequests} for as long as it holds its worker thread.
+ */
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+    private final InFlightRequests inFlightRequests;
+
+    public InFlightRequestFilter(InFlightRequests inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        InFlightRequests.Entry entry = inFlightRequests.start(request.getMethod(), request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlightRequests.finish(entry);
+        }
+    }
+}
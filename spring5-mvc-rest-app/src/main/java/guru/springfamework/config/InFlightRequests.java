@@ -0,0 +1,65 @@
+package guru.springfamework.config;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The requests currently being handled, by worker thread. Registered by {@link InFlightRequestFilter},
+ * the handler method is filled in once the request is mapped.
+ */
+public class InFlightRequests {
+
+    @Getter
+    public static class Entry {
+
+        private final Thread thread;
+        private final long startNanos = System.nanoTime();
+        private final long startMillis = System.currentTimeMillis();
+        private final String method;
+        private final String uri;
+        private volatile String handler;
+        volatile boolean captured;
+
+        Entry(Thread thread, String method, String uri) {
+            this.thread = thread;
+            this.method = method;
+            this.uri = uri;
+        }
+
+        public long elapsedMillis(long nowNanos) {
+            return (nowNanos - startNanos) / 1_000_000;
+        }
+    }
+
+    private final ConcurrentHashMap<Thread, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry start(String method, String uri) {
+        Entry entry = new Entry(Thread.currentThread(), method, uri);
+        entries.put(entry.thread, entry);
+        return entry;
+    }
+
+    void finish(Entry entry) {
+        entries.remove(entry.thread, entry);
+    }
+
+    void handler(String handler) {
+        Entry entry = entries.get(Thread.currentThread());
+        if (entry != null) {
+            entry.handler = handler;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<Entry> snapshot() {
+        Collection<Entry> values = entries.values();
+        return new ArrayList<>(values);
+    }
+}
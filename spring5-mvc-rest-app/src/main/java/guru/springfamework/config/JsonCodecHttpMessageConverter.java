@@ -0,0 +1,71 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springfamework.api.v1.codec.Codec;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * JSON through the generated codecs, on the parsers and generators of the application's
+ * {@link ObjectMapper}.
+ */
+public class JsonCodecHttpMessageConverter extends CodecHttpMessageConverter {
+
+    private final JsonFactory jsonFactory;
+    private final boolean indent;
+
+    public JsonCodecHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = objectMapper.getFactory();
+        this.indent = objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    <T> T read(Codec<T> codec, InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            parser.nextToken();
+            return codec.readJson(parser);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @Override
+    <T> void write(Codec<T> codec, T value, MediaType contentType, OutputStream body) throws IOException {
+        //flushed but not closed, closing would close the response body, as in Jackson's converter
+        JsonGenerator generator = jsonFactory.createGenerator(body, encoding(contentType));
+        try {
+            if (indent) {
+                generator.useDefaultPrettyPrinter();
+            }
+            codec.writeJson(value, generator);
+            generator.flush();
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static JsonEncoding encoding(MediaType contentType) {
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        if (charset != null) {
+            for (JsonEncoding encoding : JsonEncoding.values()) {
+                if (charset.name().equals(encoding.getJavaName())) {
+                    return encoding;
+                }
+            }
+        }
+        return JsonEncoding.UTF8;
+    }
+}
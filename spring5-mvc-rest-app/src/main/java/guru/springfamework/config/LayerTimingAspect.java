@@ -0,0 +1,117 @@
+package guru.springfamework.config;
+
+import guru.springfamework.config.ServerTiming.Layer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one advice around every public {@code *ServiceImpl} method and every repository method. It
+ * times them as {@code app.service} and {@code app.repository}, tagged with class, method and
+ * exception, adds them to the request's {@link ServerTiming} and emits their {@link CallEvents}.
+ * Runs first, {@link #ORDER}, outside the transaction and cache advice so commits and cache hits
+ * are included.
+ * <p>
+ * Timers of successful calls are resolved once per bean and method and kept in lock-free maps,
+ * after that a call costs two map reads and the timer's own counters.
+ */
+@Aspect
+@Order(LayerTimingAspect.ORDER)
+public class LayerTimingAspect {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    public static final String SERVICE_TIMER = "app.service";
+    public static final String REPOSITORY_TIMER = "app.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final CallEvents callEvents;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    public LayerTimingAspect(MeterRegistry meterRegistry) {
+        this(meterRegistry, CallEvents.NONE);
+    }
+
+    LayerTimingAspect(MeterRegistry meterRegistry, CallEvents callEvents) {
+        this.meterRegistry = meterRegistry;
+        this.callEvents = callEvents;
+    }
+
+    @Around("execution(public * guru.springfamework.services.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, Layer.SERVICE, false, joinPoint);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, Layer.REPOSITORY, true, joinPoint);
+    }
+
+    private Object time(String name, Layer layer, boolean repository, ProceedingJoinPoint joinPoint) throws Throwable {
+        long serverTimingStart = ServerTiming.enter(layer);
+        Object event = callEvents.begin(repository);
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            return result = joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (failure == null) {
+                timer(name, joinPoint).record(elapsed, TimeUnit.NANOSECONDS);
+            } else {
+                timer(name, joinPoint, failure.getClass().getSimpleName()).record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            if (event != null) {
+                callEvents.end(event, joinPoint, result, failure);
+            }
+            ServerTiming.exit(layer, serverTimingStart);
+        }
+    }
+
+    private Timer timer(String name, ProceedingJoinPoint joinPoint) {
+        Object bean = joinPoint.getThis();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ConcurrentMap<Method, Timer> beanTimers = timers.get(bean.getClass());
+        if (beanTimers == null) {
+            beanTimers = timers.computeIfAbsent(bean.getClass(), key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = beanTimers.get(method);
+        if (timer == null) {
+            timer = beanTimers.computeIfAbsent(method, key -> timer(name, joinPoint, "none"));
+        }
+        return timer;
+    }
+
+    private Timer timer(String name, ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(name)
+                .tag("class", beanName(joinPoint.getThis()))
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    //repositories are JDK proxies, name them after the repository interface rather than the proxy
+    private static String beanName(Object bean) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(bean);
+        if (!ClassUtils.isCglibProxy(bean) && interfaces.length > 0) {
+            return interfaces[0].getSimpleName();
+        }
+        return ClassUtils.getUserClass(bean).getSimpleName();
+    }
+}
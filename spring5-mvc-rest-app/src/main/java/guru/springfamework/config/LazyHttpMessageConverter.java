@@ -0,0 +1,72 @@
+package guru.springfamework.config;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Stands in for a converter that is expensive to create until a request actually reads or writes
+ * one of its media types. Content negotiation only asks whether it could write anything at all,
+ * which is answered from the media types without creating the converter.
+ */
+class LazyHttpMessageConverter<T> implements HttpMessageConverter<T> {
+
+    private final List<MediaType> supportedMediaTypes;
+    private final Supplier<HttpMessageConverter<T>> supplier;
+    private volatile HttpMessageConverter<T> converter;
+
+    LazyHttpMessageConverter(List<MediaType> supportedMediaTypes, Supplier<HttpMessageConverter<T>> supplier) {
+        this.supportedMediaTypes = supportedMediaTypes;
+        this.supplier = supplier;
+    }
+
+    private HttpMessageConverter<T> converter() {
+        HttpMessageConverter<T> result = converter;
+        if (result == null) {
+            synchronized (this) {
+                result = converter;
+                if (result == null) {
+                    result = converter = supplier.get();
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean supports(MediaType mediaType) {
+        return supportedMediaTypes.stream().anyMatch(supported -> supported.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && supports(mediaType) && converter().canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        if (mediaType == null) {
+            return converter != null ? converter.canWrite(clazz, null) : !clazz.isPrimitive();
+        }
+        return supports(mediaType) && converter().canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return supportedMediaTypes;
+    }
+
+    @Override
+    public T read(Class<? extends T> clazz, HttpInputMessage inputMessage) throws IOException {
+        return converter().read(clazz, inputMessage);
+    }
+
+    @Override
+    public void write(T t, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        converter().write(t, contentType, outputMessage);
+    }
+}
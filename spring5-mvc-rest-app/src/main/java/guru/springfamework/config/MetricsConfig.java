@@ -0,0 +1,42 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics on top of what actuator records by itself. Handler methods are already timed as
+ * {@code http.server.requests}, HikariCP and the JVM publish their own gauges. This adds timers for
+ * the service and repository layers, the response size per endpoint, the SQL cost of each request
+ * and what the API requests allocate and spend on CPU.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public LayerTimingAspect layerTimingAspect(MeterRegistry meterRegistry, ObjectProvider<CallEvents> callEvents) {
+        return new LayerTimingAspect(meterRegistry, callEvents.getIfAvailable(() -> CallEvents.NONE));
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> responseSizeValveCustomizer(MeterRegistry meterRegistry) {
+        return factory -> factory.addEngineValves(new ResponseSizeValve(meterRegistry));
+    }
+
+    @Bean
+    public SqlStatisticsFilter sqlStatisticsFilter(MeterRegistry meterRegistry) {
+        return new SqlStatisticsFilter(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnExpression("T(guru.springfamework.config.RequestCostFilter).isSupported()")
+    public RequestCostFilter requestCostFilter(MeterRegistry meterRegistry,
+                                               @Value("${app.request-cost.header:false}") boolean header) {
+        return new RequestCostFilter(meterRegistry, header);
+    }
+}
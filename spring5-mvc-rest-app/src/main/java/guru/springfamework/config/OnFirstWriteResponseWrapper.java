@@ -0,0 +1,67 @@
+package guru.springfamework.config;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Runs a callback right before the response can commit, the last moment headers can still be
+ * added: when the body is first asked for, on flush, error or redirect. Filters call
+ * {@link #beforeCommit()} themselves after the chain for responses without a body.
+ */
+class OnFirstWriteResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Runnable callback;
+    private boolean done;
+
+    OnFirstWriteResponseWrapper(HttpServletResponse response, Runnable callback) {
+        super(response);
+        this.callback = callback;
+    }
+
+    void beforeCommit() {
+        if (done || isCommitted()) {
+            return;
+        }
+        done = true;
+        callback.run();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        beforeCommit();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        beforeCommit();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        beforeCommit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        beforeCommit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        beforeCommit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+}
@@ -0,0 +1,43 @@
+package guru.springfamework.config;
+
+import guru.springfamework.repositories.QueryLog;
+import guru.springfamework.repositories.QueryLoggingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the datasource so every statement lands in the {@link QueryLog}, published as the
+ * {@code querylog} actuator endpoint.
+ */
+@Configuration
+public class QueryLogConfig {
+
+    @Bean
+    public QueryLog queryLog(@Value("${app.query-log.slow-threshold-ms:50}") long slowThresholdMs,
+                             @Value("${app.query-log.max-fingerprints:500}") int maxFingerprints) {
+        return new QueryLog(slowThresholdMs, maxFingerprints);
+    }
+
+    @Bean
+    public static BeanPostProcessor queryLoggingDataSourcePostProcessor(ObjectProvider<QueryLog> queryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof QueryLoggingDataSource)) {
+                    return new QueryLoggingDataSource((DataSource) bean, queryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryLogEndpoint queryLogEndpoint(QueryLog queryLog) {
+        return new QueryLogEndpoint(queryLog);
+    }
+}
@@ -0,0 +1,35 @@
+package guru.springfamework.config;
+
+import guru.springfamework.repositories.QueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/querylog?top=n} lists the statement fingerprints with the most total time,
+ * with the EXPLAIN plan of those that ran slow. {@code DELETE} starts counting over.
+ */
+@Endpoint(id = "querylog")
+public class QueryLogEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final QueryLog queryLog;
+
+    public QueryLogEndpoint(QueryLog queryLog) {
+        this.queryLog = queryLog;
+    }
+
+    @ReadOperation
+    public List<QueryLog.QueryStats> top(@Nullable Integer top) {
+        return queryLog.top(top != null ? top : DEFAULT_TOP);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryLog.reset();
+    }
+}
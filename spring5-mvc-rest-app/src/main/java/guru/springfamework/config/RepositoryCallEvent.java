@@ -0,0 +1,28 @@
+package guru.springfamework.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("guru.springfamework.RepositoryCall")
+@Label("Repository Call")
+@Category({"Spring5 MVC REST", "Repository"})
+@StackTrace(false)
+class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Exception")
+    String exception;
+}
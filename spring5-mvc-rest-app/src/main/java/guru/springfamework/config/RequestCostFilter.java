@@ -0,0 +1,119 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the bytes allocated and the CPU time used by the request thread for every call to the
+ * customer, vendor and category APIs, recorded per endpoint as {@code app.request.allocated} and
+ * {@code app.request.cpu}.
+ * <p>
+ * With {@code app.request-cost.header} on, the {@value #ALLOCATED_HEADER} and {@value #CPU_HEADER}
+ * (milliseconds) response headers carry the figures as of the first body write, which leaves out
+ * whatever serialization happens while the body is streamed. Work done on other threads, such as
+ * streamed list bodies, is not counted either way.
+ */
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    public static final String ALLOCATED_HEADER = "X-Allocated-Bytes";
+    public static final String CPU_HEADER = "X-CPU-Time";
+
+    private static final String[] PREFIXES = {
+            prefix(CustomerController.BASE_URL), prefix(VendorController.BASE_URL), prefix(CategoryController.BASE_URL)};
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final MeterRegistry meterRegistry;
+    private final boolean header;
+
+    public RequestCostFilter(MeterRegistry meterRegistry, boolean header) {
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.meterRegistry = meterRegistry;
+        this.header = header;
+    }
+
+    /**
+     * False on JVMs that can't count allocations or CPU time per thread, the filter is not installed then.
+     */
+    public static boolean isSupported() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()
+                && threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+    }
+
+    private static String prefix(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+        HttpServletResponse target = response;
+        OnFirstWriteResponseWrapper wrapped = null;
+        if (header) {
+            wrapped = new OnFirstWriteResponseWrapper(response, () -> {
+                response.setHeader(ALLOCATED_HEADER,
+                        Long.toString(threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore));
+                response.setHeader(CPU_HEADER,
+                        String.format(Locale.ROOT, "%.3f", (threadMXBean.getCurrentThreadCpuTime() - cpuBefore) / 1e6));
+            });
+            target = wrapped;
+        }
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            if (wrapped != null) {
+                wrapped.beforeCommit();
+            }
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+            record(request, response, allocated, cpu);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long allocated, long cpu) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String status = Integer.toString(response.getStatus());
+        DistributionSummary.builder("app.request.allocated")
+                .baseUnit("bytes")
+                .tags("method", request.getMethod(), "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(allocated);
+        Timer.builder("app.request.cpu")
+                .tags("method", request.getMethod(), "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(cpu, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,167 @@
+package guru.springfamework.config;
+
+import lombok.Value;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the {@link InFlightRequests} on a timer and captures the stacks of the worker threads
+ * when requests get stuck, so a stalled database shows up as threads parked in the pool or the
+ * driver rather than as silence.
+ * <p>
+ * A capture is taken when a request runs past the stuck threshold, once per request, or when the
+ * in-flight requests fill the pool past its threshold, then with every request in it and at most
+ * once per stuck threshold. The last captures are kept in a ring buffer for the
+ * {@code watchdog} actuator endpoint.
+ */
+public class RequestWatchdog {
+
+    public enum Reason {STUCK_REQUEST, POOL_EXHAUSTION}
+
+    @Value
+    public static class StuckRequest {
+        String thread;
+        Thread.State state;
+        String lock;
+        String lockOwner;
+        String method;
+        String uri;
+        String handler;
+        long elapsedMs;
+        List<String> stack;
+    }
+
+    @Value
+    public static class Capture {
+        Instant time;
+        Reason reason;
+        int inFlight;
+        int maxThreads;
+        List<StuckRequest> requests;
+    }
+
+    private static final int MAX_STACK_DEPTH = 64;
+
+    private final InFlightRequests inFlightRequests;
+    private final long stuckThresholdMs;
+    private final int poolThreshold;
+    private final int maxThreads;
+    private final int capacity;
+    private final Deque<Capture> captures = new ArrayDeque<>();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private ScheduledExecutorService scheduler;
+    private long lastPoolCaptureNanos;
+    private boolean poolCaptured;
+
+    /**
+     * @param poolThresholdRatio share of {@code maxThreads} in flight that counts as near exhaustion
+     */
+    public RequestWatchdog(InFlightRequests inFlightRequests, long stuckThresholdMs, double poolThresholdRatio,
+                           int maxThreads, int capacity) {
+        this.inFlightRequests = inFlightRequests;
+        this.stuckThresholdMs = stuckThresholdMs;
+        this.poolThreshold = Math.max(1, (int) Math.ceil(maxThreads * poolThresholdRatio));
+        this.maxThreads = maxThreads;
+        this.capacity = capacity;
+    }
+
+    public void start(long checkIntervalMs) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void check() {
+        long now = System.nanoTime();
+        List<InFlightRequests.Entry> inFlight = inFlightRequests.snapshot();
+        if (inFlight.size() >= poolThreshold) {
+            if (!poolCaptured || now - lastPoolCaptureNanos >= TimeUnit.MILLISECONDS.toNanos(stuckThresholdMs)) {
+                poolCaptured = true;
+                lastPoolCaptureNanos = now;
+                inFlight.forEach(entry -> entry.captured = true);
+                capture(Reason.POOL_EXHAUSTION, inFlight, inFlight.size(), now);
+            }
+            return;
+        }
+        List<InFlightRequests.Entry> stuck = inFlight.stream()
+                .filter(entry -> !entry.captured && entry.elapsedMillis(now) >= stuckThresholdMs)
+                .collect(Collectors.toList());
+        if (!stuck.isEmpty()) {
+            stuck.forEach(entry -> entry.captured = true);
+            capture(Reason.STUCK_REQUEST, stuck, inFlight.size(), now);
+        }
+    }
+
+    private void capture(Reason reason, List<InFlightRequests.Entry> entries, int inFlight, long now) {
+        long[] ids = entries.stream().mapToLong(entry -> entry.getThread().getId()).toArray();
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids, MAX_STACK_DEPTH);
+        List<StuckRequest> requests = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            InFlightRequests.Entry entry = entries.get(i);
+            ThreadInfo info = infos[i];
+            if (info == null) {
+                // finished and gone since the snapshot
+                continue;
+            }
+            requests.add(new StuckRequest(info.getThreadName(), info.getThreadState(), info.getLockName(),
+                    info.getLockOwnerName(), entry.getMethod(), entry.getUri(), entry.getHandler(),
+                    entry.elapsedMillis(now), Arrays.stream(info.getStackTrace())
+                    .map(StackTraceElement::toString)
+                    .collect(Collectors.toList())));
+        }
+        Capture capture = new Capture(Instant.now(), reason, inFlight, maxThreads, requests);
+        synchronized (captures) {
+            if (captures.size() == capacity) {
+                captures.removeFirst();
+            }
+            captures.addLast(capture);
+        }
+    }
+
+    /**
+     * @return the captures, newest first
+     */
+    public List<Capture> captures() {
+        synchronized (captures) {
+            List<Capture> newestFirst = new ArrayList<>(captures);
+            Collections.reverse(newestFirst);
+            return newestFirst;
+        }
+    }
+
+    public void clear() {
+        synchronized (captures) {
+            captures.clear();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlightRequests.size();
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+}
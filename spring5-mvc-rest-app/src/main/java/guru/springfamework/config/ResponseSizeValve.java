@@ -0,0 +1,62 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * Records the body bytes of every response as {@code http.server.response.size}, tagged with
+ * method, uri pattern and status like {@code http.server.requests}.
+ * <p>
+ * Tomcat counts the bytes anyway and calls access logs once a response is complete, streamed
+ * async ones included, so nothing has to wrap the response stream.
+ */
+class ResponseSizeValve extends ValveBase implements AccessLog {
+
+    static final String RESPONSE_SIZE = "http.server.response.size";
+
+    private static final long[] SLA_BYTES = {1024, 8 * 1024, 64 * 1024, 512 * 1024, 4 * 1024 * 1024};
+
+    private final MeterRegistry meterRegistry;
+    private boolean requestAttributesEnabled;
+
+    ResponseSizeValve(MeterRegistry meterRegistry) {
+        super(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        getNext().invoke(request, response);
+    }
+
+    @Override
+    public void log(Request request, Response response, long time) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(RESPONSE_SIZE)
+                .baseUnit("bytes")
+                .sla(SLA_BYTES)
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("status", Integer.toString(response.getStatus()))
+                .register(meterRegistry)
+                .record(response.getBytesWritten(false));
+    }
+
+    @Override
+    public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+        this.requestAttributesEnabled = requestAttributesEnabled;
+    }
+
+    @Override
+    public boolean getRequestAttributesEnabled() {
+        return requestAttributesEnabled;
+    }
+}
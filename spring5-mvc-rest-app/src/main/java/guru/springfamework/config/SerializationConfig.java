@@ -0,0 +1,81 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.ModelModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selects the {@link SerializationEngine}. The engine's modules are added to the mapper builder,
+ * so they reach the JSON and XML converters and the streaming list writers alike. Converter beans
+ * go ahead of Boot's defaults, so the codec converters of the generated engine see the API types
+ * first.
+ */
+@Configuration
+public class SerializationConfig {
+
+    @Bean
+    public SerializationEngine serializationEngine(@Value("${app.serialization.engine:standard}") String engine) {
+        return SerializationEngine.of(engine);
+    }
+
+    @Bean
+    public ModelModule modelModule() {
+        return new ModelModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer serializationEngineModules(SerializationEngine serializationEngine,
+                                                                           ObjectProvider<List<Module>> moduleBeans) {
+        List<Module> modules = new ArrayList<>(moduleBeans.getIfAvailable(Collections::emptyList));
+        modules.addAll(Arrays.asList(serializationEngine.modules()));
+        return new ModulesCustomizer(modules);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.serialization.engine", havingValue = "generated")
+    public JsonCodecHttpMessageConverter jsonCodecHttpMessageConverter(ObjectMapper objectMapper) {
+        return new JsonCodecHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.serialization.engine", havingValue = "generated")
+    public XmlCodecHttpMessageConverter xmlCodecHttpMessageConverter(SerializationEngine serializationEngine) {
+        return new XmlCodecHttpMessageConverter(serializationEngine);
+    }
+
+    /**
+     * Boot's own customizer installs the {@link Module} beans, replacing whatever modules the
+     * builder had, so this one runs after it and installs the beans along with the engine's.
+     */
+    private static final class ModulesCustomizer implements Jackson2ObjectMapperBuilderCustomizer, Ordered {
+
+        private final List<Module> modules;
+
+        ModulesCustomizer(List<Module> modules) {
+            this.modules = modules;
+        }
+
+        @Override
+        public void customize(Jackson2ObjectMapperBuilder builder) {
+            builder.modulesToInstall(modules.toArray(new Module[0]));
+        }
+
+        @Override
+        public int getOrder() {
+            return 1;
+        }
+    }
+}
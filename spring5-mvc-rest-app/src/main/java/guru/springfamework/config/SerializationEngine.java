@@ -0,0 +1,124 @@
+package guru.springfamework.config;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.ctc.wstx.stax.WstxOutputFactory;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import java.util.Locale;
+
+/**
+ * How the API payloads are written and read, {@code app.serialization.engine}. All engines
+ * produce the same bytes.
+ * <p>
+ * The StAX implementation is picked explicitly, {@code XMLInputFactory.newInstance()} would
+ * return whichever of Woodstox and Aalto comes first on the classpath.
+ */
+public enum SerializationEngine {
+
+    /**
+     * Jackson's reflection-based property access, Woodstox for XML.
+     */
+    STANDARD {
+        @Override
+        XMLInputFactory inputFactory() {
+            return new WstxInputFactory();
+        }
+
+        @Override
+        XMLOutputFactory outputFactory() {
+            return new WstxOutputFactory();
+        }
+    },
+
+    /**
+     * Afterburner, which generates bytecode for the property accessors instead of calling them
+     * reflectively, and the Aalto StAX implementation for XML.
+     */
+    FAST {
+        @Override
+        public Module[] modules() {
+            return new Module[]{new AfterburnerModule()};
+        }
+
+        @Override
+        XMLInputFactory inputFactory() {
+            return new InputFactoryImpl();
+        }
+
+        @Override
+        XMLOutputFactory outputFactory() {
+            return new AaltoOutputFactory();
+        }
+    },
+
+    /**
+     * Codecs generated at build time from the schemas for the API types, see
+     * {@link guru.springfamework.api.v1.codec.Codecs}, written to the Woodstox StAX writers.
+     * Everything else goes through Jackson as with {@link #STANDARD}.
+     */
+    GENERATED {
+        @Override
+        XMLInputFactory inputFactory() {
+            return new WstxInputFactory();
+        }
+
+        @Override
+        XMLOutputFactory outputFactory() {
+            return new WstxOutputFactory();
+        }
+    };
+
+    public static SerializationEngine of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Jackson modules the engine adds to both the JSON and the XML mapper.
+     */
+    public Module[] modules() {
+        return new Module[0];
+    }
+
+    abstract XMLInputFactory inputFactory();
+
+    abstract XMLOutputFactory outputFactory();
+
+    /**
+     * A StAX input factory set up as the XML mapper's.
+     */
+    public XMLInputFactory xmlInputFactory() {
+        //no DTDs or external entities in request bodies, as Spring's own XML mapper
+        XMLInputFactory inputFactory = inputFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        //what XmlFactory sets
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return inputFactory;
+    }
+
+    /**
+     * A StAX output factory set up as the XML mapper's.
+     */
+    public XMLOutputFactory xmlOutputFactory() {
+        XMLOutputFactory outputFactory = outputFactory();
+        outputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        return outputFactory;
+    }
+
+    /**
+     * An XML mapper configured by {@code builder}, the replacement for
+     * {@code builder.createXmlMapper(true).build()}.
+     */
+    public XmlMapper xmlMapper(Jackson2ObjectMapperBuilder builder) {
+        XmlMapper xmlMapper = new XmlMapper(new XmlFactory(xmlInputFactory(), xmlOutputFactory()));
+        builder.configure(xmlMapper);
+        return xmlMapper;
+    }
+}
@@ -0,0 +1,141 @@
+package guru.springfamework.config;
+
+import java.util.Locale;
+
+/**
+ * Time the current request spent per layer, reported in the W3C {@code Server-Timing} header by
+ * {@link ServerTimingFilter}. Only sampled requests get one, for the others every hook is a single
+ * thread local read.
+ * <p>
+ * Layers nest, controller around service around repository around db, and each figure includes
+ * the layers it called. Re-entering a layer that is already running is not counted twice. The
+ * controller layer runs from the handler being picked to the body being written, binding the
+ * arguments included.
+ */
+public final class ServerTiming {
+
+    public enum Layer {
+        CONTROLLER("ctrl", "controller"),
+        SERVICE("svc", "service"),
+        REPOSITORY("repo", "repository"),
+        DB("db", "jdbc"),
+        SERIALIZATION("ser", "serialization");
+
+        final String metric;
+        final String description;
+
+        Layer(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    static final String HEADER = "Server-Timing";
+
+    private static final Layer[] LAYERS = Layer.values();
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private final long[] nanos = new long[LAYERS.length];
+    private final int[] calls = new int[LAYERS.length];
+    private final int[] depth = new int[LAYERS.length];
+    private long handlerStart = -1;
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the start time to hand to {@link #exit}, or -1 when the request is not sampled
+     */
+    public static long enter(Layer layer) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return -1;
+        }
+        timing.depth[layer.ordinal()]++;
+        return System.nanoTime();
+    }
+
+    public static void exit(Layer layer, long start) {
+        if (start < 0) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && --timing.depth[layer.ordinal()] == 0) {
+            timing.add(layer, System.nanoTime() - start);
+        }
+    }
+
+    static void beginHandler() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.handlerStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends the controller layer, once: the body starts being written or the handler returned
+     * without one.
+     */
+    static void endHandler() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.handlerStart >= 0) {
+            timing.add(Layer.CONTROLLER, System.nanoTime() - timing.handlerStart);
+            timing.handlerStart = -1;
+        }
+    }
+
+    /**
+     * For leaf work measured elsewhere, such as JDBC calls.
+     */
+    public static void record(Layer layer, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(layer, nanos);
+        }
+    }
+
+    private void add(Layer layer, long elapsed) {
+        nanos[layer.ordinal()] += elapsed;
+        calls[layer.ordinal()]++;
+    }
+
+    boolean wasCalled(Layer layer) {
+        return calls[layer.ordinal()] > 0;
+    }
+
+    long nanos(Layer layer) {
+        return nanos[layer.ordinal()];
+    }
+
+    long totalNanos() {
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * e.g. {@code ctrl;dur=1.204;desc="controller", db;dur=0.311;desc="jdbc", total;dur=1.650}
+     */
+    String header() {
+        StringBuilder header = new StringBuilder(160);
+        for (Layer layer : LAYERS) {
+            if (wasCalled(layer)) {
+                appendMetric(header, layer.metric, nanos(layer)).append(";desc=\"").append(layer.description).append("\", ");
+            }
+        }
+        return appendMetric(header, "total", totalNanos()).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String metric, long nanos) {
+        return header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
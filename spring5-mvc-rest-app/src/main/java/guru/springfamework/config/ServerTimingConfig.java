@@ -0,0 +1,80 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * {@code Server-Timing} for a sample of requests, {@code app.server-timing.sample-rate} between 0
+ * and 1. The Jackson converters replace the ones Boot would register, configured the same way
+ * except for the {@link SerializationEngine}'s XML mapper, and only add the serialization timing.
+ * Handlers are timed by an interceptor, services and repositories by the {@link LayerTimingAspect}.
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ServerTimingFilter serverTimingFilter(MeterRegistry meterRegistry,
+                                                 @Value("${app.server-timing.sample-rate:0.01}") double sampleRate) {
+        return new ServerTimingFilter(meterRegistry, sampleRate);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                TimedSerialization.write(outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2XmlHttpMessageConverter mappingJackson2XmlHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                                         SerializationEngine engine) {
+        return new MappingJackson2XmlHttpMessageConverter(engine.xmlMapper(builder)) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                TimedSerialization.write(outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                ServerTiming.beginHandler();
+                return true;
+            }
+
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                   ModelAndView modelAndView) {
+                ServerTiming.endHandler();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                ServerTiming.endHandler();
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples requests for {@link ServerTiming}, adds the {@code Server-Timing} header before the
+ * response commits and records every layer as {@code app.request.layer}, tagged with layer, method
+ * and uri.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String LAYER_TIMER = "app.request.layer";
+
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ServerTiming timing = ServerTiming.begin();
+        OnFirstWriteResponseWrapper wrapped = new OnFirstWriteResponseWrapper(response,
+                () -> response.setHeader(ServerTiming.HEADER, timing.header()));
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            ServerTiming.end();
+            wrapped.beforeCommit();
+            record(request, timing);
+        }
+    }
+
+    private void record(HttpServletRequest request, ServerTiming timing) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        for (ServerTiming.Layer layer : ServerTiming.Layer.values()) {
+            if (timing.wasCalled(layer)) {
+                Timer.builder(LAYER_TIMER)
+                        .tags("layer", layer.description, "method", request.getMethod(), "uri", uri)
+                        .register(meterRegistry)
+                        .record(timing.nanos(layer), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
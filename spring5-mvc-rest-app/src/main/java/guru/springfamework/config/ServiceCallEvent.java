@@ -0,0 +1,28 @@
+package guru.springfamework.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("guru.springfamework.ServiceCall")
+@Label("Service Call")
+@Category({"Spring5 MVC REST", "Service"})
+@StackTrace(false)
+class ServiceCallEvent extends jdk.jfr.Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Exception")
+    String exception;
+}
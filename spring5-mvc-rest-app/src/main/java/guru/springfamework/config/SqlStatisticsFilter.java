@@ -0,0 +1,89 @@
+package guru.springfamework.config;
+
+import guru.springfamework.repositories.SqlStatistics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and JDBC time of each request, reports them in the
+ * {@value #STATEMENTS_HEADER} and {@value #TIME_HEADER} (milliseconds) response headers and records
+ * them as {@code sql.request.statements} and {@code sql.request.time}.
+ * <p>
+ * How long the request held pooled connections is recorded as {@code sql.request.connection.hold},
+ * and as a percentage of the whole request in {@code sql.request.connection.share}. With
+ * open-in-view the connection stays leased until the response is written, without it only for
+ * the service's transactions.
+ * <p>
+ * Headers have to go out before the body, so they are added as soon as the body is first written.
+ * By then the handler and its transactions are done, except for streamed bodies whose queries run
+ * later on the async pool and are not counted.
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time";
+
+    private static final long[] SLA_STATEMENTS = {1, 2, 3, 5, 10, 20, 50};
+    private static final long[] SLA_SHARE = {10, 25, 50, 75, 90, 100};
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlStatistics statistics = SqlStatistics.begin();
+        OnFirstWriteResponseWrapper wrapped = new OnFirstWriteResponseWrapper(response, () -> {
+            response.setHeader(STATEMENTS_HEADER, Integer.toString(statistics.getStatements()));
+            response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getJdbcNanos() / 1e6));
+        });
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            SqlStatistics.end(statistics);
+            wrapped.beforeCommit();
+            record(request, statistics, System.nanoTime() - start);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics, long requestNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("sql.request.statements")
+                .sla(SLA_STATEMENTS)
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        Timer.builder("sql.request.time")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        if (statistics.getConnectionNanos() > 0) {
+            Timer.builder("sql.request.connection.hold")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .record(statistics.getConnectionNanos(), TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("sql.request.connection.share")
+                    .baseUnit("percent")
+                    .sla(SLA_SHARE)
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .record(Math.min(100.0, 100.0 * statistics.getConnectionNanos() / requestNanos));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package guru.springfamework.config;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Times the creation of every bean, from instantiation to the end of initialization. Total time
+ * includes the dependencies created on the way, self time does not. Self times are also summed per
+ * configuration class that declared the beans, auto-configurations among them, and the slowest
+ * are logged once the application is ready. Served as the {@code startuptimeline} actuator endpoint.
+ * <p>
+ * Bean post processors registered before this one, and the beans they need, are not timed.
+ */
+public class StartupTimeline implements InstantiationAwareBeanPostProcessor, PriorityOrdered, BeanFactoryAware,
+        ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeline.class);
+    private static final int LOGGED = 10;
+
+    @Value
+    public static class BeanTiming {
+        String name;
+        String type;
+        String configuration;
+        double totalMs;
+        double selfMs;
+    }
+
+    @Value
+    public static class ConfigurationTiming {
+        String configuration;
+        boolean autoConfiguration;
+        int beans;
+        double selfMs;
+    }
+
+    private static final class Frame {
+        final String beanName;
+        final long start = System.nanoTime();
+        long childNanos;
+
+        Frame(String beanName) {
+            this.beanName = beanName;
+        }
+    }
+
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ConcurrentLinkedQueue<BeanTiming> timings = new ConcurrentLinkedQueue<>();
+    private ConfigurableListableBeanFactory beanFactory;
+    private volatile long readyMs = -1;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        frames.get().push(new Frame(beanName));
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Deque<Frame> stack = frames.get();
+        if (stack.stream().noneMatch(frame -> frame.beanName.equals(beanName))) {
+            // objects handed out by factory beans, never instantiated here
+            return bean;
+        }
+        Frame frame = stack.pop();
+        while (!frame.beanName.equals(beanName)) {
+            // creation failed or was short-circuited
+            frame = stack.pop();
+        }
+        long total = System.nanoTime() - frame.start;
+        if (!stack.isEmpty()) {
+            stack.peek().childNanos += total;
+        }
+        timings.add(new BeanTiming(beanName, bean.getClass().getName(), configuration(beanName, bean),
+                total / 1e6, (total - frame.childNanos) / 1e6));
+        return bean;
+    }
+
+    private String configuration(String beanName, Object bean) {
+        String className = bean.getClass().getName();
+        try {
+            BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+            if (definition.getFactoryBeanName() != null) {
+                BeanDefinition factory = beanFactory.getMergedBeanDefinition(definition.getFactoryBeanName());
+                if (factory.getBeanClassName() != null) {
+                    className = factory.getBeanClassName();
+                }
+            }
+        } catch (NoSuchBeanDefinitionException e) {
+            // inner and manually registered singletons count for themselves
+        }
+        int proxySuffix = className.indexOf("$$");
+        className = proxySuffix > 0 ? className.substring(0, proxySuffix) : className;
+        int nested = className.indexOf('$');
+        return nested > 0 ? className.substring(0, nested) : className;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (event.getApplicationContext().getParent() != null) {
+            return;
+        }
+        readyMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Ready {} ms after JVM start, slowest beans: {}", readyMs, slowestBeans(LOGGED).stream()
+                .map(timing -> String.format("%s %.1f ms", timing.getName(), timing.getSelfMs()))
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Milliseconds from JVM start to the application being ready, -1 before.
+     */
+    public long getReadyMs() {
+        return readyMs;
+    }
+
+    public List<BeanTiming> slowestBeans(int limit) {
+        return timings.stream()
+                .sorted(Comparator.comparingDouble(BeanTiming::getSelfMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public List<ConfigurationTiming> slowestConfigurations(int limit) {
+        Map<String, List<BeanTiming>> byConfiguration = new LinkedHashMap<>();
+        for (BeanTiming timing : timings) {
+            byConfiguration.computeIfAbsent(timing.getConfiguration(), key -> new ArrayList<>()).add(timing);
+        }
+        return byConfiguration.entrySet().stream()
+                .map(entry -> new ConfigurationTiming(entry.getKey(), entry.getKey().endsWith("AutoConfiguration"),
+                        entry.getValue().size(), entry.getValue().stream().mapToDouble(BeanTiming::getSelfMs).sum()))
+                .sorted(Comparator.comparingDouble(ConfigurationTiming::getSelfMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,24 @@
+package guru.springfamework.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup timing per bean and per configuration class, off with
+ * {@code app.startup-timeline.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.startup-timeline.enabled", matchIfMissing = true)
+public class StartupTimelineConfig {
+
+    @Bean
+    public static StartupTimeline startupTimeline() {
+        return new StartupTimeline();
+    }
+
+    @Bean
+    public StartupTimelineEndpoint startupTimelineEndpoint(StartupTimeline startupTimeline) {
+        return new StartupTimelineEndpoint(startupTimeline);
+    }
+}
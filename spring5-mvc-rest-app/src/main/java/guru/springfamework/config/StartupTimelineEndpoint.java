@@ -0,0 +1,34 @@
+package guru.springfamework.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/startuptimeline?top=n} lists the beans and configuration classes that took
+ * the longest to create at startup, see {@link StartupTimeline}.
+ */
+@Endpoint(id = "startuptimeline")
+public class StartupTimelineEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final StartupTimeline timeline;
+
+    public StartupTimelineEndpoint(StartupTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    @ReadOperation
+    public Map<String, Object> timeline(@Nullable Integer top) {
+        int limit = top != null ? top : DEFAULT_TOP;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("readyMs", timeline.getReadyMs());
+        result.put("beans", timeline.slowestBeans(limit));
+        result.put("configurations", timeline.slowestConfigurations(limit));
+        return result;
+    }
+}
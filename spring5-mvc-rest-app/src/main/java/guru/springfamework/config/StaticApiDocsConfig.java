@@ -0,0 +1,24 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.StaticApiDocsController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Refuses to start with {@code app.api-docs.static=true} when the build did not generate the
+ * document, a jar built with {@code -Dmaven.test.skip} or {@code -Dapi-docs.skip}, instead of
+ * answering {@code /v2/api-docs} with 404. Checked here rather than in the controller, which the
+ * {@code fast-start} profile creates on its first request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.api-docs.static", havingValue = "true")
+public class StaticApiDocsConfig {
+
+    public StaticApiDocsConfig() {
+        if (!new ClassPathResource(StaticApiDocsController.DOCUMENT).exists()) {
+            throw new IllegalStateException("app.api-docs.static=true but " + StaticApiDocsController.DOCUMENT
+                    + " is not on the classpath, build with the api-docs profile or run with app.api-docs.static=false");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package guru.springfamework.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Streamed list responses are written from an async thread. Both that pool and the queue in
+ * front of it are bounded, a stream that finds them full is answered with 503 rather than
+ * waiting, see {@link guru.springfamework.controllers.v1.RestResponseEntityExceptionHandler}.
+ * Full listings get more time than the default async request timeout.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Value("${app.streaming.pool-size:8}")
+    private int poolSize;
+
+    @Value("${app.streaming.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.streaming.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
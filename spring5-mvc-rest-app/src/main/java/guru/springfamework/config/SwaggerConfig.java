@@ -1,5 +1,6 @@
 package guru.springfamework.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.PathSelectors;
@@ -12,8 +13,13 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 import java.util.ArrayList;
 
+/**
+ * Scans the handlers for the Swagger document at startup. With {@code app.api-docs.static=true} the
+ * document generated at build time is served instead, see {@link guru.springfamework.controllers.StaticApiDocsController}.
+ */
 @EnableSwagger2
 @Configuration
+@ConditionalOnProperty(name = "app.api-docs.static", havingValue = "false", matchIfMissing = true)
 public class SwaggerConfig { //extends WebMvcConfigurationSupport {
 
     @Bean
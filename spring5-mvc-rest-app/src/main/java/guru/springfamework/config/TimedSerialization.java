@@ -0,0 +1,111 @@
+package guru.springfamework.config;
+
+import guru.springfamework.config.ServerTiming.Layer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Times serialization on sampled requests without buffering the body. The body is only asked for
+ * once the first byte is written, which is when {@link ServerTimingFilter} adds its header, so the
+ * header holds the time up to the first byte. That is the whole serialization for bodies that fit
+ * the generator's buffer, larger ones go out as they are written. Unsampled requests write
+ * straight through.
+ */
+final class TimedSerialization {
+
+    interface Write {
+        void to(HttpOutputMessage outputMessage) throws IOException;
+    }
+
+    private TimedSerialization() {
+    }
+
+    static void write(HttpOutputMessage outputMessage, Write write) throws IOException {
+        long start = ServerTiming.enter(Layer.SERIALIZATION);
+        if (start < 0) {
+            write.to(outputMessage);
+            return;
+        }
+        ServerTiming.endHandler();
+        CountingOutputStream body = new CountingOutputStream(outputMessage, start);
+        try {
+            write.to(new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+        } finally {
+            body.stopTiming();
+        }
+    }
+
+    /**
+     * Counts what goes through to the response body, stopping the serialization time before the
+     * first byte.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final HttpOutputMessage outputMessage;
+        private final long start;
+        private OutputStream body;
+        private long count;
+        private boolean timing = true;
+
+        CountingOutputStream(HttpOutputMessage outputMessage, long start) {
+            this.outputMessage = outputMessage;
+            this.start = start;
+        }
+
+        void stopTiming() {
+            if (timing) {
+                timing = false;
+                ServerTiming.exit(Layer.SERIALIZATION, start);
+            }
+        }
+
+        private OutputStream body() throws IOException {
+            if (body == null) {
+                stopTiming();
+                body = outputMessage.getBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            body().write(b, off, len);
+            count += len;
+        }
+
+        //nothing to flush before the first byte, flushing would commit the response early
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) {
+                body.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            body().close();
+        }
+    }
+}
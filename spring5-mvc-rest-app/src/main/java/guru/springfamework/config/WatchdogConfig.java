@@ -0,0 +1,69 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tracks in-flight requests and runs the {@link RequestWatchdog} over them, see
+ * {@code app.watchdog.*}. The in-flight count is published as {@code app.requests.in-flight}.
+ */
+@Configuration
+public class WatchdogConfig implements WebMvcConfigurer {
+
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+
+    @Bean
+    public InFlightRequests inFlightRequests(MeterRegistry meterRegistry) {
+        Gauge.builder("app.requests.in-flight", inFlightRequests, InFlightRequests::size)
+                .register(meterRegistry);
+        return inFlightRequests;
+    }
+
+    @Bean
+    public InFlightRequestFilter inFlightRequestFilter() {
+        return new InFlightRequestFilter(inFlightRequests);
+    }
+
+    @Bean(destroyMethod = "stop")
+    public RequestWatchdog requestWatchdog(ServerProperties serverProperties,
+                                           @Value("${app.watchdog.stuck-threshold-ms:5000}") long stuckThresholdMs,
+                                           @Value("${app.watchdog.pool-threshold:0.9}") double poolThreshold,
+                                           @Value("${app.watchdog.check-interval-ms:1000}") long checkIntervalMs,
+                                           @Value("${app.watchdog.captures:50}") int captures) {
+        RequestWatchdog watchdog = new RequestWatchdog(inFlightRequests, stuckThresholdMs, poolThreshold,
+                serverProperties.getTomcat().getMaxThreads(), captures);
+        watchdog.start(checkIntervalMs);
+        return watchdog;
+    }
+
+    @Bean
+    public WatchdogEndpoint watchdogEndpoint(RequestWatchdog requestWatchdog) {
+        return new WatchdogEndpoint(requestWatchdog);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod) {
+                    HandlerMethod handlerMethod = (HandlerMethod) handler;
+                    inFlightRequests.handler(handlerMethod.getBeanType().getSimpleName() + "."
+                            + handlerMethod.getMethod().getName());
+                }
+                return true;
+            }
+        });
+    }
+}
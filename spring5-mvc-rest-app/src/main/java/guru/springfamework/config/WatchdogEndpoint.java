@@ -0,0 +1,37 @@
+package guru.springfamework.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/watchdog} shows how many requests are in flight and the stacks the
+ * {@link RequestWatchdog} captured of stuck ones, newest first. {@code DELETE} clears the captures.
+ * Served on the management port, so it still answers when the API workers are all stuck.
+ */
+@Endpoint(id = "watchdog")
+public class WatchdogEndpoint {
+
+    private final RequestWatchdog watchdog;
+
+    public WatchdogEndpoint(RequestWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> captures() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", watchdog.getInFlight());
+        result.put("maxThreads", watchdog.getMaxThreads());
+        result.put("captures", watchdog.captures());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        watchdog.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.codec.Codec;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.codehaus.stax2.XMLStreamWriter2;
+import org.codehaus.stax2.ri.Stax2ReaderAdapter;
+import org.codehaus.stax2.ri.Stax2WriterAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * XML through the generated codecs, on the StAX implementation of the
+ * {@link SerializationEngine}. Like Jackson's converter it writes no XML declaration and accepts
+ * no DTDs.
+ */
+public class XmlCodecHttpMessageConverter extends CodecHttpMessageConverter {
+
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+
+    public XmlCodecHttpMessageConverter(SerializationEngine engine) {
+        super(MediaType.APPLICATION_XML, MediaType.TEXT_XML, new MediaType("application", "*+xml"));
+        this.inputFactory = engine.xmlInputFactory();
+        this.outputFactory = engine.xmlOutputFactory();
+    }
+
+    @Override
+    <T> T read(Codec<T> codec, InputStream body) throws IOException {
+        try {
+            XMLStreamReader2 reader = Stax2ReaderAdapter.wrapIfNecessary(inputFactory.createXMLStreamReader(body));
+            try {
+                reader.nextTag();
+                return codec.readXml(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new HttpMessageNotReadableException("XML parse error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    <T> void write(Codec<T> codec, T value, MediaType contentType, OutputStream body) throws IOException {
+        try {
+            XMLStreamWriter2 writer = Stax2WriterAdapter.wrapIfNecessary(outputFactory.createXMLStreamWriter(body, "UTF-8"));
+            writer.writeStartElement(codec.rootName());
+            codec.writeXml(value, writer);
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            //flushes, the body itself stays open
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new HttpMessageNotWritableException("Could not write XML: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package guru.springfamework.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the Swagger document generated at build time, from {@value #DOCUMENT} on the classpath, at
+ * the same paths Springfox would, so swagger-ui.html keeps working without the startup scan.
+ * The app does not start when the document is missing, see {@link guru.springfamework.config.StaticApiDocsConfig}.
+ */
+@RestController
+@ConditionalOnProperty(name = "app.api-docs.static", havingValue = "true")
+public class StaticApiDocsController {
+
+    public static final String DOCUMENT = "api-docs/swagger.json";
+
+    private static final String API_DOCS_PATH = "/v2/api-docs";
+
+    private final Resource document = new ClassPathResource(DOCUMENT);
+
+    @GetMapping(API_DOCS_PATH)
+    public ResponseEntity<Resource> apiDocs() {
+        //the document is there, StaticApiDocsConfig checks it at startup
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(document);
+    }
+
+    @GetMapping("/swagger-resources")
+    public List<Map<String, String>> swaggerResources() {
+        Map<String, String> resource = new LinkedHashMap<>();
+        resource.put("name", "default");
+        resource.put("url", API_DOCS_PATH);
+        resource.put("location", API_DOCS_PATH);
+        resource.put("swaggerVersion", "2.0");
+        return Collections.singletonList(resource);
+    }
+
+    @GetMapping({"/swagger-resources/configuration/ui", "/swagger-resources/configuration/security"})
+    public Map<String, Object> swaggerUiConfiguration() {
+        return Collections.emptyMap();
+    }
+}
@@ -3,9 +3,15 @@ package guru.springfamework.controllers.v1;
 import guru.springfamework.model.CustomerDTO;
 import guru.springfamework.model.CustomerListDTO;
 import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.Versioned;
+import guru.springfamework.api.v1.stream.ListRowWriter;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,9 +19,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * Created by jt on 9/27/17.
@@ -28,24 +39,70 @@ public class CustomerController {
 
     public static final String BASE_URL = "/api/v1/customers";
     private final CustomerService customerService;
+    private final ListStreamWriters listStreamWriters;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ListStreamWriters listStreamWriters) {
         this.customerService = customerService;
+        this.listStreamWriters = listStreamWriters;
     }
 
     @ApiOperation(value = "This will get a list of customers", notes ="These are some notes about the API")
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public CustomerListDTO getListofCustomers(){
+    public ResponseEntity<CustomerListDTO> getListofCustomers(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        //read the counter before the rows, a concurrent write then leaves the tag older than the body
+        String eTag = ETags.weak(customerService.getCustomerListVersion());
+        if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        if (after != null || limit != null) {
+            return ResponseEntity.ok().eTag(eTag).body(customerService.getCustomerPage(after, limit));
+        }
+
         CustomerListDTO customerListDTO = new CustomerListDTO();
         customerListDTO.getCustomers().addAll(customerService.getAllCustomers());
-        return customerListDTO;
+        return ResponseEntity.ok().eTag(eTag).body(customerListDTO);
+    }
+
+    @ApiOperation(value = "This will stream all customers", notes ="Rows are written as they are read, use for full listings")
+    @GetMapping(params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamListofCustomers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        MediaType mediaType = listStreamWriters.negotiate(accept);
+
+        String eTag = ETags.weak(customerService.getCustomerListVersion());
+        if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(eTag)
+                .body(outputStream -> {
+                    try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, outputStream)) {
+                        customerService.streamAllCustomerRows(writer);
+                        writer.finish();
+                    }
+                });
     }
 
     @GetMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public CustomerDTO getCustomerById(@PathVariable Long id){
-        return customerService.getCustomerById(id);
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        if (ifNoneMatch != null) {
+            //version only lookup, an unchanged customer is neither loaded nor serialized
+            String eTag = ETags.strong(customerService.getCustomerVersion(id));
+            if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        Versioned<CustomerDTO> customer = customerService.getVersionedCustomerById(id);
+        return ResponseEntity.ok().eTag(ETags.strong(customer.getVersion())).body(customer.getValue());
     }
 
 
@@ -55,16 +112,24 @@ public class CustomerController {
         return customerService.createNewCustomer(customerDTO);
     }
 
+    @PostMapping({"/bulk"})
+    @ResponseStatus(HttpStatus.CREATED)
+    public CustomerListDTO createNewCustomers(@RequestBody List<CustomerDTO> customerDTOs){
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        customerListDTO.getCustomers().addAll(customerService.createNewCustomers(customerDTOs));
+        return customerListDTO;
+    }
+
     @PutMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public CustomerDTO updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO){
-        return customerService.saveCustomerByDTO(id, customerDTO);
+    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) List<String> ifMatch){
+        return ETags.ok(customerService.saveCustomerByDTO(id, customerDTO, ETags.requireMatch(ifMatch)));
     }
 
     @PatchMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public CustomerDTO patchCustomer (@PathVariable Long id, @RequestBody CustomerDTO customerDTO){
-        return customerService.patchCustomer(id, customerDTO);
+    public ResponseEntity<CustomerDTO> patchCustomer (@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) List<String> ifMatch){
+        return ETags.ok(customerService.patchCustomer(id, customerDTO, ETags.requireMatch(ifMatch)));
     }
 
     @DeleteMapping({"/{id}"})
@@ -72,5 +137,4 @@ public class CustomerController {
     public void deleteCustomer (@PathVariable Long id){
         customerService.deleteCustomerById(id);
     }
-
 }
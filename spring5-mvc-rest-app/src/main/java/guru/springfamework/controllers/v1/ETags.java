@@ -0,0 +1,105 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.services.PreconditionFailedException;
+import guru.springfamework.services.Versioned;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Entity tags for the v1 API. Single resources get strong tags from their version column,
+ * collections get weak tags from the table change counter, prefixed with the boot time
+ * because that counter starts again from zero on restart.
+ */
+final class ETags {
+
+    private static final String BOOT = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    static String strong(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 200 with the strong tag of the version a write left behind, so the client can send the
+     * next If-Match without a GET. Without a known version there is no tag.
+     */
+    static <T> ResponseEntity<T> ok(Versioned<T> written) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (written.getVersion() != null) {
+            ok.eTag(strong(written.getVersion()));
+        }
+        return ok.body(written.getValue());
+    }
+
+    static String weak(long changeCount) {
+        return "W/\"" + BOOT + "." + changeCount + "\"";
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, the W/ prefix is ignored on both sides.
+     */
+    static boolean noneMatch(List<String> ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return true;
+        }
+
+        String opaqueTag = opaqueTag(eTag);
+        for (String candidate : ifNoneMatch) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The version an If-Match header expects, read from the tags alone: the versioned update
+     * checks it, so nothing is looked up first. If-Match uses the strong comparison, so weak and
+     * malformed tags never match, and of several versions only the newest can still be current.
+     *
+     * @return the version the client expects, {@link Versioned#ANY} for {@code *}, or null when
+     * there is no If-Match header
+     */
+    static Long requireMatch(List<String> ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+
+        Long expected = null;
+        for (String candidate : ifMatch) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return Versioned.ANY;
+            }
+            Long version = strongVersion(candidate);
+            if (version != null && (expected == null || version > expected)) {
+                expected = version;
+            }
+        }
+        if (expected == null) {
+            throw new PreconditionFailedException();
+        }
+        return expected;
+    }
+
+    //the version of a tag made by strong(), null for anything else
+    private static Long strongVersion(String eTag) {
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            long version = Long.parseLong(eTag.substring(1, eTag.length() - 1));
+            return version >= 0 ? version : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -1,6 +1,9 @@
 package guru.springfamework.controllers.v1;
 
+import guru.springfamework.services.InvalidCursorException;
+import guru.springfamework.services.PreconditionFailedException;
 import guru.springfamework.services.ResourceNotFoundException;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,4 +20,23 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
 
         return new ResponseEntity<Object>("Resource Not Found", new HttpHeaders(), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<Object> handleInvalidCursorException(Exception exception, WebRequest request) {
+
+        return new ResponseEntity<Object>("Invalid Cursor", new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ResponseEntity<Object> handlePreconditionFailedException(Exception exception, WebRequest request) {
+
+        return new ResponseEntity<Object>("Precondition Failed", new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    //the streaming pool and its queue are full, see StreamingConfig
+    @ExceptionHandler({TaskRejectedException.class})
+    public ResponseEntity<Object> handleTaskRejectedException(Exception exception, WebRequest request) {
+
+        return new ResponseEntity<Object>("Service Unavailable", new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -3,9 +3,15 @@ package guru.springfamework.controllers.v1;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
 import guru.springfamework.services.VendorService;
+import guru.springfamework.services.Versioned;
+import guru.springfamework.api.v1.stream.ListRowWriter;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,9 +19,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * Created by jt on 9/27/17.
@@ -27,23 +38,67 @@ public class VendorController {
 
     public static final String BASE_URL = "/api/v1/vendors";
     private final VendorService vendorService;
+    private final ListStreamWriters listStreamWriters;
 
-    public VendorController(VendorService vendorService) {
+    public VendorController(VendorService vendorService, ListStreamWriters listStreamWriters) {
         this.vendorService = vendorService;
+        this.listStreamWriters = listStreamWriters;
     }
 
     @ApiOperation(value = "This will get a list of venders", notes ="These are some notes about the API for getting venders")
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public VendorListDTO getListofVendors(){
-        return new VendorListDTO(vendorService.getAllVendors());
+    public ResponseEntity<VendorListDTO> getListofVendors(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        //read the counter before the rows, a concurrent write then leaves the tag older than the body
+        String eTag = ETags.weak(vendorService.getVendorListVersion());
+        if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        if (after != null || limit != null) {
+            return ResponseEntity.ok().eTag(eTag).body(vendorService.getVendorPage(after, limit));
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(new VendorListDTO(vendorService.getAllVendors(), null));
+    }
+
+    @ApiOperation(value = "This will stream all venders", notes ="Rows are written as they are read, use for full listings")
+    @GetMapping(params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamListofVendors(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        MediaType mediaType = listStreamWriters.negotiate(accept);
+
+        String eTag = ETags.weak(vendorService.getVendorListVersion());
+        if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(eTag)
+                .body(outputStream -> {
+                    try (ListRowWriter writer = listStreamWriters.openVendorRows(mediaType, outputStream)) {
+                        vendorService.streamAllVendorRows(writer);
+                        writer.finish();
+                    }
+                });
     }
 
     @ApiOperation(value = "This will get a vender by Id", notes ="These are some notes about getting a vender by id")
     @GetMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public VendorDTO getVendorById(@PathVariable Long id){
-        return vendorService.getVendorById(id);
+    public ResponseEntity<VendorDTO> getVendorById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch){
+        //vendors are cached with their version, so a conditional GET needs no version only lookup
+        Versioned<VendorDTO> vendor = vendorService.getVersionedVendorById(id);
+        String eTag = ETags.strong(vendor.getVersion());
+        if (!ETags.noneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(vendor.getValue());
     }
 
     @ApiOperation(value = "This will create a vender", notes ="These are some notes about creating a new vender")
@@ -53,18 +108,25 @@ public class VendorController {
         return vendorService.createNewVendor(vendorDTO);
     }
 
+    @ApiOperation(value = "This will create many venders", notes ="Inserts all venders in one transaction and returns their urls")
+    @PostMapping({"/bulk"})
+    @ResponseStatus(HttpStatus.CREATED)
+    public VendorListDTO createNewVendors(@RequestBody List<VendorDTO> vendorDTOs){
+        return new VendorListDTO(vendorService.createNewVendors(vendorDTOs), null);
+    }
+
     @ApiOperation(value = "This will update a vender", notes ="These are some notes about updating a vender")
     @PutMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public VendorDTO updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO){
-        return vendorService.saveVendorByDTO(id, vendorDTO);
+    public ResponseEntity<VendorDTO> updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) List<String> ifMatch){
+        return ETags.ok(vendorService.saveVendorByDTO(id, vendorDTO, ETags.requireMatch(ifMatch)));
     }
 
     @ApiOperation(value = "This will patch a vender", notes ="Notes on patching a vender")
     @PatchMapping({"/{id}"})
-    @ResponseStatus(HttpStatus.OK)
-    public VendorDTO patchVendor (@PathVariable Long id, @RequestBody VendorDTO vendorDTO){
-        return vendorService.patchVendor(id, vendorDTO);
+    public ResponseEntity<VendorDTO> patchVendor (@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) List<String> ifMatch){
+        return ETags.ok(vendorService.patchVendor(id, vendorDTO, ETags.requireMatch(ifMatch)));
     }
 
     @ApiOperation(value = "This will delete a vender", notes ="Notes on deleting a vender")
@@ -73,5 +135,4 @@ public class VendorController {
     public void deleteVendor (@PathVariable Long id){
         vendorService.deleteVendorById(id);
     }
-
 }
@@ -1,21 +1,28 @@
 package guru.springfamework.domain;
 
+import guru.springfamework.domain.id.IdAllocatorGenerator;
 import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 /**
  * Created by jt on 9/24/17.
  */
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_category_name", columnList = "name"))
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "category_id")
+    @GenericGenerator(name = "category_id", strategy = IdAllocatorGenerator.STRATEGY,
+            parameters = @Parameter(name = IdAllocatorGenerator.SEQUENCE_PARAM, value = "category_seq"))
     private Long id;
     private String name;
 
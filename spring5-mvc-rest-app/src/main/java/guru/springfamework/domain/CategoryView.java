@@ -0,0 +1,14 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * Read-only projection of {@link Category}. Queries returning it select only these columns
+ * straight into the constructor, no managed entity ends up in the persistence context.
+ */
+@Value
+public class CategoryView {
+
+    private Long id;
+    private String name;
+}
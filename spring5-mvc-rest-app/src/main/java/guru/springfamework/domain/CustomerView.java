@@ -0,0 +1,15 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * Read-only projection of {@link Customer}. Queries returning it select only these columns
+ * straight into the constructor, no managed entity ends up in the persistence context.
+ */
+@Value
+public class CustomerView {
+
+    private Long id;
+    private String firstname;
+    private String lastname;
+}
@@ -0,0 +1,65 @@
+package guru.springfamework.domain;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per entity type counter of committed changes, used for collection ETags.
+ * Counters are bumped after commit, so a reader that takes the counter before reading the rows
+ * never pairs a new counter value with old rows. They live in memory, like the embedded database.
+ */
+public final class TableChangeCounter {
+
+    private static final ConcurrentMap<Class<?>, AtomicLong> COUNTERS = new ConcurrentHashMap<>();
+
+    private TableChangeCounter() {
+    }
+
+    public static long current(Class<?> entityType) {
+        return counter(entityType).get();
+    }
+
+    /**
+     * Records a change to the entity type, once the surrounding transaction commits if there is one.
+     */
+    public static void changed(Class<?> entityType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter(entityType).incrementAndGet();
+            return;
+        }
+
+        //one synchronization per transaction, a bulk insert would otherwise register one per row
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PendingChanges.class);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(PendingChanges.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entityTypes.add(entityType);
+    }
+
+    private static AtomicLong counter(Class<?> entityType) {
+        return COUNTERS.computeIfAbsent(entityType, type -> new AtomicLong());
+    }
+
+    private static final class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final Set<Class<?>> entityTypes = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            entityTypes.forEach(entityType -> counter(entityType).incrementAndGet());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(PendingChanges.class);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package guru.springfamework.domain;
+
+import org.hibernate.Hibernate;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Feeds {@link TableChangeCounter} from JPA lifecycle events.
+ */
+public class TableChangeListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        TableChangeCounter.changed(Hibernate.getClass(entity));
+    }
+}
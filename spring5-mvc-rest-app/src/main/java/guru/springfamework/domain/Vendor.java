@@ -1,22 +1,32 @@
 package guru.springfamework.domain;
 
+import guru.springfamework.domain.id.IdAllocatorGenerator;
 import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Version;
 
 /**
  * Created by jt on 9/27/17.
  */
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Data
 public class Vendor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "vendor_id")
+    @GenericGenerator(name = "vendor_id", strategy = IdAllocatorGenerator.STRATEGY,
+            parameters = @Parameter(name = IdAllocatorGenerator.SEQUENCE_PARAM, value = "vendor_seq"))
     private Long id;
 
+    @Version
+    private Long version;
+
     private String name;
 }
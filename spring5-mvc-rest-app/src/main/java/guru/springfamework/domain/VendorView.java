@@ -0,0 +1,14 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * Read-only projection of {@link Vendor}. Queries returning it select only these columns
+ * straight into the constructor, no managed entity ends up in the persistence context.
+ */
+@Value
+public class VendorView {
+
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,19 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * {@link CustomerView} with the version column, for reads that also answer with an entity tag.
+ */
+@Value
+public class VersionedCustomerView {
+
+    private Long id;
+    private String firstname;
+    private String lastname;
+    private Long version;
+
+    public CustomerView toView() {
+        return new CustomerView(id, firstname, lastname);
+    }
+}
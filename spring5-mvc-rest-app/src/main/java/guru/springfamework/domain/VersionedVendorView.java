@@ -0,0 +1,18 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * {@link VendorView} with the version column, for reads that also answer with an entity tag.
+ */
+@Value
+public class VersionedVendorView {
+
+    private Long id;
+    private String name;
+    private Long version;
+
+    public VendorView toView() {
+        return new VendorView(id, name);
+    }
+}
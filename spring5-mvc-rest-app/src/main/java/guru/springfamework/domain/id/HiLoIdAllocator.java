@@ -0,0 +1,60 @@
+package guru.springfamework.domain.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pooled hi/lo allocator. Each block of {@code blockSize} ids is reserved with one sequence call
+ * (the sequence increments by the block size), then ids are handed out from memory with a CAS.
+ * New blocks are fetched under a lock, one at a time: threads that find the block used up wait
+ * for the one being fetched instead of fetching blocks of their own and throwing them away.
+ */
+public class HiLoIdAllocator implements IdAllocator {
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, int size) {
+            this.next = new AtomicLong(start);
+            this.end = start + size;
+        }
+    }
+
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>();
+
+    public HiLoIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public long nextId(BlockSource blockSource) {
+        for (;;) {
+            Block block = current.get();
+
+            if (block != null) {
+                long id = block.next.getAndIncrement();
+                if (id < block.end) {
+                    return id;
+                }
+            }
+
+            nextBlock(block, blockSource);
+        }
+    }
+
+    private synchronized void nextBlock(Block usedUp, BlockSource blockSource) {
+        //another thread may have installed a new block while this one waited for the lock
+        if (current.get() == usedUp) {
+            current.set(new Block(blockSource.nextBlockStart(), blockSize));
+        }
+    }
+}
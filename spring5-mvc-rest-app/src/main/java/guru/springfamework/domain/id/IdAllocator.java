@@ -0,0 +1,19 @@
+package guru.springfamework.domain.id;
+
+/**
+ * Hands out entity ids in memory, without a database round trip per insert.
+ */
+public interface IdAllocator {
+
+    /**
+     * Source of id blocks reserved in the database, consulted by block-based allocators
+     * when their current block runs out.
+     */
+    @FunctionalInterface
+    interface BlockSource {
+
+        long nextBlockStart();
+    }
+
+    long nextId(BlockSource blockSource);
+}
@@ -0,0 +1,128 @@
+package guru.springfamework.domain.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.ExportableProducer;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Hibernate glue for the {@link IdAllocator}s. The strategy is picked globally through JPA properties:
+ * <ul>
+ *     <li>{@code spring.jpa.properties.app.id.strategy} - {@code hilo} (default) or {@code snowflake}</li>
+ *     <li>{@code spring.jpa.properties.app.id.block-size} - ids reserved per sequence call for hilo, default 50</li>
+ *     <li>{@code spring.jpa.properties.app.id.node-id} - unique 0-1023 node id for snowflake, required with it:
+ *     two instances on the same node id issue the same ids</li>
+ * </ul>
+ * Each entity names its own sequence with the {@value #SEQUENCE_PARAM} generator parameter.
+ */
+public class IdAllocatorGenerator implements IdentifierGenerator, Configurable, ExportableProducer {
+
+    public static final String STRATEGY = "guru.springfamework.domain.id.IdAllocatorGenerator";
+    public static final String SEQUENCE_PARAM = "sequence_name";
+
+    public static final String STRATEGY_SETTING = "app.id.strategy";
+    public static final String BLOCK_SIZE_SETTING = "app.id.block-size";
+    public static final String NODE_ID_SETTING = "app.id.node-id";
+
+    private IdAllocator allocator;
+    private String sequenceName;
+    private String nextValueSql;
+    private int blockSize;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String strategy = setting(settings, STRATEGY_SETTING, "hilo");
+
+        sequenceName = params.getProperty(SEQUENCE_PARAM);
+        if (sequenceName == null) {
+            throw new MappingException("Missing generator parameter " + SEQUENCE_PARAM);
+        }
+
+        switch (strategy) {
+            case "hilo":
+                blockSize = Integer.parseInt(setting(settings, BLOCK_SIZE_SETTING, "50"));
+                allocator = new HiLoIdAllocator(blockSize);
+                Dialect dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+                nextValueSql = dialect.getSequenceNextValString(sequenceName);
+                break;
+            case "snowflake":
+                allocator = SnowflakeIdAllocator.forNode(nodeId(settings));
+                break;
+            default:
+                throw new MappingException("Unknown id strategy " + strategy + ", expected hilo or snowflake");
+        }
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (nextValueSql == null) {
+            return;
+        }
+
+        //pooled sequence: every value is the start of a block of blockSize ids
+        Namespace namespace = database.getDefaultNamespace();
+        Identifier name = Identifier.toIdentifier(sequenceName);
+        if (namespace.locateSequence(name) == null) {
+            namespace.createSequence(name, 1, blockSize);
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return allocator.nextId(() -> nextBlockStart(session));
+    }
+
+    private long nextBlockStart(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(nextValueSql);
+
+        try {
+            ResultSet resultSet = jdbcCoordinator.getResultSetReturn().extract(statement);
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not reserve id block from " + sequenceName, nextValueSql);
+        } finally {
+            jdbcCoordinator.getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+
+    private static long nodeId(Map settings) {
+        String nodeId = setting(settings, NODE_ID_SETTING, null);
+        if (nodeId == null || nodeId.trim().isEmpty()) {
+            throw new MappingException("The snowflake id strategy needs " + NODE_ID_SETTING
+                    + ", a node id unique to this instance");
+        }
+        try {
+            return Long.parseLong(nodeId.trim());
+        } catch (NumberFormatException e) {
+            throw new MappingException("Not a valid " + NODE_ID_SETTING + ": " + nodeId, e);
+        }
+    }
+
+    private static String setting(Map settings, String key, String defaultValue) {
+        Object value = settings.get(key);
+        return value == null ? defaultValue : value.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package guru.springfamework.domain.id;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64 bit ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and a 12 bit per-millisecond sequence. Needs no database at all, only a unique node id per instance.
+ * When a millisecond's sequence is used up the allocator borrows the next millisecond instead of
+ * spinning, and it never goes backwards if the wall clock does.
+ */
+public class SnowflakeIdAllocator implements IdAllocator {
+
+    public static final long EPOCH = 1514764800000L; // 2018-01-01T00:00:00Z
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final ConcurrentMap<Long, SnowflakeIdAllocator> NODES = new ConcurrentHashMap<>();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // last issued timestamp and sequence, packed as (timestamp << SEQUENCE_BITS) | sequence
+    private final AtomicLong state = new AtomicLong();
+
+    SnowflakeIdAllocator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Two allocators with the same node id in one JVM could issue the same id, so there is one per node.
+     */
+    public static SnowflakeIdAllocator forNode(long nodeId) {
+        return NODES.computeIfAbsent(nodeId, id -> new SnowflakeIdAllocator(id, System::currentTimeMillis));
+    }
+
+    public long nextId() {
+        for (;;) {
+            long previous = state.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH;
+
+            long next;
+            if (now > previousTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                next = (previousTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    @Override
+    public long nextId(BlockSource blockSource) {
+        return nextId();
+    }
+}
@@ -0,0 +1,42 @@
+package guru.springfamework.repositories;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Persists entities so Hibernate sends them as JDBC batches of {@code batchSize} rows. Relies on
+ * ids being allocated in memory; an IDENTITY id would force Hibernate to insert row by row.
+ * <p>
+ * Each batch is detached once flushed, so memory stays flat however many entities there are.
+ * Only the inserted entities are detached, whatever else the caller's transaction has loaded
+ * stays managed; its pending changes are flushed with the first batch.
+ */
+final class BatchInserts {
+
+    private BatchInserts() {
+    }
+
+    static <T> List<T> persistAll(EntityManager entityManager, List<T> entities, int batchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        int batchStart = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+
+            if ((i + 1) % batchSize == 0) {
+                flushAndDetach(entityManager, entities.subList(batchStart, i + 1));
+                batchStart = i + 1;
+            }
+        }
+        flushAndDetach(entityManager, entities.subList(batchStart, entities.size()));
+
+        return entities;
+    }
+
+    private static void flushAndDetach(EntityManager entityManager, List<?> batch) {
+        entityManager.flush();
+        batch.forEach(entityManager::detach);
+    }
+}
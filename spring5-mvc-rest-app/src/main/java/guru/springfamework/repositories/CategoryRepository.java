@@ -1,13 +1,18 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * Created by jt on 9/24/17.
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    Category findByName(String name);
+    List<CategoryView> findAllProjectedBy();
+
+    CategoryView findByName(String name);
 
 }
@@ -1,10 +1,29 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
+import guru.springfamework.domain.VersionedCustomerView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Created by jt on 9/27/17.
  */
-public interface CustomerRepository extends JpaRepository<Customer, Long>{
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    List<CustomerView> findAllProjectedBy();
+
+    Optional<CustomerView> findViewById(Long id);
+
+    Optional<VersionedCustomerView> findVersionedViewById(Long id);
+
+    List<CustomerView> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,35 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+
+/**
+ * Bulk and single-statement operations that bypass per-entity saves and loads.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Inserts all customers in JDBC batches within the current transaction and sets their ids.
+     */
+    List<Customer> insertAllInBatches(List<Customer> customers);
+
+    /**
+     * Replaces every column of the customer with one UPDATE, without loading it.
+     *
+     * @param expectedVersion only update when the customer is still at this version, null for any version
+     * @return whether the customer was updated
+     */
+    boolean updateCustomer(Long id, Long expectedVersion, String firstname, String lastname);
+
+    /**
+     * Like {@link #updateCustomer} but leaves columns whose new value is null untouched.
+     */
+    boolean patchCustomer(Long id, Long expectedVersion, String firstname, String lastname);
+
+    /**
+     * Hands every customer row, with the columns id, firstname, lastname, to the handler in id order.
+     */
+    void forEachListRow(RowCallbackHandler handler);
+}
@@ -0,0 +1,57 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String LIST_ROWS = "select id, firstname, lastname from customer order by id";
+
+    private final int batchSize;
+
+    public CustomerRepositoryImpl(@Value("${app.bulk.batch-size:500}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Customer> insertAllInBatches(List<Customer> customers) {
+        return BatchInserts.persistAll(entityManager, customers, batchSize);
+    }
+
+    @Override
+    public boolean updateCustomer(Long id, Long expectedVersion, String firstname, String lastname) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("firstname", firstname);
+        attributes.put("lastname", lastname);
+
+        return VersionedUpdates.update(entityManager, Customer.class, id, expectedVersion, attributes);
+    }
+
+    @Override
+    public boolean patchCustomer(Long id, Long expectedVersion, String firstname, String lastname) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (firstname != null) {
+            attributes.put("firstname", firstname);
+        }
+        if (lastname != null) {
+            attributes.put("lastname", lastname);
+        }
+
+        return VersionedUpdates.update(entityManager, Customer.class, id, expectedVersion, attributes);
+    }
+
+    @Override
+    public void forEachListRow(RowCallbackHandler handler) {
+        RowScans.forEachRow(entityManager, LIST_ROWS, handler);
+    }
+}
@@ -0,0 +1,184 @@
+package guru.springfamework.repositories;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Execution counts and latency per {@link SqlFingerprint}, fed by {@link QueryLoggingDataSource}.
+ * <p>
+ * The first time a fingerprint runs slower than the threshold its {@code EXPLAIN} plan is captured
+ * on a background thread, with the parameters of that slow execution, against the datasource it
+ * ran on. Captures that don't fit the small queue are dropped and retried on the next slow run.
+ * Recording itself only touches adders and a lock-free map.
+ */
+public class QueryLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryLog.class);
+
+    static final String OTHER = "(other)";
+
+    private final long slowThresholdNanos;
+    private final int maxFingerprints;
+    private final ConcurrentMap<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+                Thread thread = new Thread(runnable, "query-log-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public QueryLog(long slowThresholdMs, int maxFingerprints) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * @param parameters values bound to the statement, index 0 is parameter 1, copied only if explained
+     * @param dataSource where the plan is explained, must not log back into this query log
+     */
+    void record(String sql, Object[] parameters, long nanos, DataSource dataSource) {
+        Entry entry = entry(fingerprint(sql));
+        entry.count.increment();
+        entry.totalNanos.add(nanos);
+        entry.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos >= slowThresholdNanos) {
+            entry.slowCount.increment();
+            if (entry.plan == null && explainable(sql) && entry.explaining.compareAndSet(false, true)) {
+                Object[] bound = parameters.clone();
+                try {
+                    explainExecutor.execute(() -> explain(entry, sql, bound, dataSource));
+                } catch (RejectedExecutionException e) {
+                    entry.explaining.set(false);
+                }
+            }
+        }
+    }
+
+    private String fingerprint(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            if (fingerprints.size() < maxFingerprints * 4) {
+                fingerprints.putIfAbsent(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    private Entry entry(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            String key = entries.size() < maxFingerprints ? fingerprint : OTHER;
+            entry = entries.computeIfAbsent(key, Entry::new);
+        }
+        return entry;
+    }
+
+    private static boolean explainable(String sql) {
+        String start = sql.trim().toLowerCase(Locale.ROOT);
+        return start.startsWith("select") || start.startsWith("update") || start.startsWith("delete");
+    }
+
+    private void explain(Entry entry, String sql, Object[] parameters, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            entry.plan = plan.toString();
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Could not explain {}", sql, e);
+            entry.plan = "EXPLAIN failed: " + e.getMessage();
+        } finally {
+            entry.explaining.set(false);
+        }
+    }
+
+    /**
+     * The fingerprints with the highest total time, worst first.
+     */
+    public List<QueryStats> top(int n) {
+        return entries.values().stream()
+                .map(Entry::snapshot)
+                .sorted(Comparator.comparingDouble(QueryStats::getTotalMs).reversed())
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    @Override
+    public void close() {
+        explainExecutor.shutdownNow();
+    }
+
+    private static class Entry {
+
+        final String fingerprint;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicBoolean explaining = new AtomicBoolean();
+        volatile String plan;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        QueryStats snapshot() {
+            long count = this.count.sum();
+            double totalMs = totalNanos.sum() / 1e6;
+            return new QueryStats(fingerprint, count, slowCount.sum(), totalMs,
+                    count == 0 ? 0 : totalMs / count, maxNanos.get() / 1e6, plan);
+        }
+    }
+
+    /**
+     * Point-in-time figures of one fingerprint, as the query log endpoint reports them.
+     */
+    @Value
+    public static class QueryStats {
+
+        private String fingerprint;
+        private long count;
+        private long slowCount;
+        private double totalMs;
+        private double meanMs;
+        private double maxMs;
+        private String plan;
+    }
+}
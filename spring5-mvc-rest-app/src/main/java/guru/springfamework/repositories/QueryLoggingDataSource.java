@@ -0,0 +1,148 @@
+package guru.springfamework.repositories;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Times every statement executed through the wrapped datasource into a {@link QueryLog}.
+ * Connections and statements are JDK proxies, prepared statements also keep their bound parameters
+ * so a slow execution can be explained as it ran. How long each connection was held, from
+ * leaving the pool to being closed, goes to {@link SqlStatistics}. Extends {@link DelegatingDataSource} so the pool
+ * underneath can still be unwrapped, for its metrics among others.
+ */
+public class QueryLoggingDataSource extends DelegatingDataSource {
+
+    private final QueryLog queryLog;
+
+    public QueryLoggingDataSource(DataSource targetDataSource, QueryLog queryLog) {
+        super(targetDataSource);
+        this.queryLog = queryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryLoggingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private class ConnectionHandler extends Handler {
+
+        private final long acquiredNanos = System.nanoTime();
+        private boolean closed;
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = QueryLoggingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        SqlStatistics.connectionHeld(System.nanoTime() - acquiredNanos);
+                    }
+                    return result;
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler(result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private class StatementHandler extends Handler {
+
+        private final String preparedSql;
+        private Object[] parameters = new Object[0];
+
+        StatementHandler(Object target, String preparedSql) {
+            super(target);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                long start = System.nanoTime();
+                try {
+                    return QueryLoggingDataSource.invoke(target, method, args);
+                } finally {
+                    if (sql != null) {
+                        queryLog.record(sql, parameters, System.nanoTime() - start, getTargetDataSource());
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters = new Object[0];
+            }
+            return QueryLoggingDataSource.invoke(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, index);
+            }
+            parameters[index - 1] = value;
+        }
+    }
+}
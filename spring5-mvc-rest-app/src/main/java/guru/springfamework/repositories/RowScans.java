@@ -0,0 +1,41 @@
+package guru.springfamework.repositories;
+
+import org.hibernate.Session;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Runs a query on the JDBC connection of the current persistence context and hands the rows to a
+ * {@link RowCallbackHandler} as they are read, without creating entities or projections.
+ */
+final class RowScans {
+
+    //as for the JPA streams, rows are fetched in blocks instead of all at once
+    private static final int FETCH_SIZE = 500;
+
+    private RowScans() {
+    }
+
+    static void forEachRow(EntityManager entityManager, String sql, RowCallbackHandler handler) {
+        Session session = entityManager.unwrap(Session.class);
+
+        //a native query would flush first, the rows should include pending changes just the same
+        if (session.isDirty()) {
+            session.flush();
+        }
+
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        handler.processRow(rs);
+                    }
+                }
+            }
+        });
+    }
+}
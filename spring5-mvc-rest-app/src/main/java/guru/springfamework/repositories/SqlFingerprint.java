@@ -0,0 +1,97 @@
+package guru.springfamework.repositories;
+
+/**
+ * Reduces a statement to its shape so executions that only differ in values are counted
+ * together: string and number literals become {@code ?}, runs of placeholders such as IN lists
+ * collapse to one, whitespace collapses and keywords are lower cased. Quoted identifiers are kept
+ * as they are.
+ */
+public final class SqlFingerprint {
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+            } else if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                placeholder(out);
+            } else if (c == '"') {
+                int end = skipQuoted(sql, i, '"');
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                placeholder(out);
+            } else if (c == '?') {
+                i++;
+                placeholder(out);
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    //index just past the closing quote, doubled quotes are escapes
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+
+    //"?, ?" and "?,?" fold into the first placeholder
+    private static void placeholder(StringBuilder out) {
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end > 1 && out.charAt(end - 1) == ',') {
+            int before = end - 1;
+            while (before > 0 && out.charAt(before - 1) == ' ') {
+                before--;
+            }
+            if (before > 0 && out.charAt(before - 1) == '?') {
+                out.setLength(before);
+                return;
+            }
+        }
+        out.append('?');
+    }
+}
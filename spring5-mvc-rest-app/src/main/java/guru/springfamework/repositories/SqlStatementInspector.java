@@ -0,0 +1,16 @@
+package guru.springfamework.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares into the current {@link SqlStatistics}, the sql is
+ * passed on unchanged. Registered through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatistics.statementPrepared(sql);
+        return sql;
+    }
+}
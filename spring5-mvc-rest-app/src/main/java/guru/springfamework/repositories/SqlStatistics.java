@@ -0,0 +1,100 @@
+package guru.springfamework.repositories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL statements and JDBC time spent by the current unit of work, usually one HTTP request, as
+ * seen by {@link SqlStatementInspector} and {@link SqlTimingSessionListener}, and how long it held
+ * pooled connections, as seen by {@link QueryLoggingDataSource}.
+ * <p>
+ * Only statements issued on the thread between {@link #begin} and {@link #end} are counted, work
+ * done elsewhere (startup, streamed bodies written from the async pool) is not.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics outer;
+    private final List<String> sql;
+    private int statements;
+    private long jdbcNanos;
+    private long connectionNanos;
+
+    private SqlStatistics(SqlStatistics outer, boolean recordSql) {
+        this.outer = outer;
+        this.sql = recordSql ? new ArrayList<>() : null;
+    }
+
+    public static SqlStatistics begin() {
+        return begin(false);
+    }
+
+    /**
+     * @param recordSql keep the statement text as well, for test failure messages
+     */
+    public static SqlStatistics begin(boolean recordSql) {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get(), recordSql);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops counting into statistics, counting goes back to whatever scope was open before.
+     */
+    public static void end(SqlStatistics statistics) {
+        if (statistics.outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics.outer);
+        }
+    }
+
+    static void statementPrepared(String statementSql) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            if (statistics.sql != null) {
+                statistics.sql.add(statementSql);
+            }
+        }
+    }
+
+    static void jdbcTime(long nanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    static void connectionHeld(long nanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.connectionNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Time from taking connections out of the pool to closing them, summed over connections
+     * closed within the scope.
+     */
+    public long getConnectionNanos() {
+        return connectionNanos;
+    }
+
+    /**
+     * Statement text in issue order, empty unless recording was asked for.
+     */
+    public List<String> getSql() {
+        return sql == null ? Collections.emptyList() : Collections.unmodifiableList(sql);
+    }
+}
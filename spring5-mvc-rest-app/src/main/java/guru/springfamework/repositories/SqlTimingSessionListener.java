@@ -0,0 +1,39 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.config.ServerTiming;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time spent executing statements and batches to the current {@link SqlStatistics} and
+ * {@link ServerTiming}.
+ * Hibernate creates one per session, registered through {@code hibernate.session.events.auto}.
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed(System.nanoTime() - executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed(System.nanoTime() - executionStart);
+    }
+
+    private static void executed(long nanos) {
+        SqlStatistics.jdbcTime(nanos);
+        ServerTiming.record(ServerTiming.Layer.DB, nanos);
+    }
+}
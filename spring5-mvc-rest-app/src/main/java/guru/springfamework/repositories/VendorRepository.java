@@ -1,10 +1,29 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
+import guru.springfamework.domain.VersionedVendorView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Created by jt on 9/27/17.
  */
-public interface VendorRepository extends JpaRepository<Vendor, Long>{
+public interface VendorRepository extends JpaRepository<Vendor, Long>, VendorRepositoryCustom {
+
+    List<VendorView> findAllProjectedBy();
+
+    Optional<VendorView> findViewById(Long id);
+
+    Optional<VersionedVendorView> findVersionedViewById(Long id);
+
+    List<VendorView> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select v.version from Vendor v where v.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,35 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Vendor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+
+/**
+ * Bulk and single-statement operations that bypass per-entity saves and loads.
+ */
+public interface VendorRepositoryCustom {
+
+    /**
+     * Inserts all vendors in JDBC batches within the current transaction and sets their ids.
+     */
+    List<Vendor> insertAllInBatches(List<Vendor> vendors);
+
+    /**
+     * Replaces every column of the vendor with one UPDATE, without loading it.
+     *
+     * @param expectedVersion only update when the vendor is still at this version, null for any version
+     * @return whether the vendor was updated
+     */
+    boolean updateVendor(Long id, Long expectedVersion, String name);
+
+    /**
+     * Like {@link #updateVendor} but leaves columns whose new value is null untouched.
+     */
+    boolean patchVendor(Long id, Long expectedVersion, String name);
+
+    /**
+     * Hands every vendor row, with the columns id, name, to the handler in id order.
+     */
+    void forEachListRow(RowCallbackHandler handler);
+}
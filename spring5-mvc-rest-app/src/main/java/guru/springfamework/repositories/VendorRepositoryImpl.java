@@ -0,0 +1,53 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class VendorRepositoryImpl implements VendorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String LIST_ROWS = "select id, name from vendor order by id";
+
+    private final int batchSize;
+
+    public VendorRepositoryImpl(@Value("${app.bulk.batch-size:500}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Vendor> insertAllInBatches(List<Vendor> vendors) {
+        return BatchInserts.persistAll(entityManager, vendors, batchSize);
+    }
+
+    @Override
+    public boolean updateVendor(Long id, Long expectedVersion, String name) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", name);
+
+        return VersionedUpdates.update(entityManager, Vendor.class, id, expectedVersion, attributes);
+    }
+
+    @Override
+    public boolean patchVendor(Long id, Long expectedVersion, String name) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (name != null) {
+            attributes.put("name", name);
+        }
+
+        return VersionedUpdates.update(entityManager, Vendor.class, id, expectedVersion, attributes);
+    }
+
+    @Override
+    public void forEachListRow(RowCallbackHandler handler) {
+        RowScans.forEachRow(entityManager, LIST_ROWS, handler);
+    }
+}
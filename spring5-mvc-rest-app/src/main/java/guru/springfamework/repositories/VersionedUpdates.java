@@ -0,0 +1,82 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.TableChangeCounter;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Map;
+
+/**
+ * Updates an entity with a single {@code UPDATE ... WHERE id = ? [AND version = ?]} that sets only
+ * the given attributes and bumps the version, without loading the entity first.
+ * Bulk JPQL skips entity listeners, so the table change counter is bumped here. No attributes
+ * means no change: the row is left at its version and only checked for.
+ */
+final class VersionedUpdates {
+
+    private VersionedUpdates() {
+    }
+
+    /**
+     * @param expectedVersion only update when the row is still at this version, null to update any version
+     * @return whether a row was updated, or for no attributes whether it exists at that version
+     */
+    static boolean update(EntityManager entityManager, Class<?> entityType, Long id, Long expectedVersion,
+                          Map<String, Object> attributes) {
+        if (attributes.isEmpty()) {
+            return exists(entityManager, entityType, id, expectedVersion);
+        }
+
+        StringBuilder jpql = new StringBuilder("update ")
+                .append(entityType.getSimpleName())
+                .append(" e set e.version = e.version + 1");
+        attributes.keySet().forEach(name -> jpql.append(", e.").append(name).append(" = :").append(name));
+        jpql.append(" where e.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" and e.version = :version");
+        }
+
+        //pending changes go out first, and the updated entity doesn't stay managed with its old state
+        entityManager.flush();
+
+        Query update = entityManager.createQuery(jpql.toString()).setParameter("id", id);
+        attributes.forEach(update::setParameter);
+        if (expectedVersion != null) {
+            update.setParameter("version", expectedVersion);
+        }
+        boolean updated = update.executeUpdate() == 1;
+
+        if (updated) {
+            detach(entityManager, entityType, id);
+            TableChangeCounter.changed(entityType);
+        }
+        return updated;
+    }
+
+    private static boolean exists(EntityManager entityManager, Class<?> entityType, Long id, Long expectedVersion) {
+        StringBuilder jpql = new StringBuilder("select count(e) from ")
+                .append(entityType.getSimpleName())
+                .append(" e where e.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" and e.version = :version");
+        }
+
+        Query count = entityManager.createQuery(jpql.toString()).setParameter("id", id);
+        if (expectedVersion != null) {
+            count.setParameter("version", expectedVersion);
+        }
+        return ((Number) count.getSingleResult()).longValue() > 0;
+    }
+
+    //the rest of the persistence context belongs to the caller and is left alone
+    private static void detach(EntityManager entityManager, Class<?> entityType, Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(entityType);
+        Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            entityManager.detach(managed);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package guru.springfamework.services;
 
 import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import java.util.List;
 
@@ -11,13 +13,53 @@ public interface CustomerService {
 
     List<CustomerDTO> getAllCustomers();
 
+    CustomerListDTO getCustomerPage(String after, Integer limit);
+
+    /**
+     * Hands the row of every customer in id order to the handler, without mapping it at all.
+     *
+     * @see guru.springfamework.repositories.CustomerRepositoryCustom#forEachListRow
+     */
+    void streamAllCustomerRows(RowCallbackHandler handler);
+
     CustomerDTO getCustomerById(Long id);
 
+    /**
+     * The customer and its current version, read in one query.
+     */
+    Versioned<CustomerDTO> getVersionedCustomerById(Long id);
+
+    /**
+     * Current version of the customer, looked up without loading it.
+     */
+    Long getCustomerVersion(Long id);
+
+    /**
+     * Number of committed customer changes since startup.
+     */
+    long getCustomerListVersion();
+
     CustomerDTO createNewCustomer(CustomerDTO customerDTO);
 
+    List<CustomerDTO> createNewCustomers(List<CustomerDTO> customerDTOs);
+
     CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO);
 
+    /**
+     * Fails with {@link PreconditionFailedException} when expectedVersion is set and the customer is not
+     * at that version, or with {@link Versioned#ANY} does not exist. The version is the one after the
+     * update, null when it wasn't checked and is unknown without reading it back.
+     */
+    Versioned<CustomerDTO> saveCustomerByDTO(Long id, CustomerDTO customerDTO, Long expectedVersion);
+
     CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO);
 
+    /**
+     * Fails with {@link PreconditionFailedException} when expectedVersion is set and the customer is not
+     * at that version, or with {@link Versioned#ANY} does not exist. The version is the one after the
+     * patch, null as for {@link #saveCustomerByDTO(Long, CustomerDTO, Long)}.
+     */
+    Versioned<CustomerDTO> patchCustomer(Long id, CustomerDTO customerDTO, Long expectedVersion);
+
     void deleteCustomerById(Long id);
 }
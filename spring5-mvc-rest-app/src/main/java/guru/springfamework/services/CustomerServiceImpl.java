@@ -3,9 +3,15 @@ package guru.springfamework.services;
 import guru.springfamework.api.v1.mapper.CustomerMapper;
 import guru.springfamework.controllers.v1.CustomerController;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
+import guru.springfamework.domain.TableChangeCounter;
 import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
 import guru.springfamework.repositories.CustomerRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,12 +31,13 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
         return customerRepository
-                .findAll()
+                .findAllProjectedBy()
                 .stream()
                 .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
+                    CustomerDTO customerDTO = customerMapper.customerViewToCustomerDTO(customer);
                     customerDTO.setCustomerUrl(getCustomerURL(customer.getId()));
                     return customerDTO;
                 })
@@ -38,10 +45,45 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CustomerListDTO getCustomerPage(String after, Integer limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        Long lastSeenId = after == null ? 0L : PageCursor.decode(after);
+
+        //fetch one extra row to know whether there is a next page, no count query needed
+        List<CustomerView> customers = customerRepository
+                .findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, pageSize + 1));
+
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+
+        customers.stream()
+                .limit(pageSize)
+                .map(customer -> {
+                    CustomerDTO customerDTO = customerMapper.customerViewToCustomerDTO(customer);
+                    customerDTO.setCustomerUrl(getCustomerURL(customer.getId()));
+                    return customerDTO;
+                })
+                .forEach(customerListDTO.getCustomers()::add);
+
+        if (customers.size() > pageSize) {
+            customerListDTO.setNextCursor(PageCursor.encode(customers.get(pageSize - 1).getId()));
+        }
+
+        return customerListDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllCustomerRows(RowCallbackHandler handler) {
+        customerRepository.forEachListRow(handler);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomerById(Long id) {
 
-        return customerRepository.findById(id)
-                .map(customerMapper::customerToCustomerDTO)
+        return customerRepository.findViewById(id)
+                .map(customerMapper::customerViewToCustomerDTO)
                 .map(customerDTO -> {
                     //set API URL
                     customerDTO.setCustomerUrl(getCustomerURL(id));
@@ -50,51 +92,131 @@ public class CustomerServiceImpl implements CustomerService {
                 .orElseThrow(ResourceNotFoundException::new);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Versioned<CustomerDTO> getVersionedCustomerById(Long id) {
+        return customerRepository.findVersionedViewById(id)
+                .map(customer -> new Versioned<>(toDTO(customer.toView()), customer.getVersion()))
+                .orElseThrow(ResourceNotFoundException::new);
+    }
+
+    @Override
+    public Long getCustomerVersion(Long id) {
+        return customerRepository.findVersionById(id).orElseThrow(ResourceNotFoundException::new);
+    }
+
+    @Override
+    public long getCustomerListVersion() {
+        return TableChangeCounter.current(Customer.class);
+    }
+
     @Override
     public CustomerDTO createNewCustomer(CustomerDTO customerDTO) {
 
         return saveAndReturnDTO(customerMapper.customerDtoToCustomer(customerDTO));
     }
 
+    @Override
+    @Transactional
+    public List<CustomerDTO> createNewCustomers(List<CustomerDTO> customerDTOs) {
+        List<Customer> customers = customerDTOs.stream()
+                .map(customerMapper::customerDtoToCustomer)
+                .collect(Collectors.toList());
+
+        return customerRepository.insertAllInBatches(customers)
+                .stream()
+                .map(customer -> {
+                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
+                    customerDTO.setCustomerUrl(getCustomerURL(customer.getId()));
+                    return customerDTO;
+                })
+                .collect(Collectors.toList());
+    }
+
     private CustomerDTO saveAndReturnDTO(Customer customer) {
+        return saveAndReturnVersioned(customer).getValue();
+    }
+
+    private Versioned<CustomerDTO> saveAndReturnVersioned(Customer customer) {
         Customer savedCustomer = customerRepository.save(customer);
 
         CustomerDTO returnDto = customerMapper.customerToCustomerDTO(savedCustomer);
 
         returnDto.setCustomerUrl(getCustomerURL(savedCustomer.getId()));
 
-        return returnDto;
+        return new Versioned<>(returnDto, savedCustomer.getVersion());
     }
 
     @Override
+    @Transactional
     public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO) {
-        Customer customer = customerMapper.customerDtoToCustomer(customerDTO);
-        customer.setId(id);
+        return saveCustomerByDTO(id, customerDTO, null).getValue();
+    }
 
-        return saveAndReturnDTO(customer);
+    @Override
+    @Transactional
+    public Versioned<CustomerDTO> saveCustomerByDTO(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        Long checkedVersion = Versioned.checked(expectedVersion);
+        if (customerRepository.updateCustomer(id, checkedVersion, customerDTO.getFirstname(), customerDTO.getLastname())) {
+            //every column was just written, so the new state is known without reading it back
+            return new Versioned<>(toDTO(new CustomerView(id, customerDTO.getFirstname(), customerDTO.getLastname())),
+                    Versioned.after(checkedVersion));
+        }
+
+        if (expectedVersion != null) {
+            throw notUpdated(id, expectedVersion);
+        }
+
+        //PUT to an unknown id creates the customer, under a newly allocated id
+        return saveAndReturnVersioned(customerMapper.customerDtoToCustomer(customerDTO));
     }
 
     @Override
+    @Transactional
     public CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id).map(customer -> {
-            if (customerDTO.getFirstname() != null) {
-                customer.setFirstname(customerDTO.getFirstname());
-            }
+        return patchCustomer(id, customerDTO, null).getValue();
+    }
 
-            if (customerDTO.getLastname() != null) {
-                customer.setLastname(customerDTO.getLastname());
-            }
+    @Override
+    @Transactional
+    public Versioned<CustomerDTO> patchCustomer(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        String firstname = customerDTO.getFirstname();
+        String lastname = customerDTO.getLastname();
+        Long checkedVersion = Versioned.checked(expectedVersion);
+
+        if (!customerRepository.patchCustomer(id, checkedVersion, firstname, lastname)) {
+            throw notUpdated(id, expectedVersion);
+        }
+
+        if (firstname != null && lastname != null) {
+            return new Versioned<>(toDTO(new CustomerView(id, firstname, lastname)), Versioned.after(checkedVersion));
+        }
+
+        //columns left out of the patch are read back with the version, H2 has no UPDATE ... RETURNING
+        return customerRepository.findVersionedViewById(id)
+                .map(customer -> new Versioned<>(toDTO(customer.toView()), customer.getVersion()))
+                .orElseThrow(ResourceNotFoundException::new);
+    }
 
-            CustomerDTO  returnDto = customerMapper.customerToCustomerDTO(customerRepository.save(customer));
+    private CustomerDTO toDTO(CustomerView customer) {
+        CustomerDTO returnDto = customerMapper.customerViewToCustomerDTO(customer);
 
-            returnDto.setCustomerUrl(getCustomerURL(id));
+        returnDto.setCustomerUrl(getCustomerURL(customer.getId()));
 
-            return returnDto;
+        return returnDto;
+    }
 
-        }).orElseThrow(ResourceNotFoundException::new);
+    //the update failed, so with If-Match the precondition did, whether or not the customer exists
+    private RuntimeException notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return new ResourceNotFoundException();
+        }
+        return new PreconditionFailedException(Versioned.ANY.equals(expectedVersion)
+                ? "Customer " + id + " does not exist"
+                : "Customer " + id + " does not exist at version " + expectedVersion);
     }
 
-    private String getCustomerURL(Long id) {
+    String getCustomerURL(Long id) {
         return CustomerController.BASE_URL + "/" + id;
     }
 
@@ -1,6 +1,8 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import java.util.List;
 
@@ -11,13 +13,53 @@ public interface VendorService {
 
     List<VendorDTO> getAllVendors();
 
+    VendorListDTO getVendorPage(String after, Integer limit);
+
+    /**
+     * Hands the row of every vendor in id order to the handler, without mapping it at all.
+     *
+     * @see guru.springfamework.repositories.VendorRepositoryCustom#forEachListRow
+     */
+    void streamAllVendorRows(RowCallbackHandler handler);
+
     VendorDTO getVendorById(Long id);
 
+    /**
+     * The vendor and its current version, read in one query and cached.
+     */
+    Versioned<VendorDTO> getVersionedVendorById(Long id);
+
+    /**
+     * Current version of the vendor, looked up without loading it.
+     */
+    Long getVendorVersion(Long id);
+
+    /**
+     * Number of committed vendor changes since startup.
+     */
+    long getVendorListVersion();
+
     VendorDTO createNewVendor(VendorDTO vendorDTO);
 
+    List<VendorDTO> createNewVendors(List<VendorDTO> vendorDTOs);
+
     VendorDTO saveVendorByDTO(Long id, VendorDTO vendorDTO);
 
+    /**
+     * Fails with {@link PreconditionFailedException} when expectedVersion is set and the vendor is not
+     * at that version, or with {@link Versioned#ANY} does not exist. The version is the one after the
+     * update, null when it wasn't checked and is unknown without reading it back.
+     */
+    Versioned<VendorDTO> saveVendorByDTO(Long id, VendorDTO vendorDTO, Long expectedVersion);
+
     VendorDTO patchVendor(Long id, VendorDTO vendorDTO);
 
+    /**
+     * Fails with {@link PreconditionFailedException} when expectedVersion is set and the vendor is not
+     * at that version, or with {@link Versioned#ANY} does not exist. The version is the one after the
+     * patch, null as for {@link #saveVendorByDTO(Long, VendorDTO, Long)}.
+     */
+    Versioned<VendorDTO> patchVendor(Long id, VendorDTO vendorDTO, Long expectedVersion);
+
     void deleteVendorById(Long id);
 }
@@ -2,10 +2,19 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.VendorMapper;
 import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.CacheConfig;
 import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.domain.TableChangeCounter;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
 import guru.springfamework.repositories.VendorRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,12 +34,13 @@ public class VendorServiceImpl implements VendorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<VendorDTO> getAllVendors() {
         return vendorRepository
-                .findAll()
+                .findAllProjectedBy()
                 .stream()
                 .map(vendor -> {
-                    VendorDTO vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
+                    VendorDTO vendorDTO = vendorMapper.vendorViewToVendorDTO(vendor);
                     vendorDTO.setVendorUrl(getVendorURL(vendor.getId()));
                     return vendorDTO;
                 })
@@ -38,10 +48,43 @@ public class VendorServiceImpl implements VendorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public VendorListDTO getVendorPage(String after, Integer limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        Long lastSeenId = after == null ? 0L : PageCursor.decode(after);
+
+        //fetch one extra row to know whether there is a next page, no count query needed
+        List<VendorView> vendors = vendorRepository
+                .findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, pageSize + 1));
+
+        List<VendorDTO> vendorDTOS = vendors.stream()
+                .limit(pageSize)
+                .map(vendor -> {
+                    VendorDTO vendorDTO = vendorMapper.vendorViewToVendorDTO(vendor);
+                    vendorDTO.setVendorUrl(getVendorURL(vendor.getId()));
+                    return vendorDTO;
+                })
+                .collect(Collectors.toList());
+
+        String nextCursor = vendors.size() > pageSize
+                ? PageCursor.encode(vendors.get(pageSize - 1).getId())
+                : null;
+
+        return new VendorListDTO(vendorDTOS, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllVendorRows(RowCallbackHandler handler) {
+        vendorRepository.forEachListRow(handler);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public VendorDTO getVendorById(Long id) {
 
-        return vendorRepository.findById(id)
-                .map(vendorMapper::vendorToVendorDTO)
+        return vendorRepository.findViewById(id)
+                .map(vendorMapper::vendorViewToVendorDTO)
                 .map(vendorDTO -> {
                     //set API URL
                     vendorDTO.setVendorUrl(getVendorURL(id));
@@ -50,51 +93,144 @@ public class VendorServiceImpl implements VendorService {
                 .orElseThrow(ResourceNotFoundException::new);
     }
 
+    //sync loads inside the cache's atomic compute, so an eviction after a write commits waits for a
+    //load that read the row before it, and removes what that load put instead of being overtaken
+    @Override
+    @Cacheable(cacheNames = CacheConfig.VENDORS, sync = true)
+    @Transactional(readOnly = true)
+    public Versioned<VendorDTO> getVersionedVendorById(Long id) {
+        return vendorRepository.findVersionedViewById(id)
+                .map(vendor -> new Versioned<>(toDTO(vendor.toView()), vendor.getVersion()))
+                .orElseThrow(ResourceNotFoundException::new);
+    }
+
+    @Override
+    public Long getVendorVersion(Long id) {
+        return vendorRepository.findVersionById(id).orElseThrow(ResourceNotFoundException::new);
+    }
+
+    @Override
+    public long getVendorListVersion() {
+        return TableChangeCounter.current(Vendor.class);
+    }
+
+    /**
+     * A new vendor gets a fresh id, so there is no cache entry to evict.
+     */
     @Override
     public VendorDTO createNewVendor(VendorDTO vendorDTO) {
 
         return saveAndReturnDTO(vendorMapper.vendorDtoToVendor(vendorDTO));
     }
 
+    @Override
+    @Transactional
+    public List<VendorDTO> createNewVendors(List<VendorDTO> vendorDTOs) {
+        List<Vendor> vendors = vendorDTOs.stream()
+                .map(vendorMapper::vendorDtoToVendor)
+                .collect(Collectors.toList());
+
+        return vendorRepository.insertAllInBatches(vendors)
+                .stream()
+                .map(vendor -> {
+                    VendorDTO vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
+                    vendorDTO.setVendorUrl(getVendorURL(vendor.getId()));
+                    return vendorDTO;
+                })
+                .collect(Collectors.toList());
+    }
+
     private VendorDTO saveAndReturnDTO(Vendor vendor) {
+        return saveAndReturnVersioned(vendor).getValue();
+    }
+
+    private Versioned<VendorDTO> saveAndReturnVersioned(Vendor vendor) {
         Vendor savedVendor = vendorRepository.save(vendor);
 
         VendorDTO returnDto = vendorMapper.vendorToVendorDTO(savedVendor);
 
         returnDto.setVendorUrl(getVendorURL(savedVendor.getId()));
 
-        return returnDto;
+        return new Versioned<>(returnDto, savedVendor.getVersion());
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VENDORS, key = "#id")
+    @Transactional
     public VendorDTO saveVendorByDTO(Long id, VendorDTO vendorDTO) {
-        Vendor vendor = vendorMapper.vendorDtoToVendor(vendorDTO);
-        vendor.setId(id);
+        return saveVendorByDTO(id, vendorDTO, null).getValue();
+    }
 
-        return saveAndReturnDTO(vendor);
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VENDORS, key = "#id")
+    @Transactional
+    public Versioned<VendorDTO> saveVendorByDTO(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        Long checkedVersion = Versioned.checked(expectedVersion);
+        if (vendorRepository.updateVendor(id, checkedVersion, vendorDTO.getName())) {
+            //every column was just written, so the new state is known without reading it back
+            return new Versioned<>(toDTO(new VendorView(id, vendorDTO.getName())), Versioned.after(checkedVersion));
+        }
+
+        if (expectedVersion != null) {
+            throw notUpdated(id, expectedVersion);
+        }
+
+        //PUT to an unknown id creates the vendor, under a newly allocated id
+        return saveAndReturnVersioned(vendorMapper.vendorDtoToVendor(vendorDTO));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VENDORS, key = "#id")
+    @Transactional
     public VendorDTO patchVendor(Long id, VendorDTO vendorDTO) {
-        return vendorRepository.findById(id).map(vendor -> {
-            if (vendorDTO.getName() != null) {
-                vendor.setName(vendorDTO.getName());
-            }
+        return patchVendor(id, vendorDTO, null).getValue();
+    }
 
-            VendorDTO returnDto = vendorMapper.vendorToVendorDTO(vendorRepository.save(vendor));
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VENDORS, key = "#id")
+    @Transactional
+    public Versioned<VendorDTO> patchVendor(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        String name = vendorDTO.getName();
+        Long checkedVersion = Versioned.checked(expectedVersion);
+
+        if (!vendorRepository.patchVendor(id, checkedVersion, name)) {
+            throw notUpdated(id, expectedVersion);
+        }
+
+        if (name != null) {
+            return new Versioned<>(toDTO(new VendorView(id, name)), Versioned.after(checkedVersion));
+        }
+
+        //columns left out of the patch are read back with the version, H2 has no UPDATE ... RETURNING
+        return vendorRepository.findVersionedViewById(id)
+                .map(vendor -> new Versioned<>(toDTO(vendor.toView()), vendor.getVersion()))
+                .orElseThrow(ResourceNotFoundException::new);
+    }
 
-            returnDto.setVendorUrl(getVendorURL(id));
+    private VendorDTO toDTO(VendorView vendor) {
+        VendorDTO returnDto = vendorMapper.vendorViewToVendorDTO(vendor);
 
-            return returnDto;
+        returnDto.setVendorUrl(getVendorURL(vendor.getId()));
+
+        return returnDto;
+    }
 
-        }).orElseThrow(ResourceNotFoundException::new);
+    //the update failed, so with If-Match the precondition did, whether or not the vendor exists
+    private RuntimeException notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return new ResourceNotFoundException();
+        }
+        return new PreconditionFailedException(Versioned.ANY.equals(expectedVersion)
+                ? "Vendor " + id + " does not exist"
+                : "Vendor " + id + " does not exist at version " + expectedVersion);
     }
 
-    private String getVendorURL(Long id) {
+    String getVendorURL(Long id) {
         return VendorController.BASE_URL + "/" + id;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VENDORS)
     public void deleteVendorById(Long id) {
         vendorRepository.deleteById(id);
     }
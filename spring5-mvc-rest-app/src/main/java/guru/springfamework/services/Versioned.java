@@ -0,0 +1,44 @@
+package guru.springfamework.services;
+
+/**
+ * A resource together with the version it was read at, so its entity tag needs no second query.
+ */
+public final class Versioned<T> {
+
+    /**
+     * The expected version of {@code If-Match: *}, any version as long as the resource exists.
+     * Versions start at zero, so no row is ever at this one.
+     */
+    public static final Long ANY = -1L;
+
+    private final T value;
+    private final Long version;
+
+    public Versioned(T value, Long version) {
+        this.value = value;
+        this.version = version;
+    }
+
+    /**
+     * The version a versioned update checks for, null for {@link #ANY}.
+     */
+    static Long checked(Long expectedVersion) {
+        return ANY.equals(expectedVersion) ? null : expectedVersion;
+    }
+
+    /**
+     * The version after a successful update that checked for {@code checkedVersion}, unknown
+     * without reading it back when the update checked for none.
+     */
+    static Long after(Long checkedVersion) {
+        return checkedVersion == null ? null : checkedVersion + 1;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,49 @@
+package guru.springfamework;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Boots the application on a random port, fetches the Swagger document Springfox builds and writes
+ * it to the file given as argument. Run by the build, see the api-docs profile in the pom.
+ */
+public class ApiDocsGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiDocsGenerator.class);
+
+    public static void main(String[] args) throws Exception {
+        File output = new File(args[0]);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0", "--management.server.port=-1", "--logging.level.root=WARN",
+                        "--logging.level." + ApiDocsGenerator.class.getName() + "=INFO",
+                        "--app.warm-up.enabled=false", "--app.api-docs.static=false")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            String json = new RestTemplate().exchange("http://localhost:" + port + "/v2/api-docs", HttpMethod.GET,
+                    new HttpEntity<>(headers), String.class).getBody();
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectNode document = (ObjectNode) objectMapper.readTree(json);
+            //the host it was generated on, clients fall back to the host serving the document
+            document.remove("host");
+
+            output.getParentFile().mkdirs();
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, document);
+        }
+        log.info("API docs written to {}", output);
+    }
+}
@@ -0,0 +1,241 @@
+package guru.springfamework.api.v1.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.api.v1.model.ModelModule;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class ListRowWriterTest {
+
+    static final List<MediaType> MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML);
+
+    ObjectMapper jsonMapper = new ObjectMapper().registerModule(new ModelModule());
+    XmlMapper xmlMapper = (XmlMapper) new XmlMapper().registerModule(new ModelModule());
+
+    ListStreamWriters listStreamWriters;
+
+    @Before
+    public void setUp() throws Exception {
+        listStreamWriters = new ListStreamWriters(jsonMapper, xmlMapper);
+    }
+
+    @Test
+    public void customerRowsMatchCustomerList() throws Exception {
+        for (MediaType mediaType : MEDIA_TYPES) {
+            //given
+            SimpleResultSet rows = customerRows();
+            rows.addRow(1L, "Michale", "Weston");
+            rows.addRow(2L, "Sam", null);
+            rows.addRow(3L, "<Fiona> & \"Jesse\"", "Glenanne ]]> 😀");
+
+            CustomerListDTO customerListDTO = new CustomerListDTO();
+            customerListDTO.getCustomers().addAll(Arrays.asList(customer("Michale", "Weston", 1),
+                    customer("Sam", null, 2), customer("<Fiona> & \"Jesse\"", "Glenanne ]]> 😀", 3)));
+
+            //when
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, out)) {
+                while (rows.next()) {
+                    writer.processRow(rows);
+                }
+                writer.finish();
+            }
+
+            //then
+            assertEquals(write(mediaType, customerListDTO), out.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    public void vendorRowsMatchVendorList() throws Exception {
+        for (MediaType mediaType : MEDIA_TYPES) {
+            //given
+            SimpleResultSet rows = vendorRows();
+            for (long id : new long[]{0, 9, 10, 1234567, Long.MAX_VALUE}) {
+                rows.addRow(id, "vendor" + id);
+            }
+
+            List<VendorDTO> vendors = new ArrayList<>();
+            for (long id : new long[]{0, 9, 10, 1234567, Long.MAX_VALUE}) {
+                vendors.add(new VendorDTO("vendor" + id, "/api/v1/vendors/" + id));
+            }
+
+            //when
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ListRowWriter writer = listStreamWriters.openVendorRows(mediaType, out)) {
+                while (rows.next()) {
+                    writer.processRow(rows);
+                }
+                writer.finish();
+            }
+
+            //then
+            assertEquals(write(mediaType, new VendorListDTO(vendors, null)), out.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    public void emptyRowsMatchEmptyList() throws Exception {
+        for (MediaType mediaType : MEDIA_TYPES) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, out)) {
+                writer.finish();
+            }
+
+            assertEquals(write(mediaType, new CustomerListDTO()), out.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    public void failedRowsAreNotACompleteList() throws Exception {
+        for (MediaType mediaType : MEDIA_TYPES) {
+            //given
+            SimpleResultSet rows = customerRows(new SimpleRowSource() {
+                int read;
+
+                @Override
+                public Object[] readRow() throws SQLException {
+                    if (read++ == 0) {
+                        return new Object[]{1L, "Michale", "Weston"};
+                    }
+                    //the connection drops before the second row
+                    throw new SQLException("Connection is closed");
+                }
+
+                @Override
+                public void close() {
+                }
+
+                @Override
+                public void reset() {
+                }
+            });
+
+            //when
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, out)) {
+                while (rows.next()) {
+                    writer.processRow(rows);
+                }
+                writer.finish();
+                fail("expected the row source to fail");
+            } catch (SQLException expected) {
+            }
+
+            //then
+            String body = out.toString("UTF-8");
+            assertTrue(body, body.contains("Michale"));
+            try {
+                mapper(mediaType).readValue(body, CustomerListDTO.class);
+                fail(mediaType + " list is complete: " + body);
+            } catch (JsonProcessingException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void rowsDoNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemoryEnabled());
+
+        for (MediaType mediaType : MEDIA_TYPES) {
+            //given
+            SimpleResultSet rows = customerRows();
+            rows.addRow(123456L, "Michale", "Weston");
+            rows.next();
+
+            try (ListRowWriter writer = listStreamWriters.openCustomerRows(mediaType, new DiscardingOutputStream())) {
+                for (int i = 0; i < 20_000; i++) {
+                    writer.processRow(rows);
+                }
+
+                //when
+                long threadId = Thread.currentThread().getId();
+                long before = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < 10_000; i++) {
+                    writer.processRow(rows);
+                }
+                long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+                //then
+                assertTrue(mediaType + " allocated " + allocated + " bytes for 10000 rows", allocated < 10_000);
+            }
+        }
+    }
+
+    private ObjectMapper mapper(MediaType mediaType) {
+        return MediaType.APPLICATION_XML.equals(mediaType) ? xmlMapper : jsonMapper;
+    }
+
+    //through the UTF-8 generator the writers use, it escapes text outside the BMP where a String writer does not
+    private String write(MediaType mediaType, Object list) throws Exception {
+        return new String(mapper(mediaType).writeValueAsBytes(list), StandardCharsets.UTF_8);
+    }
+
+    private static SimpleResultSet customerRows() {
+        return customerRows(null);
+    }
+
+    private static SimpleResultSet customerRows(SimpleRowSource source) {
+        SimpleResultSet rows = source == null ? new SimpleResultSet() : new SimpleResultSet(source);
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("firstname", Types.VARCHAR, 255, 0);
+        rows.addColumn("lastname", Types.VARCHAR, 255, 0);
+        return rows;
+    }
+
+    private static SimpleResultSet vendorRows() {
+        SimpleResultSet rows = new SimpleResultSet();
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("name", Types.VARCHAR, 255, 0);
+        return rows;
+    }
+
+    private static CustomerDTO customer(String firstname, String lastname, long id) {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstname(firstname);
+        customer.setLastname(lastname);
+        customer.setCustomerUrl("/api/v1/customers/" + id);
+        return customer;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
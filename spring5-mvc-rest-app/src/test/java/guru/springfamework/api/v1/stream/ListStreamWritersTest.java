@@ -0,0 +1,28 @@
+package guru.springfamework.api.v1.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListStreamWritersTest {
+
+    ListStreamWriters listStreamWriters;
+
+    @Before
+    public void setUp() throws Exception {
+        listStreamWriters = new ListStreamWriters(new ObjectMapper(), new XmlMapper());
+    }
+
+    @Test
+    public void negotiate() throws Exception {
+        assertEquals(MediaType.APPLICATION_JSON, listStreamWriters.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, listStreamWriters.negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_XML, listStreamWriters.negotiate("application/xml"));
+        assertEquals(MediaType.APPLICATION_XML,
+                listStreamWriters.negotiate("application/json;q=0.5, application/xml"));
+    }
+}
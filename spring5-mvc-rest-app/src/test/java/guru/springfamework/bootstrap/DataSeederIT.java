@@ -0,0 +1,97 @@
+package guru.springfamework.bootstrap;
+
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.TableChangeCounter;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.repositories.CategoryRepository;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import guru.springfamework.services.CustomerService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+//own database, the seeded rows would otherwise show up in the other tests' contexts
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.datasource.generate-unique-name=true", "app.warm-up.enabled=false",
+        "app.seed.customers=25000", "app.seed.vendors=1000", "app.seed.categories=100",
+        "app.seed.random-seed=42", "app.seed.threads=3", "app.seed.batch-size=100"})
+public class DataSeederIT {
+
+    @Autowired
+    DataSeeder dataSeeder;
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void seedsAtStartupInRowOrder() throws Exception {
+        //then
+        assertEquals(2 + 25000, customerRepository.count());
+        assertEquals(2 + 1000, vendorRepository.count());
+        assertEquals(5 + 100, categoryRepository.count());
+
+        //the sample rows come first
+        List<Map<String, Object>> customers = jdbcTemplate.queryForList(
+                "select version, firstname, lastname from customer order by id limit 1000 offset 2");
+        SyntheticNames names = new SyntheticNames(42, 1.0);
+        for (int i = 0; i < customers.size(); i++) {
+            assertEquals(0L, ((Number) customers.get(i).get("VERSION")).longValue());
+            assertEquals(names.firstname(i), customers.get(i).get("FIRSTNAME"));
+            assertEquals(names.lastname(i), customers.get(i).get("LASTNAME"));
+        }
+        assertNotNull(categoryRepository.findByName(names.categoryName(99)));
+    }
+
+    @Test
+    public void seededRowsWorkWithJpa() throws Exception {
+        //given
+        long listVersion = TableChangeCounter.current(Customer.class);
+        long maxId = jdbcTemplate.queryForObject("select max(id) from customer", Long.class);
+
+        //when
+        List<DataSeeder.Seeded> seeded = dataSeeder.seed(5000, 0, 0);
+
+        //then
+        assertEquals(1, seeded.size());
+        assertEquals(5000, seeded.get(0).getRows());
+        assertTrue(seeded.get(0).getRowsPerSecond() > 0);
+        assertTrue(TableChangeCounter.current(Customer.class) > listVersion);
+        assertEquals(0, (int) jdbcTemplate.queryForObject(
+                "select count(*) - count(distinct id) from customer", Integer.class));
+
+        //ids handed out afterwards don't collide, versions work for the seeded rows
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("After");
+        customerDTO.setLastname("Seeding");
+        String customerUrl = customerService.createNewCustomer(customerDTO).getCustomerUrl();
+        Long seededId = jdbcTemplate.queryForObject("select max(id) from customer where firstname <> 'After'", Long.class);
+        customerService.patchCustomer(seededId, customerDTO);
+        assertEquals(Long.valueOf(1), customerRepository.findById(seededId).get().getVersion());
+        assertTrue(Long.valueOf(customerUrl.substring(customerUrl.lastIndexOf('/') + 1)) > seededId);
+
+        jdbcTemplate.update("delete from customer where id > ?", maxId);
+    }
+}
@@ -0,0 +1,96 @@
+package guru.springfamework.bootstrap;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticNamesTest {
+
+    static final int ROWS = 100_000;
+
+    @Test
+    public void sameSeedSameNames() throws Exception {
+        //given
+        SyntheticNames names = new SyntheticNames(42, 1.0);
+        SyntheticNames again = new SyntheticNames(42, 1.0);
+        SyntheticNames other = new SyntheticNames(43, 1.0);
+
+        //when
+        String[] rows = new String[1000];
+        String[] sameSeed = new String[1000];
+        String[] otherSeed = new String[1000];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = names.firstname(i) + " " + names.lastname(i) + "/" + names.vendorName(i);
+            //backwards, the names don't depend on the order they are drawn in
+            int j = rows.length - 1 - i;
+            sameSeed[j] = again.firstname(j) + " " + again.lastname(j) + "/" + again.vendorName(j);
+            otherSeed[i] = other.firstname(i) + " " + other.lastname(i) + "/" + other.vendorName(i);
+        }
+
+        //then
+        assertEquals(Arrays.asList(rows), Arrays.asList(sameSeed));
+        assertNotEquals(Arrays.asList(rows), Arrays.asList(otherSeed));
+    }
+
+    @Test
+    public void namesFollowZipf() throws Exception {
+        //given
+        SyntheticNames names = new SyntheticNames(7, 1.0);
+
+        //when
+        Map<String, Integer> counts = firstnameCounts(names);
+
+        //then
+        double ratio = (double) counts.get(SyntheticNames.FIRSTNAMES[0]) / counts.get(SyntheticNames.FIRSTNAMES[4]);
+        assertTrue("first to fifth " + ratio, ratio > 4.5 && ratio < 5.5);
+        assertEquals(SyntheticNames.FIRSTNAMES.length, counts.size());
+    }
+
+    @Test
+    public void noSkewIsUniform() throws Exception {
+        //given
+        SyntheticNames names = new SyntheticNames(7, 0);
+
+        //when
+        Map<String, Integer> counts = firstnameCounts(names);
+
+        //then
+        double expected = (double) ROWS / SyntheticNames.FIRSTNAMES.length;
+        for (int count : counts.values()) {
+            assertEquals(expected, count, expected * 0.15);
+        }
+    }
+
+    @Test
+    public void categoryNamesAreUnique() throws Exception {
+        SyntheticNames names = new SyntheticNames(7, 2.0);
+
+        Set<String> categoryNames = new HashSet<>();
+        for (int i = 0; i < ROWS; i++) {
+            categoryNames.add(names.categoryName(i));
+        }
+
+        assertEquals(ROWS, categoryNames.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeSkew() throws Exception {
+        new SyntheticNames(7, -1);
+    }
+
+    private static Map<String, Integer> firstnameCounts(SyntheticNames names) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            counts.merge(names.firstname(i), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,63 @@
+package guru.springfamework.bootstrap;
+
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import guru.springfamework.services.Versioned;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"app.warm-up.enabled=true", "app.warm-up.iterations=3"})
+public class WarmUpIT {
+
+    @Autowired
+    WarmUp warmUp;
+
+    @Autowired
+    WarmUpHealthIndicator healthIndicator;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readyOnceWarmedUpWithoutLeavingChanges() throws Exception {
+        //when
+        for (int i = 0; i < 600 && !warmUp.isDone(); i++) {
+            Thread.sleep(50);
+        }
+
+        //then
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertNull(warmUp.getError());
+        assertEquals(2, customerRepository.count());
+        assertEquals(2, vendorRepository.count());
+        //nothing cached from the rolled back writes
+        cachedVendors().forEach((id, vendor) ->
+                assertEquals(vendorRepository.findById((Long) id).get().getName(), ((Versioned<VendorDTO>) vendor).getValue().getName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> cachedVendors() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>)
+                cacheManager.getCache(CacheConfig.VENDORS).getNativeCache()).asMap();
+    }
+}
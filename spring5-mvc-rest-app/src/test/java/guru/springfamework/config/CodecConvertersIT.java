@@ -0,0 +1,81 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.serialization.engine=generated")
+@AutoConfigureMockMvc
+public class CodecConvertersIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    HttpMessageConverters messageConverters;
+
+    @Test
+    public void codecConvertersComeFirst() throws Exception {
+        List<HttpMessageConverter<?>> converters = messageConverters.getConverters();
+
+        assertThat(converters.get(0), instanceOf(CodecHttpMessageConverter.class));
+        assertThat(converters.get(1), instanceOf(CodecHttpMessageConverter.class));
+    }
+
+    @Test
+    public void servesTheSchemaTypes() throws Exception {
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(startsWith("{\"customers\":["), endsWith("}]}"))));
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(startsWith("<CustomerListDTO><customers><customers>"),
+                        endsWith("</customers></CustomerListDTO>"))));
+        mockMvc.perform(get(VendorController.BASE_URL).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("<VendorListDTO><vendors><vendors><name>")));
+        mockMvc.perform(get(CategoryController.BASE_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("{\"categories\":[{\"id\":")));
+    }
+
+    @Test
+    public void readsRequestBodies() throws Exception {
+        String created = mockMvc.perform(post(VendorController.BASE_URL)
+                .contentType(MediaType.APPLICATION_XML)
+                .accept(MediaType.APPLICATION_XML)
+                .content("<VendorDTO><name>Codec Fruits</name></VendorDTO>"))
+                .andExpect(status().isCreated())
+                .andExpect(content().string(startsWith("<VendorDTO><name>Codec Fruits</name><vendor_url>")))
+                .andReturn().getResponse().getContentAsString();
+
+        String vendorUrl = created.substring(created.indexOf("<vendor_url>") + "<vendor_url>".length(),
+                created.indexOf("</vendor_url>"));
+        mockMvc.perform(delete(vendorUrl))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,171 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CatorgoryListDTO;
+import guru.springfamework.api.v1.model.ModelModule;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CodecHttpMessageConverterTest {
+
+    //Jackson's reading of empty elements, nulls, coercions and unknown content
+    static final String[] JSON = {
+            "{\"vendors\":[null,{\"name\":12,\"vendor_url\":true}],\"nextCursor\":null,\"unknown\":{\"a\":[1]}}",
+            "{\"vendors\":null}", "{}", "{\"id\":\"7\",\"name\":\"x\"}", "{\"id\":\"\"}", "{\"id\":1.5}",
+            "{\"customers\":[{\"firstname\":\"a\"}],\"nextCursor\":\"c\"}", "{\"customers\":null}",
+            "{\"customers\":[{\"firstname\":\"a\"}],\"customers\":[{\"lastname\":\"b\"}]}"};
+    static final String[] XML = {
+            "<VendorListDTO><vendors/><nextCursor/></VendorListDTO>",
+            "<VendorListDTO><vendors></vendors><nextCursor></nextCursor></VendorListDTO>",
+            "<VendorListDTO><vendors><vendors/><vendors><name/></vendors></vendors></VendorListDTO>",
+            "<VendorListDTO><vendors><vendor><name>a</name></vendor><v><name>b</name></v></vendors></VendorListDTO>",
+            "<VendorListDTO><vendors><vendors><name>a</name></vendors></vendors><vendors><vendors><name>b</name></vendors></vendors></VendorListDTO>",
+            "<?xml version=\"1.0\"?>\n<!-- c --><CategoryDTO>\n  <id> 7 </id><x><y>1</y></x><name> a<!-- c -->b </name>\n</CategoryDTO>",
+            "<CategoryDTO><id/></CategoryDTO>", "<VendorDTO/>",
+            "<CustomerListDTO><customers><customers><firstname>a</firstname></customers></customers>"
+                    + "<customers><customers><lastname>b</lastname></customers></customers></CustomerListDTO>",
+            "<CustomerListDTO><customers/></CustomerListDTO>"};
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ModelModule()).build();
+    MappingJackson2HttpMessageConverter jacksonJson = new MappingJackson2HttpMessageConverter(objectMapper);
+    MappingJackson2XmlHttpMessageConverter jacksonXml = new MappingJackson2XmlHttpMessageConverter(
+            Jackson2ObjectMapperBuilder.xml().modulesToInstall(new ModelModule()).build());
+
+    JsonCodecHttpMessageConverter json = new JsonCodecHttpMessageConverter(objectMapper);
+
+    List<Object> payloads;
+
+    @Before
+    public void setUp() {
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        List<VendorDTO> vendors = new ArrayList<>();
+        List<CategoryDTO> categories = new ArrayList<>();
+        String[] names = SerializationEngineTest.NAMES;
+        for (int i = 0; i < names.length; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname(names[i]);
+            customerDTO.setLastname(i % 2 == 0 ? null : names[names.length - 1 - i]);
+            customerDTO.setCustomerUrl("/api/v1/customers/" + i);
+            customerListDTO.getCustomers().add(customerDTO);
+
+            vendors.add(new VendorDTO(names[i], i % 3 == 0 ? null : "/api/v1/vendors/" + i));
+
+            CategoryDTO categoryDTO = new CategoryDTO();
+            categoryDTO.setId(i % 4 == 0 ? null : Long.MAX_VALUE - i);
+            categoryDTO.setName(names[i]);
+            categories.add(categoryDTO);
+        }
+        vendors.add(null);
+
+        payloads = Arrays.asList(customerListDTO, new CustomerListDTO(), customerListDTO.getCustomers().get(1),
+                new VendorListDTO(vendors, "c3VyZQ=="), new VendorListDTO(), new VendorListDTO(Collections.emptyList(), null),
+                vendors.get(2), new CatorgoryListDTO(categories), categories.get(1), new CategoryDTO());
+    }
+
+    @Test
+    public void writesJacksonJson() throws Exception {
+        for (Object payload : payloads) {
+            assertEquals(write(jacksonJson, payload, MediaType.APPLICATION_JSON),
+                    write(json, payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Test
+    public void writesJacksonXml() throws Exception {
+        for (SerializationEngine engine : SerializationEngine.values()) {
+            XmlCodecHttpMessageConverter xml = new XmlCodecHttpMessageConverter(engine);
+
+            for (Object payload : payloads) {
+                assertEquals(engine.name(), write(jacksonXml, payload, MediaType.APPLICATION_XML),
+                        write(xml, payload, MediaType.APPLICATION_XML));
+            }
+        }
+    }
+
+    @Test
+    public void readsWhatJacksonReads() throws Exception {
+        XmlCodecHttpMessageConverter xml = new XmlCodecHttpMessageConverter(SerializationEngine.GENERATED);
+
+        for (Object payload : payloads) {
+            assertSameRead(jacksonJson, json, payload.getClass(), write(jacksonJson, payload, MediaType.APPLICATION_JSON));
+            assertSameRead(jacksonXml, xml, payload.getClass(), write(jacksonXml, payload, MediaType.APPLICATION_XML));
+        }
+        for (String body : JSON) {
+            for (Class<?> type : Arrays.asList(VendorListDTO.class, CategoryDTO.class, CustomerListDTO.class)) {
+                assertSameRead(jacksonJson, json, type, body);
+            }
+        }
+        for (String body : XML) {
+            for (Class<?> type : Arrays.asList(VendorListDTO.class, CategoryDTO.class, VendorDTO.class, CustomerListDTO.class)) {
+                assertSameRead(jacksonXml, xml, type, body);
+            }
+        }
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void rejectsExternalEntities() throws Exception {
+        String body = "<?xml version=\"1.0\"?><!DOCTYPE v [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>"
+                + "<VendorDTO><name>&e;</name></VendorDTO>";
+
+        read(new XmlCodecHttpMessageConverter(SerializationEngine.GENERATED), VendorDTO.class, body);
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void rejectsMismatchedJson() throws Exception {
+        read(json, VendorListDTO.class, "{\"vendors\":{}}");
+    }
+
+    @Test
+    public void supportsTheSchemaTypesOnly() throws Exception {
+        assertTrue(json.canWrite(CustomerDTO.class, MediaType.APPLICATION_JSON));
+        assertTrue(json.canRead(VendorDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(json.canWrite(CustomerDTO.class, MediaType.APPLICATION_XML));
+        assertFalse(json.canWrite(HashMap.class, MediaType.APPLICATION_JSON));
+        assertFalse(json.canRead(guru.springfamework.api.v1.model.CustomerDTO.class, MediaType.APPLICATION_JSON));
+    }
+
+    private void assertSameRead(HttpMessageConverter<Object> jackson, HttpMessageConverter<Object> codec,
+                                Class<?> type, String body) throws Exception {
+        //the xjc classes have no equals
+        assertEquals(type.getSimpleName() + " from " + body,
+                objectMapper.writeValueAsString(read(jackson, type, body)),
+                objectMapper.writeValueAsString(read(codec, type, body)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object read(HttpMessageConverter<?> converter, Class<?> type, String body) throws Exception {
+        return ((HttpMessageConverter<Object>) converter).read((Class<Object>) type,
+                new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String write(HttpMessageConverter<Object> converter, Object payload, MediaType mediaType) throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(payload, mediaType, outputMessage);
+        assertEquals(mediaType + ";charset=UTF-8", outputMessage.getHeaders().getContentType().toString());
+        return outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.v1.CustomerController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-start")
+public class FastStartIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void createsControllersAndXmlConverterOnFirstUse() throws Exception {
+        //given
+        assertEquals(0, beanFactory.getBeanNamesForType(Docket.class).length);
+        assertFalse(beanFactory.containsSingleton("customerController"));
+        assertFalse(beanFactory.containsSingleton(FastStartConfig.XML_CONVERTER));
+
+        //when
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        //then
+        assertTrue(beanFactory.containsSingleton("customerController"));
+        assertFalse(beanFactory.containsSingleton(FastStartConfig.XML_CONVERTER));
+
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("<")));
+        assertTrue(beanFactory.containsSingleton(FastStartConfig.XML_CONVERTER));
+    }
+}
@@ -0,0 +1,36 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CatorgoryListDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import org.junit.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlightRecorderCallEventsTest {
+
+    @Test
+    public void entityIdIsFirstNumericArgument() {
+        assertEquals(42L, FlightRecorderCallEvents.entityId(new Object[]{"x", 42L, 7}));
+        assertEquals(0L, FlightRecorderCallEvents.entityId(new Object[]{"x"}));
+    }
+
+    @Test
+    public void countsRowsOfResults() {
+        assertEquals(0, FlightRecorderCallEvents.rows(null));
+        assertEquals(2, FlightRecorderCallEvents.rows(Arrays.asList("a", "b")));
+        assertEquals(1, FlightRecorderCallEvents.rows(new SliceImpl<>(Collections.singletonList("a"))));
+        assertEquals(0, FlightRecorderCallEvents.rows(Optional.empty()));
+        assertEquals(1, FlightRecorderCallEvents.rows(Optional.of("a")));
+        assertEquals(2, FlightRecorderCallEvents.rows(new VendorListDTO(Arrays.asList(new VendorDTO(), new VendorDTO()), null)));
+        assertEquals(1, FlightRecorderCallEvents.rows(new CatorgoryListDTO(Collections.singletonList(new CategoryDTO()))));
+        assertEquals(0, FlightRecorderCallEvents.rows(3L));
+        assertEquals(1, FlightRecorderCallEvents.rows(new VendorDTO()));
+    }
+}
@@ -0,0 +1,126 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.repositories.CategoryRepository;
+import guru.springfamework.services.CategoryService;
+import guru.springfamework.services.CategoryServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+public class LayerTimingAspectTest {
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    List<String> events;
+    CategoryService categoryService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+        events = new ArrayList<>();
+
+        CategoryServiceImpl target = new CategoryServiceImpl();
+        target.setCategoryMapper(CategoryMapper.INSTANCE);
+        target.setCategoryRepository(categoryRepository);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LayerTimingAspect(meterRegistry, new CallEvents() {
+            @Override
+            public Object begin(boolean repository) {
+                return repository ? "repository" : "service";
+            }
+
+            @Override
+            public void end(Object event, ProceedingJoinPoint joinPoint, Object result, Throwable failure) {
+                events.add(event + " " + joinPoint.getSignature().getName()
+                        + (failure != null ? " " + failure.getClass().getSimpleName() : ""));
+            }
+        }));
+        categoryService = proxyFactory.getProxy();
+    }
+
+    @After
+    public void tearDown() {
+        ServerTiming.end();
+    }
+
+    private Timer timer(String method, String exception) {
+        return meterRegistry.find(LayerTimingAspect.SERVICE_TIMER)
+                .tags("class", "CategoryServiceImpl", "method", method, "exception", exception)
+                .timer();
+    }
+
+    @Test
+    public void timesServiceMethods() {
+        //given
+        when(categoryRepository.findAllProjectedBy()).thenReturn(Collections.emptyList());
+
+        //when
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+
+        //then
+        assertEquals(2, timer("getAllCategories", "none").count());
+        assertNull(timer("getCategoryByName", "none"));
+    }
+
+    @Test
+    public void tagsExceptions() {
+        //given
+        when(categoryRepository.findByName("Fruits")).thenThrow(new IllegalStateException());
+
+        //when
+        try {
+            categoryService.getCategoryByName("Fruits");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        //then
+        assertEquals(1, timer("getCategoryByName", "IllegalStateException").count());
+        assertNull(timer("getCategoryByName", "none"));
+    }
+
+    @Test
+    public void feedsServerTimingAndCallEvents() {
+        //given
+        ServerTiming timing = ServerTiming.begin();
+        when(categoryRepository.findAllProjectedBy()).thenReturn(Collections.emptyList());
+
+        //when
+        categoryService.getAllCategories();
+        try {
+            when(categoryRepository.findByName("Fruits")).thenThrow(new IllegalStateException());
+            categoryService.getCategoryByName("Fruits");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        //then
+        assertTrue(timing.wasCalled(ServerTiming.Layer.SERVICE));
+        assertEquals(Arrays.asList("service getAllCategories", "service getCategoryByName IllegalStateException"), events);
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.v1.CustomerController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+public class MetricsIT {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    int managementPort;
+
+    @Test
+    public void actuatorOnManagementPort() throws Exception {
+        //given
+        assertEquals(200, restTemplate.getForEntity(CustomerController.BASE_URL, String.class).getStatusCodeValue());
+
+        //when
+        String scrape = scrape("http_server_response_size_bytes");
+
+        //then
+        assertThat(scrape, containsString("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",status=\"200\",uri=\"/api/v1/customers\""));
+        assertThat(scrape, containsString("app_service_seconds_bucket{class=\"CustomerServiceImpl\",exception=\"none\",method=\"getAllCustomers\""));
+        assertThat(scrape, containsString("app_repository_seconds_count{class=\"CustomerRepository\",exception=\"none\",method=\"findAllProjectedBy\""));
+        assertThat(scrape, containsString("http_server_response_size_bytes_bucket{method=\"GET\",status=\"200\",uri=\"/api/v1/customers\",le=\"1024.0\""));
+        assertThat(scrape, containsString("sql_request_statements_count{method=\"GET\",uri=\"/api/v1/customers\",}"));
+        assertThat(scrape, containsString("hikaricp_connections_active"));
+        assertThat(scrape, containsString("cache_gets_total{cache=\"vendors\""));
+        assertThat(scrape, containsString("jvm_memory_used_bytes"));
+        assertThat(scrape, containsString("jvm_gc_max_data_size_bytes"));
+
+        String queryLog = restTemplate.getForObject(
+                "http://localhost:" + managementPort + "/actuator/querylog?top=5", String.class);
+        assertThat(queryLog, containsString("\"fingerprint\""));
+
+        String watchdog = restTemplate.getForObject(
+                "http://localhost:" + managementPort + "/actuator/watchdog", String.class);
+        assertThat(watchdog, containsString("\"captures\""));
+    }
+
+    /**
+     * The response size is recorded by the access log valve, which Tomcat runs after the client may
+     * already have the whole response.
+     */
+    private String scrape(String awaitedMetric) throws InterruptedException {
+        String scrape = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            scrape = restTemplate.getForObject(
+                    "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+            if (scrape.contains(awaitedMetric)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        return scrape;
+    }
+}
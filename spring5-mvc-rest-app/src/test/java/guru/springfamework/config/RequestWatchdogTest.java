@@ -0,0 +1,108 @@
+package guru.springfamework.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestWatchdogTest {
+
+    InFlightRequests inFlightRequests;
+    CountDownLatch started;
+    CountDownLatch release;
+    Thread worker;
+
+    @Before
+    public void setUp() throws Exception {
+        inFlightRequests = new InFlightRequests();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        worker = new Thread(() -> {
+            InFlightRequests.Entry entry = inFlightRequests.start("GET", "/api/v1/customers");
+            inFlightRequests.handler("CustomerController.getListOfCustomers");
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlightRequests.finish(entry);
+            }
+        }, "http-nio-worker-1");
+        worker.start();
+        started.await();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        worker.join();
+    }
+
+    @Test
+    public void capturesStuckRequestOnce() {
+        //given
+        RequestWatchdog watchdog = new RequestWatchdog(inFlightRequests, 0, 1.0, 200, 10);
+
+        //when
+        watchdog.check();
+        watchdog.check();
+
+        //then
+        List<RequestWatchdog.Capture> captures = watchdog.captures();
+        assertEquals(1, captures.size());
+        assertEquals(RequestWatchdog.Reason.STUCK_REQUEST, captures.get(0).getReason());
+        RequestWatchdog.StuckRequest stuck = captures.get(0).getRequests().get(0);
+        assertEquals("http-nio-worker-1", stuck.getThread());
+        assertEquals(Thread.State.WAITING, stuck.getState());
+        assertEquals("CustomerController.getListOfCustomers", stuck.getHandler());
+        assertTrue(stuck.getStack().stream().anyMatch(frame -> frame.contains("CountDownLatch.await")));
+    }
+
+    @Test
+    public void leavesRequestsUnderThresholdAlone() {
+        //given
+        RequestWatchdog watchdog = new RequestWatchdog(inFlightRequests, 60_000, 1.0, 200, 10);
+
+        //when
+        watchdog.check();
+
+        //then
+        assertTrue(watchdog.captures().isEmpty());
+    }
+
+    @Test
+    public void capturesNearPoolExhaustion() {
+        //given
+        RequestWatchdog watchdog = new RequestWatchdog(inFlightRequests, 60_000, 0.5, 2, 10);
+
+        //when
+        watchdog.check();
+        watchdog.check();
+
+        //then
+        List<RequestWatchdog.Capture> captures = watchdog.captures();
+        assertEquals(1, captures.size());
+        assertEquals(RequestWatchdog.Reason.POOL_EXHAUSTION, captures.get(0).getReason());
+        assertEquals(1, captures.get(0).getInFlight());
+    }
+
+    @Test
+    public void keepsOnlyNewestCaptures() {
+        //given
+        RequestWatchdog watchdog = new RequestWatchdog(inFlightRequests, 0, 0.5, 2, 2);
+
+        //when a new capture per check once the pool threshold has passed
+        watchdog.check();
+        watchdog.check();
+        watchdog.check();
+
+        //then
+        assertEquals(2, watchdog.captures().size());
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.module.afterburner.ser.SerializerModifier;
+import guru.springfamework.controllers.v1.CustomerController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.serialization.engine=fast")
+@AutoConfigureMockMvc
+public class SerializationEngineIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    MappingJackson2XmlHttpMessageConverter xmlConverter;
+
+    @Test
+    public void convertersUseTheFastEngine() throws Exception {
+        assertTrue(afterburner(jsonConverter.getObjectMapper()));
+        assertTrue(afterburner(xmlConverter.getObjectMapper()));
+        assertThat(((XmlFactory) xmlConverter.getObjectMapper().getFactory()).getXMLOutputFactory(),
+                instanceOf(AaltoOutputFactory.class));
+
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(startsWith("{\"customers\":["), endsWith("}]}"))));
+        mockMvc.perform(get(CustomerController.BASE_URL).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(startsWith("<CustomerListDTO><customers>"),
+                        endsWith("</customers></CustomerListDTO>"))));
+    }
+
+    private static boolean afterburner(ObjectMapper objectMapper) {
+        BeanSerializerFactory serializerFactory = (BeanSerializerFactory) objectMapper.getSerializerFactory();
+        for (BeanSerializerModifier modifier : serializerFactory.getFactoryConfig().serializerModifiers()) {
+            if (modifier instanceof SerializerModifier) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,170 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.api.v1.model.ModelModule;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.api.v1.stream.ListRowWriter;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
+import org.h2.tools.SimpleResultSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SerializationEngineTest {
+
+    //markup, quotes, control characters and text outside the BMP
+    static final String[] NAMES = {"Michale", "Tom & Jerry <Ltd>", "\"quoted\" 'single'", "tab\there\nnew line",
+            "Zoë Čapek 東京", "emoji 😀", "]]> end of CDATA", "a]]>b]]>]]]>", "> 1 😀 ]> a>b", "trailing ]]",
+            "😀]\r😀", "carriage\r return", "c1 \u0085 \u007f", ""};
+
+    CustomerListDTO customerListDTO;
+    VendorListDTO vendorListDTO;
+    CategoryListDTO categoryListDTO;
+
+    @Before
+    public void setUp() {
+        customerListDTO = new CustomerListDTO();
+        List<VendorDTO> vendors = new ArrayList<>();
+        List<CategoryDTO> categories = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname(NAMES[i]);
+            customerDTO.setLastname(i % 2 == 0 ? null : NAMES[NAMES.length - 1 - i]);
+            customerDTO.setCustomerUrl("/api/v1/customers/" + i);
+            customerListDTO.getCustomers().add(customerDTO);
+
+            vendors.add(new VendorDTO(NAMES[i], i % 3 == 0 ? null : "/api/v1/vendors/" + i));
+
+            CategoryDTO categoryDTO = new CategoryDTO();
+            categoryDTO.setId((long) i);
+            categoryDTO.setName(NAMES[i]);
+            categories.add(categoryDTO);
+        }
+        vendorListDTO = new VendorListDTO(vendors, "c3VyZQ==");
+        categoryListDTO = new CategoryListDTO(categories);
+    }
+
+    @Test
+    public void sameJsonBytes() throws Exception {
+        ObjectMapper standard = jsonMapper(SerializationEngine.STANDARD);
+        ObjectMapper fast = jsonMapper(SerializationEngine.FAST);
+
+        for (Object payload : payloads()) {
+            assertArrayEquals(standard.writeValueAsBytes(payload), fast.writeValueAsBytes(payload));
+        }
+    }
+
+    @Test
+    public void sameXmlBytes() throws Exception {
+        XmlMapper spring = Jackson2ObjectMapperBuilder.xml().modulesToInstall(new ModelModule()).build();
+        XmlMapper standard = SerializationEngine.STANDARD.xmlMapper(Jackson2ObjectMapperBuilder.xml()
+                .modulesToInstall(new ModelModule()));
+        XmlMapper fast = xmlMapper(SerializationEngine.FAST);
+
+        for (Object payload : payloads()) {
+            byte[] expected = spring.writeValueAsBytes(payload);
+            assertArrayEquals(expected, standard.writeValueAsBytes(payload));
+            assertArrayEquals(expected, fast.writeValueAsBytes(payload));
+        }
+    }
+
+    @Test
+    public void sameStreamedRows() throws Exception {
+        for (SerializationEngine engine : SerializationEngine.values()) {
+            ListStreamWriters writers = new ListStreamWriters(jsonMapper(engine), xmlMapper(engine));
+
+            for (MediaType mediaType : Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML)) {
+                ObjectMapper mapper = MediaType.APPLICATION_XML.equals(mediaType) ? xmlMapper(engine) : jsonMapper(engine);
+
+                //given
+                SimpleResultSet rows = new SimpleResultSet();
+                rows.addColumn("id", Types.BIGINT, 19, 0);
+                rows.addColumn("firstname", Types.VARCHAR, 255, 0);
+                rows.addColumn("lastname", Types.VARCHAR, 255, 0);
+                for (int i = 0; i < NAMES.length; i++) {
+                    rows.addRow((long) i, NAMES[i], i % 2 == 0 ? null : NAMES[NAMES.length - 1 - i]);
+                }
+
+                //when
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (ListRowWriter writer = writers.openCustomerRows(mediaType, out)) {
+                    while (rows.next()) {
+                        writer.processRow(rows);
+                    }
+                    writer.finish();
+                }
+
+                //then
+                assertArrayEquals(engine + " " + mediaType, mapper.writeValueAsBytes(customerListDTO), out.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void readsWhatItWrites() throws Exception {
+        for (SerializationEngine engine : SerializationEngine.values()) {
+            for (ObjectMapper mapper : Arrays.asList(jsonMapper(engine), xmlMapper(engine))) {
+                //given
+                byte[] vendors = mapper.writeValueAsBytes(vendorListDTO);
+
+                //when
+                VendorListDTO read = mapper.readValue(vendors, VendorListDTO.class);
+
+                //then
+                assertEquals(vendorListDTO, read);
+            }
+        }
+    }
+
+    @Test(expected = Exception.class)
+    public void fastXmlRejectsExternalEntities() throws Exception {
+        String body = "<?xml version=\"1.0\"?><!DOCTYPE v [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>"
+                + "<VendorDTO><name>&e;</name></VendorDTO>";
+
+        xmlMapper(SerializationEngine.FAST).readValue(body, VendorDTO.class);
+    }
+
+    @Test
+    public void parsesPropertyValue() {
+        assertEquals(SerializationEngine.FAST, SerializationEngine.of(" fast"));
+        assertEquals(SerializationEngine.STANDARD, SerializationEngine.of("STANDARD"));
+    }
+
+    private List<Object> payloads() {
+        return Arrays.asList(customerListDTO, vendorListDTO, categoryListDTO, customerListDTO.getCustomers().get(1),
+                new VendorListDTO(Collections.emptyList(), null));
+    }
+
+    private static ObjectMapper jsonMapper(SerializationEngine engine) {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(modules(engine)).build();
+    }
+
+    private static XmlMapper xmlMapper(SerializationEngine engine) {
+        return engine.xmlMapper(Jackson2ObjectMapperBuilder.xml().modulesToInstall(modules(engine)));
+    }
+
+    //what SerializationConfig installs
+    private static Module[] modules(SerializationEngine engine) {
+        List<Module> modules = new ArrayList<>(Arrays.asList(engine.modules()));
+        modules.add(new ModelModule());
+        return modules.toArray(new Module[0]);
+    }
+}
@@ -0,0 +1,60 @@
+package guru.springfamework.config;
+
+import guru.springfamework.config.ServerTiming.Layer;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ServerTimingTest {
+
+    @After
+    public void tearDown() {
+        ServerTiming.end();
+    }
+
+    @Test
+    public void doesNothingOutsideSampledRequests() {
+        //when
+        long start = ServerTiming.enter(Layer.SERVICE);
+        ServerTiming.exit(Layer.SERVICE, start);
+        ServerTiming.record(Layer.DB, 1_000_000);
+
+        //then
+        assertEquals(-1, start);
+    }
+
+    @Test
+    public void countsNestedCallsOfOneLayerOnce() {
+        //given
+        ServerTiming timing = ServerTiming.begin();
+
+        //when
+        long outer = ServerTiming.enter(Layer.REPOSITORY);
+        long inner = ServerTiming.enter(Layer.REPOSITORY);
+        ServerTiming.exit(Layer.REPOSITORY, inner);
+        long afterInner = timing.nanos(Layer.REPOSITORY);
+        ServerTiming.exit(Layer.REPOSITORY, outer);
+
+        //then
+        assertEquals(0, afterInner);
+        assertTrue(timing.nanos(Layer.REPOSITORY) > 0);
+    }
+
+    @Test
+    public void headerListsCalledLayersAndTotal() {
+        //given
+        ServerTiming timing = ServerTiming.begin();
+
+        //when
+        ServerTiming.record(Layer.DB, 1_500_000);
+        ServerTiming.record(Layer.DB, 250_000);
+        String header = timing.header();
+
+        //then
+        assertTrue(header, header.startsWith("db;dur=1.750;desc=\"jdbc\", total;dur="));
+        assertFalse(header, header.contains("svc"));
+    }
+}
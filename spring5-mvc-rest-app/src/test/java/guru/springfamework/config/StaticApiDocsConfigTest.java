@@ -0,0 +1,24 @@
+package guru.springfamework.config;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+public class StaticApiDocsConfigTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void missingDocumentFailsStartup() throws Exception {
+        //given a classpath without the generated document
+        Thread thread = Thread.currentThread();
+        ClassLoader classLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[0], null));
+
+        try {
+            //when
+            new StaticApiDocsConfig();
+        } finally {
+            thread.setContextClassLoader(classLoader);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springfamework.config;
+
+import guru.springfamework.config.ServerTiming.Layer;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimedSerializationTest {
+
+    @After
+    public void tearDown() {
+        ServerTiming.end();
+    }
+
+    @Test
+    public void writesThroughWithoutBuffering() throws Exception {
+        //given
+        ServerTiming timing = ServerTiming.begin();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        StringBuilder seen = new StringBuilder();
+
+        //when
+        TimedSerialization.write(outputMessage, message -> {
+            message.getBody().flush();
+            seen.append(timing.wasCalled(Layer.SERIALIZATION)).append(outputMessage.getBodyAsString()).append(' ');
+            message.getBody().write("{\"a\":".getBytes(StandardCharsets.UTF_8));
+            seen.append(timing.wasCalled(Layer.SERIALIZATION)).append(outputMessage.getBodyAsString()).append(' ');
+            message.getBody().write("1}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        //then
+        assertEquals("false true{\"a\": ", seen.toString());
+        assertEquals("{\"a\":1}", outputMessage.getBodyAsString());
+        assertEquals(-1, outputMessage.getHeaders().getContentLength());
+    }
+
+    @Test
+    public void timesAnEmptyBody() throws Exception {
+        //given
+        ServerTiming timing = ServerTiming.begin();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        //when
+        TimedSerialization.write(outputMessage, message -> { });
+
+        //then
+        assertTrue(timing.wasCalled(Layer.SERIALIZATION));
+        assertEquals("", outputMessage.getBodyAsString());
+    }
+
+    @Test
+    public void untimedOutsideSampledRequests() throws Exception {
+        //given
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        //when
+        TimedSerialization.write(outputMessage, message -> message.getBody().write('x'));
+
+        //then
+        assertEquals("x", outputMessage.getBodyAsString());
+        assertFalse(ServerTiming.enter(Layer.SERIALIZATION) >= 0);
+    }
+}
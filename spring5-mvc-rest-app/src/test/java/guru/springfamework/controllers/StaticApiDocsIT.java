@@ -0,0 +1,56 @@
+package guru.springfamework.controllers;
+
+import guru.springfamework.config.StartupTimeline;
+import guru.springfamework.controllers.v1.CustomerController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.api-docs.static=true")
+@AutoConfigureMockMvc
+public class StaticApiDocsIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Autowired
+    StartupTimeline startupTimeline;
+
+    @Test
+    public void servesGeneratedDocumentWithoutSpringfox() throws Exception {
+        assertEquals(0, applicationContext.getBeanNamesForType(Docket.class).length);
+
+        mockMvc.perform(get("/v2/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swagger").value("2.0"))
+                .andExpect(jsonPath("$.paths", hasKey(CustomerController.BASE_URL)));
+
+        mockMvc.perform(get("/swagger-resources"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].location").value("/v2/api-docs"));
+    }
+
+    @Test
+    public void timesBeanCreation() {
+        assertFalse(startupTimeline.slowestBeans(5).isEmpty());
+        assertFalse(startupTimeline.slowestConfigurations(50).stream()
+                .noneMatch(StartupTimeline.ConfigurationTiming::isAutoConfiguration));
+    }
+}
@@ -0,0 +1,61 @@
+package guru.springfamework.controllers.v1;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConnectionHoldIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Test
+    public void noEntityManagerHeldOpenForRendering() {
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    public void recordsConnectionHoldTimePerEndpoint() throws Exception {
+        //when
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        //then
+        Timer hold = meterRegistry.find("sql.request.connection.hold")
+                .tags("method", "GET", "uri", CustomerController.BASE_URL)
+                .timer();
+        assertNotNull(hold);
+        assertTrue(hold.count() > 0);
+        DistributionSummary share = meterRegistry.find("sql.request.connection.share")
+                .tags("method", "GET", "uri", CustomerController.BASE_URL)
+                .summary();
+        assertNotNull(share);
+        assertTrue(share.max() < 100);
+    }
+}
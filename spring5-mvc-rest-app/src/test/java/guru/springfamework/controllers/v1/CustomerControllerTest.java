@@ -1,31 +1,53 @@
 package guru.springfamework.controllers.v1;
 
 import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
 import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.InvalidCursorException;
+import guru.springfamework.services.PreconditionFailedException;
 import guru.springfamework.services.ResourceNotFoundException;
+import guru.springfamework.services.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
+import org.h2.tools.SimpleResultSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.sql.Types;
 import java.util.Arrays;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class CustomerControllerTest extends AbstractRestControllerTest {
@@ -33,6 +55,9 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
     @Mock
     CustomerService customerService;
 
+    @Spy
+    ListStreamWriters listStreamWriters = new ListStreamWriters(new ObjectMapper(), new XmlMapper());
+
     @InjectMocks
     CustomerController customerController;
 
@@ -70,6 +95,73 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.customers", hasSize(2)));
     }
 
+    @Test
+    public void testListCustomersPage() throws Exception {
+
+        //given
+        CustomerDTO customer1 = new CustomerDTO();
+        customer1.setFirstname("Michale");
+        customer1.setLastname("Weston");
+        customer1.setCustomerUrl(customerController.BASE_URL +"/1");
+
+        CustomerListDTO page = new CustomerListDTO();
+        page.getCustomers().add(customer1);
+        page.setNextCursor("aWQ6MQ");
+
+        when(customerService.getCustomerPage(isNull(), eq(1))).thenReturn(page);
+
+        mockMvc.perform(get(customerController.BASE_URL +"/")
+                .param("limit", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", equalTo("aWQ6MQ")));
+    }
+
+    @Test
+    public void testListCustomersInvalidCursor() throws Exception {
+        when(customerService.getCustomerPage(any(), any())).thenThrow(InvalidCursorException.class);
+
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .param("after", "not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testStreamCustomers() throws Exception {
+
+        //given
+        SimpleResultSet rows = new SimpleResultSet();
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("firstname", Types.VARCHAR, 255, 0);
+        rows.addColumn("lastname", Types.VARCHAR, 255, 0);
+        rows.addRow(1L, "Michale", "Weston");
+        rows.addRow(2L, "Sam", null);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(0);
+            while (rows.next()) {
+                handler.processRow(rows);
+            }
+            return null;
+        }).when(customerService).streamAllCustomerRows(any());
+
+        MvcResult mvcResult = mockMvc.perform(get(customerController.BASE_URL)
+                .param("stream", "true")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.customers[0].firstname", equalTo("Michale")))
+                .andExpect(jsonPath("$.customers[1].customerUrl", equalTo(CustomerController.BASE_URL + "/2")));
+    }
+
     @Test
     public void testGetCustomerById() throws Exception {
 
@@ -79,7 +171,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         customer1.setLastname("Weston");
         customer1.setCustomerUrl(customerController.BASE_URL +"/1");
 
-        when(customerService.getCustomerById(anyLong())).thenReturn(customer1);
+        when(customerService.getVersionedCustomerById(anyLong())).thenReturn(new Versioned<>(customer1, 0L));
 
         //when
         mockMvc.perform(get(customerController.BASE_URL +"/1")
@@ -113,6 +205,30 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.customerUrl", equalTo(customerController.BASE_URL +"/1")));
     }
 
+    @Test
+    public void createNewCustomers() throws Exception {
+        //given
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstname("Fred");
+        customer.setLastname("Flintstone");
+
+        CustomerDTO returnDTO = new CustomerDTO();
+        returnDTO.setFirstname(customer.getFirstname());
+        returnDTO.setLastname(customer.getLastname());
+        returnDTO.setCustomerUrl(customerController.BASE_URL +"/1");
+
+        when(customerService.createNewCustomers(any())).thenReturn(Arrays.asList(returnDTO));
+
+        //when/then
+        mockMvc.perform(post(customerController.BASE_URL +"/bulk")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(Arrays.asList(customer))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].customerUrl", equalTo(customerController.BASE_URL +"/1")));
+    }
+
     @Test
     public void testUpdateCustomer() throws Exception {
         //given
@@ -125,7 +241,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         returnDTO.setLastname(customer.getLastname());
         returnDTO.setCustomerUrl(customerController.BASE_URL +"/1");
 
-        when(customerService.saveCustomerByDTO(anyLong(), any(CustomerDTO.class))).thenReturn(returnDTO);
+        when(customerService.saveCustomerByDTO(anyLong(), any(CustomerDTO.class), isNull())).thenReturn(new Versioned<>(returnDTO, null));
 
         //when/then
         mockMvc.perform(put(customerController.BASE_URL +"/1")
@@ -135,7 +251,8 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstname", equalTo("Fred")))
                 .andExpect(jsonPath("$.lastname", equalTo("Flintstone")))
-                .andExpect(jsonPath("$.customerUrl", equalTo(customerController.BASE_URL +"/1")));
+                .andExpect(jsonPath("$.customerUrl", equalTo(customerController.BASE_URL +"/1")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
     }
 
     @Test
@@ -150,7 +267,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         returnDTO.setLastname("Flintstone");
         returnDTO.setCustomerUrl(customerController.BASE_URL +"/1");
 
-        when(customerService.patchCustomer(anyLong(), any(CustomerDTO.class))).thenReturn(returnDTO);
+        when(customerService.patchCustomer(anyLong(), any(CustomerDTO.class), isNull())).thenReturn(new Versioned<>(returnDTO, null));
 
         mockMvc.perform(patch(customerController.BASE_URL +"/1")
                 .accept(MediaType.APPLICATION_JSON)
@@ -159,7 +276,8 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstname", equalTo("Fred")))
                 .andExpect(jsonPath("$.lastname", equalTo("Flintstone")))
-                .andExpect(jsonPath("$.customerUrl", equalTo(customerController.BASE_URL +"/1")));
+                .andExpect(jsonPath("$.customerUrl", equalTo(customerController.BASE_URL +"/1")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
     }
 
     @Test
@@ -175,11 +293,132 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
 
     @Test
     public void testGetByIdNotFound() throws Exception {
-        when(customerService.getCustomerById(anyLong())).thenThrow(ResourceNotFoundException.class);
+        when(customerService.getVersionedCustomerById(anyLong())).thenThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(CustomerController.BASE_URL + "/1")
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testGetCustomerByIdSetsETag() throws Exception {
+        //given
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstname("Fred");
+
+        when(customerService.getVersionedCustomerById(1L)).thenReturn(new Versioned<>(customer, 3L));
+
+        //when/then
+        mockMvc.perform(get(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.firstname", equalTo("Fred")));
+
+        verify(customerService, never()).getCustomerVersion(anyLong());
+    }
+
+    @Test
+    public void testGetCustomerByIdNotModified() throws Exception {
+        //given
+        when(customerService.getCustomerVersion(1L)).thenReturn(3L);
+
+        //when/then
+        mockMvc.perform(get(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(customerService, never()).getVersionedCustomerById(anyLong());
+    }
+
+    @Test
+    public void testListCustomersNotModified() throws Exception {
+        //given
+        when(customerService.getCustomerListVersion()).thenReturn(7L);
+
+        String eTag = mockMvc.perform(get(CustomerController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when/then
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        assertTrue(eTag.startsWith("W/"));
+        verify(customerService, times(1)).getAllCustomers();
+    }
+
+    @Test
+    public void testUpdateCustomerIfMatchStale() throws Exception {
+        //given
+        when(customerService.saveCustomerByDTO(eq(1L), any(CustomerDTO.class), eq(3L))).thenThrow(new PreconditionFailedException());
+
+        //when/then
+        mockMvc.perform(put(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+
+        //the versioned update checks the tag, nothing is looked up first
+        verify(customerService, never()).getCustomerVersion(anyLong());
+    }
+
+    @Test
+    public void testUpdateCustomerIfMatchWeakTag() throws Exception {
+        //when/then
+        mockMvc.perform(put(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(customerService, never()).saveCustomerByDTO(anyLong(), any(CustomerDTO.class), any());
+    }
+
+    @Test
+    public void testPatchCustomerIfMatch() throws Exception {
+        //given
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstname("Fred");
+
+        when(customerService.patchCustomer(eq(1L), any(CustomerDTO.class), eq(3L))).thenReturn(new Versioned<>(customer, 4L));
+
+        //when/then
+        mockMvc.perform(patch(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(asJsonString(customer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname", equalTo("Fred")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void testPatchCustomerIfMatchAny() throws Exception {
+        //given
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstname("Fred");
+
+        when(customerService.patchCustomer(eq(1L), any(CustomerDTO.class), eq(Versioned.ANY))).thenReturn(new Versioned<>(customer, null));
+
+        //when/then
+        mockMvc.perform(patch(CustomerController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "*")
+                .content(asJsonString(customer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname", equalTo("Fred")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
 }
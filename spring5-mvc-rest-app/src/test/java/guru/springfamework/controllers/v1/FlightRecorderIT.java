@@ -0,0 +1,68 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.config.FlightRecorderEndpoint;
+import guru.springfamework.repositories.CustomerRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FlightRecorderIT {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    public void recordsRequestServiceAndRepositoryEvents() throws Exception {
+        //given
+        Long id = customerRepository.findAll().get(0).getId();
+        FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(folder.getRoot().toPath(), Duration.ofMinutes(5));
+        endpoint.control("start", null);
+
+        //when
+        mockMvc.perform(get(CustomerController.BASE_URL + "/" + id)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Map<String, Object> stopped = endpoint.control("stop", null);
+
+        //then the customer, read with its version for the ETag
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Paths.get((String) stopped.get("lastDump")));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("guru.springfamework.HttpRequest")
+                && event.getLong("entityId") == id
+                && event.getInt("status") == 200
+                && event.getLong("rows") == 1));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("guru.springfamework.ServiceCall")
+                && event.getString("method").equals("getVersionedCustomerById")
+                && event.getLong("entityId") == id
+                && event.getLong("rows") == 1));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("guru.springfamework.RepositoryCall")
+                && event.getString("repository").equals("CustomerRepository")
+                && event.getLong("entityId") == id));
+    }
+}
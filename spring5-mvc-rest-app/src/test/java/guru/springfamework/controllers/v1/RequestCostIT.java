@@ -0,0 +1,59 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.config.RequestCostFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.request-cost.header=true")
+@AutoConfigureMockMvc
+public class RequestCostIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void reportsAllocationAndCpuOfApiRequests() throws Exception {
+        //when
+        MvcResult result = mockMvc.perform(get(VendorController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON))
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RequestCostFilter.CPU_HEADER))
+                .andReturn();
+
+        assertTrue(Long.parseLong(result.getResponse().getHeader(RequestCostFilter.ALLOCATED_HEADER)) > 0);
+        DistributionSummary allocated = meterRegistry.find("app.request.allocated")
+                .tags("method", "GET", "uri", VendorController.BASE_URL, "status", "200")
+                .summary();
+        assertNotNull(allocated);
+        assertTrue(allocated.totalAmount() > 0);
+        assertNotNull(meterRegistry.find("app.request.cpu").tags("uri", VendorController.BASE_URL).timer());
+    }
+
+    @Test
+    public void leavesOtherPathsAlone() throws Exception {
+        mockMvc.perform(get("/swagger-resources"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestCostFilter.ALLOCATED_HEADER));
+    }
+}
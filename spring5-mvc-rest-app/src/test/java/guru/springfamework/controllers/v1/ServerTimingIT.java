@@ -0,0 +1,72 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.repositories.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.server-timing.sample-rate=1.0")
+@AutoConfigureMockMvc
+public class ServerTimingIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void breaksDownRequestByLayer() throws Exception {
+        //given
+        Long id = customerRepository.findAll().get(0).getId();
+
+        //when
+        mockMvc.perform(get(CustomerController.BASE_URL + "/" + id)
+                .accept(MediaType.APPLICATION_JSON))
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", allOf(
+                        containsString("ctrl;dur="),
+                        containsString("svc;dur="),
+                        containsString("repo;dur="),
+                        containsString("db;dur="),
+                        containsString("ser;dur="),
+                        containsString("total;dur="))));
+
+        assertNotNull(meterRegistry.find("app.request.layer")
+                .tags("layer", "serialization", "uri", CustomerController.BASE_URL + "/{id}")
+                .timer());
+    }
+
+    @Test
+    public void timesXmlSerialization() throws Exception {
+        //given
+        Long id = customerRepository.findAll().get(0).getId();
+
+        //when
+        mockMvc.perform(get(CustomerController.BASE_URL + "/" + id)
+                .accept(MediaType.APPLICATION_XML))
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("ser;dur=")));
+    }
+}
@@ -0,0 +1,118 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.config.SqlStatisticsFilter;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static guru.springfamework.repositories.SqlBudget.sqlStatementsAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint, against the real repositories. MockMvc handles the request on
+ * the test's thread, so the writes join the test transaction and are rolled back, leaving the
+ * seeded rows as the other tests in the shared context expect them.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class SqlStatementBudgetIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    Long customerId;
+    Long vendorId;
+
+    @Before
+    public void setUp() throws Exception {
+        customerId = customerRepository.findAll().get(0).getId();
+        vendorId = vendorRepository.findAll().get(0).getId();
+    }
+
+    @Test
+    public void getCustomerById() throws Exception {
+        //the customer and its version for the ETag in one query
+        mockMvc.perform(get(CustomerController.BASE_URL + "/" + customerId)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsFilter.TIME_HEADER))
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    public void getCustomerPage() throws Exception {
+        mockMvc.perform(get(CustomerController.BASE_URL + "?limit=2")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    public void patchCustomer() throws Exception {
+        mockMvc.perform(patch(CustomerController.BASE_URL + "/" + customerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstname\":\"Budget\"}"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(2));
+    }
+
+    @Test
+    public void patchVendor() throws Exception {
+        mockMvc.perform(patch(VendorController.BASE_URL + "/" + vendorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget\"}"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    public void putCustomerIfMatch() throws Exception {
+        //the versioned UPDATE checks the tag, there is no version lookup before it
+        mockMvc.perform(put(CustomerController.BASE_URL + "/" + customerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + customerRepository.findVersionById(customerId).get() + "\"")
+                .content("{\"firstname\":\"Budget\",\"lastname\":\"Budget\"}"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    public void patchVendorIfMatch() throws Exception {
+        mockMvc.perform(patch(VendorController.BASE_URL + "/" + vendorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + vendorRepository.findVersionById(vendorId).get() + "\"")
+                .content("{\"name\":\"Budget\"}"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    public void getCategories() throws Exception {
+        mockMvc.perform(get(CategoryController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+}
@@ -0,0 +1,72 @@
+package guru.springfamework.controllers.v1;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.streaming.pool-size=1", "app.streaming.queue-capacity=0", "app.warm-up.enabled=false"})
+public class StreamingRejectionIT {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    ThreadPoolTaskExecutor streamingTaskExecutor;
+
+    @Test
+    public void streamBeyondPoolAndQueueIsUnavailable() throws Exception {
+        //given the only streaming thread is busy
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        streamingTaskExecutor.execute(() -> {
+            busy.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        busy.await(5, TimeUnit.SECONDS);
+
+        try {
+            //when
+            ResponseEntity<String> response = stream();
+
+            //then
+            assertEquals(503, response.getStatusCodeValue());
+            assertEquals("Service Unavailable", response.getBody());
+        } finally {
+            release.countDown();
+        }
+
+        //a free thread streams again
+        for (int attempt = 0; attempt < 50 && streamingTaskExecutor.getActiveCount() > 0; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(200, stream().getStatusCodeValue());
+    }
+
+    private ResponseEntity<String> stream() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        return restTemplate.exchange(VendorController.BASE_URL + "?stream=true", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+    }
+}
@@ -1,31 +1,54 @@
 package guru.springfamework.controllers.v1;
 
 import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.services.PreconditionFailedException;
 import guru.springfamework.services.ResourceNotFoundException;
 import guru.springfamework.services.VendorService;
+import guru.springfamework.services.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import guru.springfamework.api.v1.stream.ListStreamWriters;
+import org.h2.tools.SimpleResultSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.sql.Types;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class VendorControllerTest extends AbstractRestControllerTest {
@@ -33,6 +56,9 @@ public class VendorControllerTest extends AbstractRestControllerTest {
     @Mock
     VendorService vendorService;
 
+    @Spy
+    ListStreamWriters listStreamWriters = new ListStreamWriters(new ObjectMapper(), new XmlMapper());
+
     @InjectMocks
     VendorController vendorController;
 
@@ -68,6 +94,61 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.vendors", hasSize(2)));
     }
 
+    @Test
+    public void testListVendorsPage() throws Exception {
+
+        //given
+        VendorDTO vendor2 = new VendorDTO();
+        vendor2.setName("vendor2");
+        vendor2.setVendorUrl(vendorController.BASE_URL +"/2");
+
+        when(vendorService.getVendorPage(eq("aWQ6MQ"), eq(1)))
+                .thenReturn(new VendorListDTO(Collections.singletonList(vendor2), "aWQ6Mg"));
+
+        mockMvc.perform(get(vendorController.BASE_URL +"/")
+                .param("after", "aWQ6MQ")
+                .param("limit", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vendors", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", equalTo("aWQ6Mg")));
+    }
+
+    @Test
+    public void testStreamVendorsAsXml() throws Exception {
+
+        //given
+        VendorDTO vendor1 = new VendorDTO();
+        vendor1.setName("vendor1");
+        vendor1.setVendorUrl(vendorController.BASE_URL +"/1");
+
+        SimpleResultSet rows = new SimpleResultSet();
+        rows.addColumn("id", Types.BIGINT, 19, 0);
+        rows.addColumn("name", Types.VARCHAR, 255, 0);
+        rows.addRow(1L, "vendor1");
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(0);
+            while (rows.next()) {
+                handler.processRow(rows);
+            }
+            return null;
+        }).when(vendorService).streamAllVendorRows(any());
+
+        MvcResult mvcResult = mockMvc.perform(get(vendorController.BASE_URL)
+                .param("stream", "true")
+                .accept(MediaType.APPLICATION_XML))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_XML))
+                .andExpect(content().string(
+                        new XmlMapper().writeValueAsString(new VendorListDTO(Arrays.asList(vendor1), null))));
+    }
+
     @Test
     public void testGetVendorById() throws Exception {
 
@@ -76,7 +157,7 @@ public class VendorControllerTest extends AbstractRestControllerTest {
         vendor1.setName("vendor3");
         vendor1.setVendorUrl(vendorController.BASE_URL +"/1");
 
-        when(vendorService.getVendorById(anyLong())).thenReturn(vendor1);
+        when(vendorService.getVersionedVendorById(anyLong())).thenReturn(new Versioned<>(vendor1, 0L));
 
         //when
         mockMvc.perform(get(vendorController.BASE_URL +"/1")
@@ -108,6 +189,28 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.vendor_url", equalTo(vendorController.BASE_URL +"/1")));
     }
 
+    @Test
+    public void createNewVendors() throws Exception {
+        //given
+        VendorDTO vendor = new VendorDTO();
+        vendor.setName("vendor4");
+
+        VendorDTO returnDTO = new VendorDTO();
+        returnDTO.setName(vendor.getName());
+        returnDTO.setVendorUrl(vendorController.BASE_URL +"/1");
+
+        when(vendorService.createNewVendors(Arrays.asList(vendor))).thenReturn(Arrays.asList(returnDTO));
+
+        //when/then
+        mockMvc.perform(post(vendorController.BASE_URL +"/bulk")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(Arrays.asList(vendor))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.vendors", hasSize(1)))
+                .andExpect(jsonPath("$.vendors[0].vendor_url", equalTo(vendorController.BASE_URL +"/1")));
+    }
+
     @Test
     public void testUpdateVendor() throws Exception {
         //given
@@ -118,7 +221,7 @@ public class VendorControllerTest extends AbstractRestControllerTest {
         returnDTO.setName(vendor.getName());
         returnDTO.setVendorUrl(vendorController.BASE_URL +"/1");
 
-        when(vendorService.saveVendorByDTO(anyLong(), any(VendorDTO.class))).thenReturn(returnDTO);
+        when(vendorService.saveVendorByDTO(anyLong(), any(VendorDTO.class), isNull())).thenReturn(new Versioned<>(returnDTO, null));
 
         //when/then
         mockMvc.perform(put(vendorController.BASE_URL +"/1")
@@ -127,7 +230,8 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .content(asJsonString(vendor)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", equalTo("vendor5")))
-                .andExpect(jsonPath("$.vendor_url", equalTo(vendorController.BASE_URL +"/1")));
+                .andExpect(jsonPath("$.vendor_url", equalTo(vendorController.BASE_URL +"/1")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
     }
 
     @Test
@@ -141,7 +245,7 @@ public class VendorControllerTest extends AbstractRestControllerTest {
         returnDTO.setName(vendor.getName());
         returnDTO.setVendorUrl(vendorController.BASE_URL +"/1");
 
-        when(vendorService.patchVendor(anyLong(), any(VendorDTO.class))).thenReturn(returnDTO);
+        when(vendorService.patchVendor(anyLong(), any(VendorDTO.class), isNull())).thenReturn(new Versioned<>(returnDTO, null));
 
         mockMvc.perform(patch(vendorController.BASE_URL +"/1")
                 .accept(MediaType.APPLICATION_JSON)
@@ -149,7 +253,8 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .content(asJsonString(vendor)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", equalTo("vendor6")))
-                .andExpect(jsonPath("$.vendor_url", equalTo(vendorController.BASE_URL +"/1")));
+                .andExpect(jsonPath("$.vendor_url", equalTo(vendorController.BASE_URL +"/1")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
     }
 
     @Test
@@ -165,11 +270,130 @@ public class VendorControllerTest extends AbstractRestControllerTest {
 
     @Test
     public void testGetByIdNotFound() throws Exception {
-        when(vendorService.getVendorById(anyLong())).thenThrow(ResourceNotFoundException.class);
+        when(vendorService.getVersionedVendorById(anyLong())).thenThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(VendorController.BASE_URL + "/1")
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testGetVendorByIdSetsETag() throws Exception {
+        //given
+        VendorDTO vendor = new VendorDTO();
+        vendor.setName("vendor3");
+
+        when(vendorService.getVersionedVendorById(1L)).thenReturn(new Versioned<>(vendor, 3L));
+
+        //when/then
+        mockMvc.perform(get(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.name", equalTo("vendor3")));
+    }
+
+    @Test
+    public void testGetVendorByIdNotModified() throws Exception {
+        //given
+        when(vendorService.getVersionedVendorById(1L)).thenReturn(new Versioned<>(new VendorDTO(), 3L));
+
+        //when/then
+        mockMvc.perform(get(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(vendorService, never()).getVendorVersion(anyLong());
+    }
+
+    @Test
+    public void testListVendorsNotModified() throws Exception {
+        //given
+        when(vendorService.getVendorListVersion()).thenReturn(7L);
+
+        String eTag = mockMvc.perform(get(VendorController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when/then
+        mockMvc.perform(get(VendorController.BASE_URL)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        assertTrue(eTag.startsWith("W/"));
+        verify(vendorService, times(1)).getAllVendors();
+    }
+
+    @Test
+    public void testUpdateVendorIfMatchStale() throws Exception {
+        //given
+        when(vendorService.saveVendorByDTO(eq(1L), any(VendorDTO.class), eq(3L))).thenThrow(new PreconditionFailedException());
+
+        //when/then
+        mockMvc.perform(put(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(asJsonString(new VendorDTO())))
+                .andExpect(status().isPreconditionFailed());
+
+        //the versioned update checks the tag, nothing is looked up first
+        verify(vendorService, never()).getVendorVersion(anyLong());
+    }
+
+    @Test
+    public void testUpdateVendorIfMatchWeakTag() throws Exception {
+        //when/then
+        mockMvc.perform(put(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .content(asJsonString(new VendorDTO())))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(vendorService, never()).saveVendorByDTO(anyLong(), any(VendorDTO.class), any());
+    }
+
+    @Test
+    public void testPatchVendorIfMatch() throws Exception {
+        //given
+        VendorDTO vendor = new VendorDTO();
+        vendor.setName("vendor3");
+
+        when(vendorService.patchVendor(eq(1L), any(VendorDTO.class), eq(3L))).thenReturn(new Versioned<>(vendor, 4L));
+
+        //when/then
+        mockMvc.perform(patch(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(asJsonString(vendor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", equalTo("vendor3")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void testPatchVendorIfMatchAny() throws Exception {
+        //given
+        VendorDTO vendor = new VendorDTO();
+        vendor.setName("vendor3");
+
+        when(vendorService.patchVendor(eq(1L), any(VendorDTO.class), eq(Versioned.ANY))).thenReturn(new Versioned<>(vendor, null));
+
+        //when/then
+        mockMvc.perform(patch(VendorController.BASE_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "*")
+                .content(asJsonString(vendor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", equalTo("vendor3")))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
 }
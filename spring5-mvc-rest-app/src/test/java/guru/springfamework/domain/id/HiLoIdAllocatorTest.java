@@ -0,0 +1,66 @@
+package guru.springfamework.domain.id;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HiLoIdAllocatorTest {
+
+    public static final int BLOCK_SIZE = 50;
+
+    //behaves like a database sequence created with INCREMENT BY BLOCK_SIZE
+    AtomicLong sequence = new AtomicLong(1 - BLOCK_SIZE);
+    AtomicLong blockFetches = new AtomicLong();
+
+    IdAllocator.BlockSource blockSource = () -> {
+        blockFetches.incrementAndGet();
+        return sequence.addAndGet(BLOCK_SIZE);
+    };
+
+    @Test
+    public void handsOutBlockBeforeFetchingNext() throws Exception {
+        HiLoIdAllocator allocator = new HiLoIdAllocator(BLOCK_SIZE);
+
+        for (long expected = 1; expected <= 120; expected++) {
+            assertEquals(expected, allocator.nextId(blockSource));
+        }
+
+        assertEquals(3, blockFetches.get());
+    }
+
+    @Test
+    public void uniqueUnderContention() throws Exception {
+        HiLoIdAllocator allocator = new HiLoIdAllocator(BLOCK_SIZE);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(allocator.nextId(blockSource));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+        //every fetched block is used up, no thread threw its block away
+        assertEquals(threads * perThread / BLOCK_SIZE, blockFetches.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBlocks() throws Exception {
+        new HiLoIdAllocator(0);
+    }
+}
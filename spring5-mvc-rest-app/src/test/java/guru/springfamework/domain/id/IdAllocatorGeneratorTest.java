@@ -0,0 +1,63 @@
+package guru.springfamework.domain.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.service.ServiceRegistry;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdAllocatorGeneratorTest {
+
+    @Test
+    public void snowflakeNeedsANodeId() {
+        //given
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(IdAllocatorGenerator.STRATEGY_SETTING, "snowflake");
+
+        //when
+        try {
+            configure(settings);
+            fail("Expected MappingException");
+        } catch (MappingException e) {
+            //then
+            assertTrue(e.getMessage(), e.getMessage().contains(IdAllocatorGenerator.NODE_ID_SETTING));
+        }
+    }
+
+    @Test
+    public void snowflakeWithANodeId() {
+        //given
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(IdAllocatorGenerator.STRATEGY_SETTING, "snowflake");
+        settings.put(IdAllocatorGenerator.NODE_ID_SETTING, "7");
+
+        //when
+        IdAllocatorGenerator generator = configure(settings);
+
+        //then
+        long id = (Long) generator.generate(null, null);
+        assertTrue(id > 0);
+    }
+
+    private static IdAllocatorGenerator configure(Map<String, Object> settings) {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getSettings()).thenReturn(settings);
+        ServiceRegistry serviceRegistry = mock(ServiceRegistry.class);
+        when(serviceRegistry.getService(ConfigurationService.class)).thenReturn(configurationService);
+
+        Properties params = new Properties();
+        params.setProperty(IdAllocatorGenerator.SEQUENCE_PARAM, "test_seq");
+
+        IdAllocatorGenerator generator = new IdAllocatorGenerator();
+        generator.configure(null, params, serviceRegistry);
+        return generator;
+    }
+}
@@ -0,0 +1,153 @@
+package guru.springfamework.domain.id;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares IDENTITY inserts, where every row is a round trip that returns its generated key,
+ * with ids allocated in memory and rows sent as JDBC batches. Prints rows per second for each.
+ */
+public class IdGenerationThroughputIT {
+
+    public static final String URL = "jdbc:h2:mem:idthroughput;DB_CLOSE_DELAY=-1";
+    public static final int THREADS = 8;
+    public static final int ROWS_PER_THREAD = 5_000;
+    public static final int BATCH_SIZE = 50;
+
+    Connection keepAlive;
+
+    @Before
+    public void setUp() throws Exception {
+        keepAlive = DriverManager.getConnection(URL);
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("create table identity_customer (id bigint auto_increment primary key, firstname varchar(255), lastname varchar(255))");
+            statement.execute("create table allocated_customer (id bigint primary key, firstname varchar(255), lastname varchar(255))");
+            statement.execute("create sequence allocated_customer_seq start with 1 increment by " + BATCH_SIZE);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    public void allocatedIdsOutrunIdentity() throws Exception {
+        double identityRate = rowsPerSecond(this::insertWithIdentity);
+
+        HiLoIdAllocator hiLo = new HiLoIdAllocator(BATCH_SIZE);
+        double hiLoRate = rowsPerSecond(connection -> insertAllocated(connection, hiLo));
+
+        execute("delete from allocated_customer");
+        SnowflakeIdAllocator snowflake = new SnowflakeIdAllocator(1, System::currentTimeMillis);
+        double snowflakeRate = rowsPerSecond(connection -> insertAllocated(connection, snowflake));
+
+        System.out.printf("IDENTITY: %.0f rows/s, hilo: %.0f rows/s, snowflake: %.0f rows/s (%d threads)%n",
+                identityRate, hiLoRate, snowflakeRate, THREADS);
+
+        assertEquals(THREADS * ROWS_PER_THREAD, count("identity_customer"));
+        assertEquals(THREADS * ROWS_PER_THREAD, count("allocated_customer"));
+    }
+
+    private void insertWithIdentity(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into identity_customer (firstname, lastname) values (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS_PER_THREAD; i++) {
+                insert.setString(1, "Joe");
+                insert.setString(2, "Buck");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+    }
+
+    private void insertAllocated(Connection connection, IdAllocator allocator) throws SQLException {
+        try (PreparedStatement nextBlock = connection.prepareStatement("select allocated_customer_seq.nextval");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into allocated_customer (id, firstname, lastname) values (?, ?, ?)")) {
+            IdAllocator.BlockSource blockSource = () -> {
+                try (ResultSet resultSet = nextBlock.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+
+            for (int i = 0; i < ROWS_PER_THREAD; i++) {
+                insert.setLong(1, allocator.nextId(blockSource));
+                insert.setString(2, "Joe");
+                insert.setString(3, "Buck");
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private double rowsPerSecond(Inserts inserts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                try (Connection connection = DriverManager.getConnection(URL)) {
+                    inserts.run(connection);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        return THREADS * ROWS_PER_THREAD / (elapsed / 1e9);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Inserts {
+        void run(Connection connection) throws SQLException;
+    }
+}
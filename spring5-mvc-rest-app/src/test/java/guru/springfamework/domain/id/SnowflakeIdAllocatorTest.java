@@ -0,0 +1,88 @@
+package guru.springfamework.domain.id;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SnowflakeIdAllocatorTest {
+
+    public static final long NOW = SnowflakeIdAllocator.EPOCH + 1000L;
+
+    @Test
+    public void encodesTimestampNodeAndSequence() throws Exception {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(5, () -> NOW);
+
+        long first = allocator.nextId();
+        long second = allocator.nextId();
+
+        assertEquals(1000L, first >>> 22);
+        assertEquals(5L, (first >>> 12) & SnowflakeIdAllocator.MAX_NODE_ID);
+        assertEquals(0L, first & SnowflakeIdAllocator.SEQUENCE_MASK);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    public void borrowsNextMillisecondWhenSequenceRunsOut() throws Exception {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(0, () -> NOW);
+
+        long previous = -1;
+        for (int i = 0; i <= SnowflakeIdAllocator.SEQUENCE_MASK + 1; i++) {
+            long id = allocator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        assertEquals(1001L, previous >>> 22);
+    }
+
+    @Test
+    public void neverGoesBackwardsWithClock() throws Exception {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(0, clock::get);
+
+        long before = allocator.nextId();
+        clock.set(NOW - 500);
+
+        assertTrue(allocator.nextId() > before);
+    }
+
+    @Test
+    public void uniqueUnderContention() throws Exception {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(allocator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    public void oneAllocatorPerNode() throws Exception {
+        assertSame(SnowflakeIdAllocator.forNode(7), SnowflakeIdAllocator.forNode(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNodeIdOutOfRange() throws Exception {
+        new SnowflakeIdAllocator(SnowflakeIdAllocator.MAX_NODE_ID + 1, System::currentTimeMillis);
+    }
+}
@@ -0,0 +1,128 @@
+package guru.springfamework.repositories;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class QueryLogTest {
+
+    SingleConnectionDataSource h2;
+    QueryLog queryLog;
+    JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        h2 = new SingleConnectionDataSource("jdbc:h2:mem:querylog;DB_CLOSE_DELAY=-1", true);
+        JdbcTemplate setup = new JdbcTemplate(h2);
+        setup.execute("create table category (id bigint primary key, name varchar(255))");
+        setup.execute("create index idx_category_name on category(name)");
+        setup.update("insert into category values (1, 'Fruits'), (2, 'Nuts')");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        new JdbcTemplate(h2).execute("drop all objects");
+        h2.destroy();
+        queryLog.close();
+    }
+
+    private void logEverythingSlowerThan(long thresholdMs) {
+        queryLog = new QueryLog(thresholdMs, 100);
+        jdbcTemplate = new JdbcTemplate(new QueryLoggingDataSource(h2, queryLog));
+    }
+
+    private QueryLog.QueryStats awaitPlan() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            QueryLog.QueryStats stats = queryLog.top(1).get(0);
+            if (stats.getPlan() != null) {
+                return stats;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No plan was captured");
+    }
+
+    @Test
+    public void countsPerFingerprint() {
+        //given
+        logEverythingSlowerThan(60_000);
+
+        //when
+        jdbcTemplate.queryForObject("select id from category where name = ?", Long.class, "Fruits");
+        jdbcTemplate.queryForObject("select id from category where name = ?", Long.class, "Nuts");
+        jdbcTemplate.queryForObject("select count(*) from category where id > 0", Long.class);
+
+        //then
+        List<QueryLog.QueryStats> top = queryLog.top(10);
+        assertEquals(2, top.size());
+        QueryLog.QueryStats byName = top.stream()
+                .filter(stats -> stats.getFingerprint().equals("select id from category where name = ?"))
+                .findFirst().get();
+        assertEquals(2, byName.getCount());
+        assertEquals(0, byName.getSlowCount());
+        assertNull(byName.getPlan());
+    }
+
+    @Test
+    public void slowStatementsGetTheirPlanExplained() throws Exception {
+        //given
+        logEverythingSlowerThan(0);
+
+        //when
+        jdbcTemplate.queryForObject("select id from category where name = ?", Long.class, "Fruits");
+
+        //then the plan shows the index being used for the bound value
+        QueryLog.QueryStats stats = awaitPlan();
+        assertEquals(1, stats.getSlowCount());
+        assertNotNull(stats.getPlan());
+        assertThat(stats.getPlan(), containsString("IDX_CATEGORY_NAME"));
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        //given
+        logEverythingSlowerThan(60_000);
+        jdbcTemplate.queryForObject("select count(*) from category", Long.class);
+
+        //when
+        queryLog.reset();
+
+        //then
+        assertEquals(0, queryLog.top(10).size());
+    }
+
+    @Test
+    public void recordsConnectionHoldTime() throws Exception {
+        //given
+        logEverythingSlowerThan(60_000);
+        QueryLoggingDataSource dataSource = new QueryLoggingDataSource(h2, queryLog);
+        SqlStatistics statistics = SqlStatistics.begin();
+
+        //when
+        try {
+            Connection connection = dataSource.getConnection();
+            Thread.sleep(20);
+            connection.close();
+            connection.close();
+        } finally {
+            SqlStatistics.end(statistics);
+        }
+
+        //then
+        assertTrue(statistics.getConnectionNanos() >= 20_000_000);
+        assertTrue(statistics.getConnectionNanos() < 10_000_000_000L);
+    }
+}
@@ -0,0 +1,64 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.config.SqlStatisticsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Statement budgets for tests. A test fails when the work under test issues more SQL statements
+ * than it is allowed to, which is how N+1 selects and extra round trips show up.
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    /**
+     * Runs work and fails with the issued statements when there were more than the budget.
+     * Flush pending setup changes first, or they count against the budget.
+     */
+    public static <T> T atMost(int statements, Supplier<T> work) {
+        SqlStatistics statistics = SqlStatistics.begin(true);
+        T result;
+        try {
+            result = work.get();
+        } finally {
+            SqlStatistics.end(statistics);
+        }
+        if (statistics.getStatements() > statements) {
+            fail(overBudget(statements, statistics.getStatements(), statistics.getSql()));
+        }
+        return result;
+    }
+
+    /**
+     * MockMvc matcher on the {@value SqlStatisticsFilter#STATEMENTS_HEADER} header, needs
+     * {@link SqlStatisticsFilter} in the filter chain.
+     */
+    public static ResultMatcher sqlStatementsAtMost(int statements) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+            assertNotNull("No " + SqlStatisticsFilter.STATEMENTS_HEADER + " header, is SqlStatisticsFilter registered?", header);
+            int issued = Integer.parseInt(header);
+            if (issued > statements) {
+                fail(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + ": "
+                        + overBudget(statements, issued, null));
+            }
+        };
+    }
+
+    private static String overBudget(int budget, int issued, List<String> sql) {
+        StringBuilder message = new StringBuilder()
+                .append("Expected at most ").append(budget).append(" SQL statements but ")
+                .append(issued).append(" were issued");
+        if (sql != null) {
+            sql.forEach(statement -> message.append(System.lineSeparator()).append("  ").append(statement));
+        }
+        return message.toString();
+    }
+}
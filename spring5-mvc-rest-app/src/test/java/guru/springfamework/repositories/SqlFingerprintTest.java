@@ -0,0 +1,34 @@
+package guru.springfamework.repositories;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SqlFingerprintTest {
+
+    @Test
+    public void literalsBecomePlaceholders() {
+        assertEquals("select * from category where name = ? and id > ?",
+                SqlFingerprint.of("SELECT * FROM category WHERE name = 'O''Brien' AND id > 42"));
+    }
+
+    @Test
+    public void placeholderListsCollapse() {
+        assertEquals("select id from customer where id in (?)",
+                SqlFingerprint.of("select id from customer where id in (?, ?,?)"));
+        assertEquals("select id from customer where id in (?)",
+                SqlFingerprint.of("select id from customer where id in (1, 2, 3, 4)"));
+    }
+
+    @Test
+    public void identifiersKeepTheirDigits() {
+        assertEquals("select customer0_.id as col_0_0_ from customer customer0_ where customer0_.id = ?",
+                SqlFingerprint.of("select customer0_.id as col_0_0_ from customer customer0_\n  where customer0_.id = 7"));
+    }
+
+    @Test
+    public void quotedIdentifiersAreKept() {
+        assertEquals("select \"Name\" from \"Category\" where id = ?",
+                SqlFingerprint.of("select \"Name\" from \"Category\"   where id = 3.5"));
+    }
+}
@@ -3,6 +3,7 @@ package guru.springfamework.services;
 import guru.springfamework.api.v1.mapper.CategoryMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
 import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryView;
 import guru.springfamework.repositories.CategoryRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,9 +40,9 @@ public class CategoryServiceTest {
     public void getAllCategories() throws Exception {
 
         //given
-        List<Category> categories = Arrays.asList(new Category(), new Category(), new Category());
+        List<CategoryView> categories = Arrays.asList(view(new Category()), view(new Category()), view(new Category()));
 
-        when(categoryRepository.findAll()).thenReturn(categories);
+        when(categoryRepository.findAllProjectedBy()).thenReturn(categories);
 
         //when
         List<CategoryDTO> categoryDTOS = categoryService.getAllCategories();
@@ -59,7 +60,7 @@ public class CategoryServiceTest {
         category.setId(ID);
         category.setName(NAME);
 
-        when(categoryRepository.findByName(anyString())).thenReturn(category);
+        when(categoryRepository.findByName(anyString())).thenReturn(view(category));
 
         //when
         CategoryDTO categoryDTO = categoryService.getCategoryByName(NAME);
@@ -70,4 +71,7 @@ public class CategoryServiceTest {
 
     }
 
+    private CategoryView view(Category category) {
+        return new CategoryView(category.getId(), category.getName());
+    }
 }
@@ -2,25 +2,35 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
 import guru.springfamework.bootstrap.Bootstrap;
+import guru.springfamework.bootstrap.DataSeeder;
+import guru.springfamework.controllers.v1.CustomerController;
 import guru.springfamework.domain.Customer;
 import guru.springfamework.model.CustomerDTO;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.SqlBudget;
 import guru.springfamework.repositories.VendorRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
 
 @RunWith(SpringRunner.class)
 @DataJpaTest
@@ -35,6 +45,9 @@ public class CustomerServiceImplIT {
     @Autowired
     VendorRepository vendorRepository;
 
+    @Autowired
+    TestEntityManager entityManager;
+
     CustomerService customerService;
 
     @Before
@@ -43,7 +56,7 @@ public class CustomerServiceImplIT {
         System.out.println(customerRepository.findAll().size());
 
         //setup data for testing
-        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, vendorRepository);
+        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, vendorRepository, mock(DataSeeder.class));
         bootstrap.run(); //load data
 
         customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository);
@@ -102,6 +115,135 @@ public class CustomerServiceImplIT {
         assertThat(originalLastName, not(equalTo(updatedCustomer.getLastname())));
     }
 
+    @Test
+    public void patchCustomerStatementBudget() throws Exception {
+        long id = getCustomerIdValue();
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Patched");
+
+        //the update, then one read for the lastname that was not given
+        CustomerDTO patched = SqlBudget.atMost(2, () -> customerService.patchCustomer(id, customerDTO));
+
+        assertEquals("Patched", patched.getFirstname());
+        assertNotNull(patched.getLastname());
+    }
+
+    @Test
+    public void saveCustomerByDTOIsASingleUpdate() throws Exception {
+        long id = getCustomerIdValue();
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Replaced");
+        customerDTO.setLastname("Entirely");
+
+        SqlBudget.atMost(1, () -> customerService.saveCustomerByDTO(id, customerDTO));
+    }
+
+    @Test
+    public void patchCustomerWithSameVersionTwice() throws Exception {
+        long id = getCustomerIdValue();
+        Long version = customerService.getCustomerVersion(id);
+
+        CustomerDTO first = new CustomerDTO();
+        first.setFirstname("First");
+        Versioned<CustomerDTO> patched = customerService.patchCustomer(id, first, version);
+
+        assertEquals(Long.valueOf(version + 1), patched.getVersion());
+        assertEquals(Long.valueOf(version + 1), customerService.getCustomerVersion(id));
+
+        //a second writer that read the same version must not overwrite the first one
+        CustomerDTO second = new CustomerDTO();
+        second.setFirstname("Second");
+        try {
+            customerService.patchCustomer(id, second, version);
+            fail("expected PreconditionFailedException");
+        } catch (PreconditionFailedException e) {
+            assertEquals("First", customerRepository.findById(id).get().getFirstname());
+        }
+    }
+
+    @Test
+    public void patchCustomerIfMatchAny() throws Exception {
+        long id = getCustomerIdValue();
+        Long version = customerService.getCustomerVersion(id);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Any");
+        customerDTO.setLastname("Version");
+        SqlBudget.atMost(1, () -> customerService.patchCustomer(id, customerDTO, Versioned.ANY));
+
+        assertEquals(Long.valueOf(version + 1), customerService.getCustomerVersion(id));
+
+        //a customer that doesn't exist fails the precondition, it isn't a 404
+        try {
+            customerService.patchCustomer(Long.MAX_VALUE, customerDTO, Versioned.ANY);
+            fail("expected PreconditionFailedException");
+        } catch (PreconditionFailedException expected) {
+        }
+    }
+
+    @Test
+    public void emptyPatchChangesNothing() throws Exception {
+        long id = getCustomerIdValue();
+        Long version = customerService.getCustomerVersion(id);
+        Customer before = customerRepository.findById(id).get();
+
+        Versioned<CustomerDTO> patched = SqlBudget.atMost(2, () -> customerService.patchCustomer(id, new CustomerDTO(), version));
+
+        assertEquals(before.getFirstname(), patched.getValue().getFirstname());
+        assertEquals(before.getLastname(), patched.getValue().getLastname());
+        //nothing was written, so the version it reports is still the one the client has
+        assertEquals(version, patched.getVersion());
+        assertEquals(version, customerService.getCustomerVersion(id));
+
+        //an If-Match that is out of date still fails
+        try {
+            customerService.patchCustomer(id, new CustomerDTO(), version + 1);
+            fail("expected PreconditionFailedException");
+        } catch (PreconditionFailedException expected) {
+        }
+    }
+
+    @Test
+    public void patchDetachesOnlyThePatchedCustomer() throws Exception {
+        List<Customer> customers = customerRepository.findAll();
+        Customer patchedCustomer = customers.get(0);
+        Customer otherCustomer = customers.get(1);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Detached");
+        customerService.patchCustomer(patchedCustomer.getId(), customerDTO);
+
+        assertFalse(entityManager.getEntityManager().contains(patchedCustomer));
+        assertTrue(entityManager.getEntityManager().contains(otherCustomer));
+        assertEquals("Detached", customerRepository.findById(patchedCustomer.getId()).get().getFirstname());
+    }
+
+    @Test
+    public void createNewCustomersLeavesOtherEntitiesManaged() throws Exception {
+        Customer loaded = customerRepository.findById(getCustomerIdValue()).get();
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Batch");
+        customerDTO.setLastname("Inserted");
+
+        List<CustomerDTO> created = customerService.createNewCustomers(Arrays.asList(customerDTO, customerDTO));
+
+        assertEquals(2, created.size());
+        assertTrue(entityManager.getEntityManager().contains(loaded));
+        assertEquals(2, customerRepository.findAll().stream().filter(customer -> "Batch".equals(customer.getFirstname())).count());
+    }
+
+    @Test
+    public void streamAllCustomerRows() throws Exception {
+        List<String> urls = new ArrayList<>();
+
+        customerService.streamAllCustomerRows(rs -> urls.add(CustomerController.BASE_URL + "/" + rs.getLong("id")));
+
+        assertEquals(customerRepository.count(), urls.size());
+        assertEquals(CustomerController.BASE_URL + "/" + getCustomerIdValue(), urls.get(0));
+    }
+
     private Long getCustomerIdValue(){
         List<Customer> customers = customerRepository.findAll();
 
@@ -2,19 +2,28 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
+import guru.springfamework.domain.VersionedCustomerView;
 import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.model.CustomerListDTO;
 import guru.springfamework.repositories.CustomerRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -48,7 +57,7 @@ public class CustomerServiceImplTest {
         customer2.setFirstname("Sam");
         customer2.setLastname("Axe");
 
-        when(customerRepository.findAll()).thenReturn(Arrays.asList(customer1, customer2));
+        when(customerRepository.findAllProjectedBy()).thenReturn(Arrays.asList(view(customer1), view(customer2)));
 
         //when
         List<CustomerDTO> customerDTOS = customerService.getAllCustomers();
@@ -58,6 +67,42 @@ public class CustomerServiceImplTest {
 
     }
 
+    @Test
+    public void getCustomerPage() throws Exception {
+        //given
+        Customer customer1 = new Customer();
+        customer1.setId(1l);
+        customer1.setFirstname("Michale");
+        customer1.setLastname("Weston");
+
+        Customer customer2 = new Customer();
+        customer2.setId(2l);
+        customer2.setFirstname("Sam");
+        customer2.setLastname("Axe");
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(view(customer1), view(customer2)));
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(view(customer2)));
+
+        //when
+        CustomerListDTO firstPage = customerService.getCustomerPage(null, 1);
+        CustomerListDTO lastPage = customerService.getCustomerPage(firstPage.getNextCursor(), 1);
+
+        //then
+        assertEquals(1, firstPage.getCustomers().size());
+        assertEquals("/api/v1/customers/1", firstPage.getCustomers().get(0).getCustomerUrl());
+        assertEquals(1, lastPage.getCustomers().size());
+        assertEquals("/api/v1/customers/2", lastPage.getCustomers().get(0).getCustomerUrl());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void getCustomerPageInvalidCursor() throws Exception {
+
+        customerService.getCustomerPage("not-a-cursor", 10);
+    }
+
     @Test
     public void getCustomerById() throws Exception {
         //given
@@ -66,7 +111,7 @@ public class CustomerServiceImplTest {
         customer1.setFirstname("Michale");
         customer1.setLastname("Weston");
 
-        when(customerRepository.findById(anyLong())).thenReturn(java.util.Optional.ofNullable(customer1));
+        when(customerRepository.findViewById(anyLong())).thenReturn(java.util.Optional.ofNullable(view(customer1)));
 
         //when
         CustomerDTO customerDTO = customerService.getCustomerById(1L);
@@ -74,6 +119,21 @@ public class CustomerServiceImplTest {
         assertEquals("Michale", customerDTO.getFirstname());
     }
 
+    @Test
+    public void getVersionedCustomerById() throws Exception {
+        //given
+        when(customerRepository.findVersionedViewById(1L))
+                .thenReturn(java.util.Optional.of(new VersionedCustomerView(1L, "Michale", "Weston", 4L)));
+
+        //when
+        Versioned<CustomerDTO> customer = customerService.getVersionedCustomerById(1L);
+
+        //then
+        assertEquals("Michale", customer.getValue().getFirstname());
+        assertEquals("/api/v1/customers/1", customer.getValue().getCustomerUrl());
+        assertEquals(Long.valueOf(4L), customer.getVersion());
+    }
+
     @Test
     public void createNewCustomer() throws Exception {
 
@@ -97,18 +157,35 @@ public class CustomerServiceImplTest {
     }
 
     @Test
-    public void saveCustomerByDTO() throws Exception {
+    public void createNewCustomers() throws Exception {
 
         //given
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setFirstname("Jim");
 
-        Customer savedCustomer = new Customer();
-        savedCustomer.setFirstname(customerDTO.getFirstname());
-        savedCustomer.setLastname(customerDTO.getLastname());
-        savedCustomer.setId(1l);
+        when(customerRepository.insertAllInBatches(any())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.get(0).setId(1L);
+            return customers;
+        });
 
-        when(customerRepository.save(any(Customer.class))).thenReturn(savedCustomer);
+        //when
+        List<CustomerDTO> savedDtos = customerService.createNewCustomers(Arrays.asList(customerDTO));
+
+        //then
+        assertEquals(1, savedDtos.size());
+        assertEquals(customerDTO.getFirstname(), savedDtos.get(0).getFirstname());
+        assertEquals("/api/v1/customers/1", savedDtos.get(0).getCustomerUrl());
+    }
+
+    @Test
+    public void saveCustomerByDTO() throws Exception {
+
+        //given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Jim");
+
+        when(customerRepository.updateCustomer(eq(1L), isNull(), eq("Jim"), isNull())).thenReturn(true);
 
         //when
         CustomerDTO savedDto = customerService.saveCustomerByDTO(1L, customerDTO);
@@ -116,6 +193,7 @@ public class CustomerServiceImplTest {
         //then
         assertEquals(customerDTO.getFirstname(), savedDto.getFirstname());
         assertEquals("/api/v1/customers/1", savedDto.getCustomerUrl());
+        verify(customerRepository, never()).save(any(Customer.class));
     }
 
     @Test
@@ -127,4 +205,112 @@ public class CustomerServiceImplTest {
 
         verify(customerRepository, times(1)).deleteById(anyLong());
     }
+
+    @Test
+    public void saveCustomerByDTOUnknownIdCreates() throws Exception {
+        //given
+        Customer savedCustomer = new Customer();
+        savedCustomer.setId(2L);
+
+        when(customerRepository.updateCustomer(anyLong(), any(), any(), any())).thenReturn(false);
+        when(customerRepository.save(any(Customer.class))).thenReturn(savedCustomer);
+
+        //when
+        CustomerDTO savedDto = customerService.saveCustomerByDTO(1L, new CustomerDTO());
+
+        //then
+        assertEquals("/api/v1/customers/2", savedDto.getCustomerUrl());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void saveCustomerByDTOStaleVersion() throws Exception {
+        //given
+        when(customerRepository.updateCustomer(anyLong(), any(), any(), any())).thenReturn(false);
+
+        //when
+        customerService.saveCustomerByDTO(1L, new CustomerDTO(), 3L);
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void saveCustomerByDTOIfMatchAnyUnknownId() throws Exception {
+        //given
+        when(customerRepository.updateCustomer(eq(1L), isNull(), any(), any())).thenReturn(false);
+
+        //when, If-Match: * never creates
+        customerService.saveCustomerByDTO(1L, new CustomerDTO(), Versioned.ANY);
+    }
+
+    @Test
+    public void patchCustomerInOneStatement() throws Exception {
+        //given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Fred");
+        customerDTO.setLastname("Flintstone");
+
+        when(customerRepository.patchCustomer(eq(1L), isNull(), eq("Fred"), eq("Flintstone"))).thenReturn(true);
+
+        //when
+        CustomerDTO patchedDto = customerService.patchCustomer(1L, customerDTO);
+
+        //then
+        assertEquals("Fred", patchedDto.getFirstname());
+        assertEquals("/api/v1/customers/1", patchedDto.getCustomerUrl());
+        verify(customerRepository, never()).findVersionedViewById(anyLong());
+    }
+
+    @Test
+    public void patchCustomerReadsUntouchedColumns() throws Exception {
+        //given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Fred");
+
+        when(customerRepository.patchCustomer(eq(1L), isNull(), eq("Fred"), isNull())).thenReturn(true);
+        when(customerRepository.findVersionedViewById(1L)).thenReturn(Optional.of(new VersionedCustomerView(1L, "Fred", "Flintstone", 5L)));
+
+        //when
+        Versioned<CustomerDTO> patched = customerService.patchCustomer(1L, customerDTO, null);
+
+        //then
+        assertEquals("Flintstone", patched.getValue().getLastname());
+        assertEquals(Long.valueOf(5L), patched.getVersion());
+    }
+
+    @Test
+    public void patchCustomerIfMatchReturnsNextVersion() throws Exception {
+        //given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Fred");
+        customerDTO.setLastname("Flintstone");
+
+        when(customerRepository.patchCustomer(eq(1L), eq(3L), eq("Fred"), eq("Flintstone"))).thenReturn(true);
+
+        //when
+        Versioned<CustomerDTO> patched = customerService.patchCustomer(1L, customerDTO, 3L);
+
+        //then
+        assertEquals(Long.valueOf(4L), patched.getVersion());
+        verify(customerRepository, never()).findVersionedViewById(anyLong());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void patchCustomerStaleVersion() throws Exception {
+        //given
+        when(customerRepository.patchCustomer(anyLong(), any(), any(), any())).thenReturn(false);
+
+        //when
+        customerService.patchCustomer(1L, new CustomerDTO(), 3L);
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void patchCustomerNotFound() throws Exception {
+        //given
+        when(customerRepository.patchCustomer(anyLong(), any(), any(), any())).thenReturn(false);
+
+        //when
+        customerService.patchCustomer(1L, new CustomerDTO());
+    }
+
+    private CustomerView view(Customer customer) {
+        return new CustomerView(customer.getId(), customer.getFirstname(), customer.getLastname());
+    }
 }
@@ -2,6 +2,7 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerView;
 import guru.springfamework.model.CustomerDTO;
 import guru.springfamework.repositories.CustomerRepository;
 import org.junit.Before;
@@ -41,9 +42,9 @@ public class CustomerServiceTest {
     public void getAllCustomers() {
 
         //given
-        List<Customer> customers = Arrays.asList(new Customer(), new Customer(), new Customer());
+        List<CustomerView> customers = Arrays.asList(view(new Customer()), view(new Customer()), view(new Customer()));
 
-        when(customerRepository.findAll()).thenReturn(customers);
+        when(customerRepository.findAllProjectedBy()).thenReturn(customers);
 
         //when
         List<CustomerDTO> customerDTOS = customerService.getAllCustomers();
@@ -62,9 +63,9 @@ public class CustomerServiceTest {
         customer.setFirstname(FIRSTNAME);
         customer.setLastname(LASTNAME);
 
-        Optional<Customer> customerOptional = Optional.of(customer);
+        Optional<CustomerView> customerOptional = Optional.of(view(customer));
 
-        when(customerRepository.findById(anyLong())).thenReturn((customerOptional));
+        when(customerRepository.findViewById(anyLong())).thenReturn((customerOptional));
 
         //when
         CustomerDTO customerDTO = customerService.getCustomerById(ID);
@@ -95,4 +96,8 @@ public class CustomerServiceTest {
         assertEquals(customerDTO.getFirstname(),savedDto.getFirstname());
         assertEquals("/api/v1/customers/1", savedDto.getCustomerUrl());
     }
+
+    private CustomerView view(Customer customer) {
+        return new CustomerView(customer.getId(), customer.getFirstname(), customer.getLastname());
+    }
 }
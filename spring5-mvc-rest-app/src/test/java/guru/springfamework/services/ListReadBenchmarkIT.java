@@ -0,0 +1,122 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.model.CustomerDTO;
+import guru.springfamework.repositories.CustomerRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the customer list read path through managed entities, as it was, with the
+ * projection query it uses now. Prints latency and bytes allocated per call.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class ListReadBenchmarkIT {
+
+    public static final int ROWS = 5_000;
+    public static final int WARMUP = 20;
+    public static final int ITERATIONS = 50;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    CustomerMapper customerMapper = CustomerMapper.INSTANCE;
+
+    CustomerService customerService;
+
+    com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Before
+    public void setUp() throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Customer customer = new Customer();
+            customer.setFirstname("First" + i);
+            customer.setLastname("Last" + i);
+            customers.add(customer);
+        }
+        customerRepository.insertAllInBatches(customers);
+
+        customerService = new CustomerServiceImpl(customerMapper, customerRepository);
+    }
+
+    @Test
+    public void projectionsAllocateLessThanEntities() throws Exception {
+        Result entities = measure(this::getAllCustomersFromEntities);
+        Result projections = measure(customerService::getAllCustomers);
+
+        System.out.printf("%d customers - entities: %.2f ms/op %d KB/op, projections: %.2f ms/op %d KB/op%n",
+                ROWS, entities.millisPerOp, entities.bytesPerOp / 1024,
+                projections.millisPerOp, projections.bytesPerOp / 1024);
+
+        assertTrue(projections.bytesPerOp < entities.bytesPerOp);
+    }
+
+    private List<CustomerDTO> getAllCustomersFromEntities() {
+        return customerRepository
+                .findAll()
+                .stream()
+                .map(customer -> {
+                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
+                    customerDTO.setCustomerUrl(CustomerController.BASE_URL + "/" + customer.getId());
+                    return customerDTO;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Result measure(Supplier<List<CustomerDTO>> listCustomers) {
+        long threadId = Thread.currentThread().getId();
+        long nanos = 0;
+        long bytes = 0;
+
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            //every request starts with an empty persistence context
+            entityManager.clear();
+
+            long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<CustomerDTO> customers = listCustomers.get();
+            long elapsed = System.nanoTime() - start;
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+
+            assertEquals(ROWS, customers.size());
+            if (i >= WARMUP) {
+                nanos += elapsed;
+                bytes += allocated;
+            }
+        }
+
+        return new Result(nanos / 1e6 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private static final class Result {
+        final double millisPerOp;
+        final long bytesPerOp;
+
+        Result(double millisPerOp, long bytesPerOp) {
+            this.millisPerOp = millisPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class VendorServiceCacheIT {
+
+    @Autowired
+    VendorService vendorService;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void rolledBackUpdateIsNotCached() throws Exception {
+        //given
+        Long id = vendorRepository.findAll().get(0).getId();
+        String name = vendorService.getVersionedVendorById(id).getValue().getName();
+
+        //when
+        new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            return vendorService.patchVendor(id, new VendorDTO("Rolled Back Fruits", null));
+        });
+
+        //then
+        assertEquals(name, vendorRepository.findById(id).get().getName());
+        assertEquals(name, vendorService.getVersionedVendorById(id).getValue().getName());
+    }
+}
@@ -0,0 +1,174 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VersionedVendorView;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+public class VendorServiceCacheTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+
+        @Bean
+        VendorService vendorService(VendorRepository vendorRepository) {
+            return new VendorServiceImpl(VendorMapper.INSTANCE, vendorRepository);
+        }
+    }
+
+    @MockBean
+    VendorRepository vendorRepository;
+
+    @Autowired
+    VendorService vendorService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheManager.getCache(CacheConfig.VENDORS).clear();
+        reset(vendorRepository);
+
+        when(vendorRepository.findVersionedViewById(1L)).thenReturn(view(1L, "Cached Fruits", 0L));
+    }
+
+    @Test
+    public void getVersionedVendorByIdReadsThroughOnce() throws Exception {
+        //when
+        vendorService.getVersionedVendorById(1L);
+        Versioned<VendorDTO> vendor = vendorService.getVersionedVendorById(1L);
+
+        //then
+        assertEquals("Cached Fruits", vendor.getValue().getName());
+        assertEquals(Long.valueOf(0), vendor.getVersion());
+        verify(vendorRepository, times(1)).findVersionedViewById(1L);
+    }
+
+    @Test
+    public void saveVendorByDTOEvicts() throws Exception {
+        //given
+        vendorService.getVersionedVendorById(1L);
+        when(vendorRepository.updateVendor(1L, null, "Renamed Fruits")).thenReturn(true);
+        when(vendorRepository.findVersionedViewById(1L)).thenReturn(view(1L, "Renamed Fruits", 1L));
+
+        //when
+        vendorService.saveVendorByDTO(1L, new VendorDTO("Renamed Fruits", null));
+
+        //then
+        Versioned<VendorDTO> vendor = vendorService.getVersionedVendorById(1L);
+        assertEquals("Renamed Fruits", vendor.getValue().getName());
+        assertEquals(Long.valueOf(1), vendor.getVersion());
+    }
+
+    @Test
+    public void patchVendorEvicts() throws Exception {
+        //given
+        vendorService.getVersionedVendorById(1L);
+        when(vendorRepository.patchVendor(1L, null, "Patched Fruits")).thenReturn(true);
+        when(vendorRepository.findVersionedViewById(1L)).thenReturn(view(1L, "Patched Fruits", 1L));
+
+        //when
+        vendorService.patchVendor(1L, new VendorDTO("Patched Fruits", null));
+
+        //then
+        assertEquals("Patched Fruits", vendorService.getVersionedVendorById(1L).getValue().getName());
+    }
+
+    @Test
+    public void readBeforeConcurrentWriteIsNotCachedAfterIt() throws Exception {
+        //given a reader that has read the row but not yet cached it
+        AtomicReference<VersionedVendorView> row = new AtomicReference<>(new VersionedVendorView(1L, "Cached Fruits", 0L));
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(vendorRepository.findVersionedViewById(1L)).thenAnswer(invocation -> {
+            VersionedVendorView view = row.get();
+            read.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(view);
+        });
+        when(vendorRepository.updateVendor(1L, null, "Renamed Fruits")).thenAnswer(invocation -> {
+            row.set(new VersionedVendorView(1L, "Renamed Fruits", 1L));
+            return true;
+        });
+
+        Thread reader = new Thread(() -> vendorService.getVersionedVendorById(1L));
+        reader.start();
+        read.await(5, TimeUnit.SECONDS);
+
+        //when a writer commits and evicts before the reader puts what it read
+        Thread writer = new Thread(() -> vendorService.saveVendorByDTO(1L, new VendorDTO("Renamed Fruits", null)));
+        writer.start();
+        writer.join(500);
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        //then the old row is not what is cached
+        Versioned<VendorDTO> vendor = vendorService.getVersionedVendorById(1L);
+        assertEquals("Renamed Fruits", vendor.getValue().getName());
+        assertEquals(Long.valueOf(1), vendor.getVersion());
+    }
+
+    @Test
+    public void saveVendorByDTOToUnknownIdIsNotCachedUnderIt() throws Exception {
+        //given
+        when(vendorRepository.save(any(Vendor.class))).thenReturn(vendor(2L, "New Fruits"));
+
+        //when
+        vendorService.saveVendorByDTO(1L, new VendorDTO("New Fruits", null));
+
+        //then
+        assertEquals("Cached Fruits", vendorService.getVersionedVendorById(1L).getValue().getName());
+    }
+
+    @Test
+    public void deleteVendorByIdEvicts() throws Exception {
+        //given
+        vendorService.getVersionedVendorById(1L);
+
+        //when
+        vendorService.deleteVendorById(1L);
+        vendorService.getVersionedVendorById(1L);
+
+        //then
+        verify(vendorRepository, times(2)).findVersionedViewById(1L);
+    }
+
+    private Vendor vendor(Long id, String name) {
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        vendor.setName(name);
+        return vendor;
+    }
+
+    private Optional<VersionedVendorView> view(Long id, String name, Long version) {
+        return Optional.of(new VersionedVendorView(id, name, version));
+    }
+}
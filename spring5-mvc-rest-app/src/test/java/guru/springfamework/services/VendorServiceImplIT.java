@@ -3,9 +3,11 @@ package guru.springfamework.services;
 import guru.springfamework.api.v1.mapper.VendorMapper;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.bootstrap.Bootstrap;
+import guru.springfamework.bootstrap.DataSeeder;
 import guru.springfamework.domain.Vendor;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.SqlBudget;
 import guru.springfamework.repositories.VendorRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -21,6 +24,7 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
 
 @RunWith(SpringRunner.class)
 @DataJpaTest
@@ -43,7 +47,7 @@ public class VendorServiceImplIT {
         System.out.println(vendorRepository.findAll().size());
 
         //setup data for testing
-        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, vendorRepository);
+        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, vendorRepository, mock(DataSeeder.class));
         bootstrap.run(); //load data
 
         vendorService = new VendorServiceImpl(VendorMapper.INSTANCE, vendorRepository);
@@ -75,6 +79,56 @@ public class VendorServiceImplIT {
 
     }
 
+    @Test
+    public void createNewVendorsInBatches() throws Exception {
+        long before = vendorRepository.count();
+
+        VendorDTO vendor1 = new VendorDTO();
+        vendor1.setName("bulk1");
+        VendorDTO vendor2 = new VendorDTO();
+        vendor2.setName("bulk2");
+
+        List<VendorDTO> savedDtos = vendorService.createNewVendors(Arrays.asList(vendor1, vendor2));
+
+        assertEquals(before + 2, vendorRepository.count());
+        assertEquals(2, savedDtos.size());
+        assertThat(savedDtos.get(0).getVendorUrl(), not(equalTo(savedDtos.get(1).getVendorUrl())));
+    }
+
+    @Test
+    public void saveVendorByDTOOverwritesCurrentVersion() throws Exception {
+        long id = getVendorIdValue();
+
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName("Replaced");
+
+        vendorService.saveVendorByDTO(id, vendorDTO);
+
+        assertEquals("Replaced", vendorRepository.findById(id).get().getName());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void saveVendorByDTOStaleVersion() throws Exception {
+        long id = getVendorIdValue();
+        //a fresh vendor is at version 0, so the one before it doesn't exist, the next one doesn't yet
+        long otherVersion = vendorService.getVendorVersion(id) + 1;
+
+        vendorService.saveVendorByDTO(id, new VendorDTO(), otherVersion);
+    }
+
+    @Test
+    public void patchVendorIsASingleUpdate() throws Exception {
+        long id = getVendorIdValue();
+
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName("Patched");
+
+        //name is the only field and it is given, so nothing is read back
+        VendorDTO patched = SqlBudget.atMost(1, () -> vendorService.patchVendor(id, vendorDTO));
+
+        assertEquals("Patched", patched.getName());
+    }
+
     private Long getVendorIdValue(){
         List<Vendor> vendors = vendorRepository.findAll();
 
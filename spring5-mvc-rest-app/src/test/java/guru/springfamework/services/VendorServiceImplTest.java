@@ -2,19 +2,28 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.VendorMapper;
 import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
+import guru.springfamework.domain.VersionedVendorView;
 import guru.springfamework.repositories.VendorRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,7 +55,7 @@ public class VendorServiceImplTest {
         vendor2.setId(2l);
         vendor2.setName("vendor2");
 
-        when(vendorRepository.findAll()).thenReturn(Arrays.asList(vendor1, vendor2));
+        when(vendorRepository.findAllProjectedBy()).thenReturn(Arrays.asList(view(vendor1), view(vendor2)));
 
         //when
         List<VendorDTO> vendorDTOS = vendorService.getAllVendors();
@@ -56,6 +65,29 @@ public class VendorServiceImplTest {
 
     }
 
+    @Test
+    public void getVendorPage() throws Exception {
+        //given
+        Vendor vendor1 = new Vendor();
+        vendor1.setId(1l);
+        vendor1.setName("vendor1");
+
+        Vendor vendor2 = new Vendor();
+        vendor2.setId(2l);
+        vendor2.setName("vendor2");
+
+        when(vendorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(view(vendor1), view(vendor2)));
+
+        //when
+        VendorListDTO page = vendorService.getVendorPage(null, 1);
+
+        //then
+        assertEquals(1, page.getVendors().size());
+        assertNotNull(page.getNextCursor());
+        assertEquals(Long.valueOf(1L), PageCursor.decode(page.getNextCursor()));
+    }
+
     @Test
     public void getVendorById() throws Exception {
         //given
@@ -63,7 +95,7 @@ public class VendorServiceImplTest {
         vendor1.setId(1l);
         vendor1.setName("vendor1");
 
-        when(vendorRepository.findById(anyLong())).thenReturn(java.util.Optional.ofNullable(vendor1));
+        when(vendorRepository.findViewById(anyLong())).thenReturn(java.util.Optional.ofNullable(view(vendor1)));
 
         //when
         VendorDTO vendorDTO = vendorService.getVendorById(1L);
@@ -71,6 +103,21 @@ public class VendorServiceImplTest {
         assertEquals("vendor1", vendorDTO.getName());
     }
 
+    @Test
+    public void getVersionedVendorById() throws Exception {
+        //given
+        when(vendorRepository.findVersionedViewById(1L))
+                .thenReturn(java.util.Optional.of(new VersionedVendorView(1L, "vendor1", 4L)));
+
+        //when
+        Versioned<VendorDTO> vendor = vendorService.getVersionedVendorById(1L);
+
+        //then
+        assertEquals("vendor1", vendor.getValue().getName());
+        assertEquals("/api/v1/vendors/1", vendor.getValue().getVendorUrl());
+        assertEquals(Long.valueOf(4L), vendor.getVersion());
+    }
+
     @Test
     public void createNewVendor() throws Exception {
 
@@ -92,6 +139,27 @@ public class VendorServiceImplTest {
         assertEquals("/api/v1/vendors/1", savedDto.getVendorUrl());
     }
 
+    @Test
+    public void createNewVendors() throws Exception {
+
+        //given
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName("vendor2");
+
+        when(vendorRepository.insertAllInBatches(any())).thenAnswer(invocation -> {
+            List<Vendor> vendors = invocation.getArgument(0);
+            vendors.get(0).setId(1L);
+            return vendors;
+        });
+
+        //when
+        List<VendorDTO> savedDtos = vendorService.createNewVendors(Arrays.asList(vendorDTO));
+
+        //then
+        assertEquals(1, savedDtos.size());
+        assertEquals("/api/v1/vendors/1", savedDtos.get(0).getVendorUrl());
+    }
+
     @Test
     public void saveVendorByDTO() throws Exception {
 
@@ -99,11 +167,7 @@ public class VendorServiceImplTest {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName("vendor");
 
-        Vendor savedVendor = new Vendor();
-        savedVendor.setName(vendorDTO.getName());
-        savedVendor.setId(1l);
-
-        when(vendorRepository.save(any(Vendor.class))).thenReturn(savedVendor);
+        when(vendorRepository.updateVendor(eq(1L), isNull(), eq("vendor"))).thenReturn(true);
 
         //when
         VendorDTO savedDto = vendorService.saveVendorByDTO(1L, vendorDTO);
@@ -111,6 +175,7 @@ public class VendorServiceImplTest {
         //then
         assertEquals(vendorDTO.getName(), savedDto.getName());
         assertEquals("/api/v1/vendors/1", savedDto.getVendorUrl());
+        verify(vendorRepository, never()).save(any(Vendor.class));
     }
 
     @Test
@@ -122,4 +187,109 @@ public class VendorServiceImplTest {
 
         verify(vendorRepository, times(1)).deleteById(anyLong());
     }
+
+    @Test
+    public void saveVendorByDTOUnknownIdCreates() throws Exception {
+        //given
+        Vendor savedVendor = new Vendor();
+        savedVendor.setId(2L);
+
+        when(vendorRepository.updateVendor(anyLong(), any(), any())).thenReturn(false);
+        when(vendorRepository.save(any(Vendor.class))).thenReturn(savedVendor);
+
+        //when
+        VendorDTO savedDto = vendorService.saveVendorByDTO(1L, new VendorDTO());
+
+        //then
+        assertEquals("/api/v1/vendors/2", savedDto.getVendorUrl());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void saveVendorByDTOStaleVersion() throws Exception {
+        //given
+        when(vendorRepository.updateVendor(anyLong(), any(), any())).thenReturn(false);
+
+        //when
+        vendorService.saveVendorByDTO(1L, new VendorDTO(), 3L);
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void saveVendorByDTOIfMatchAnyUnknownId() throws Exception {
+        //given
+        when(vendorRepository.updateVendor(eq(1L), isNull(), any())).thenReturn(false);
+
+        //when, If-Match: * never creates
+        vendorService.saveVendorByDTO(1L, new VendorDTO(), Versioned.ANY);
+    }
+
+    @Test
+    public void patchVendorInOneStatement() throws Exception {
+        //given
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName("Fred");
+
+        when(vendorRepository.patchVendor(eq(1L), isNull(), eq("Fred"))).thenReturn(true);
+
+        //when
+        VendorDTO patchedDto = vendorService.patchVendor(1L, vendorDTO);
+
+        //then
+        assertEquals("Fred", patchedDto.getName());
+        assertEquals("/api/v1/vendors/1", patchedDto.getVendorUrl());
+        verify(vendorRepository, never()).findVersionedViewById(anyLong());
+    }
+
+    @Test
+    public void patchVendorReadsUntouchedColumns() throws Exception {
+        //given
+        VendorDTO vendorDTO = new VendorDTO();
+
+        when(vendorRepository.patchVendor(eq(1L), isNull(), isNull())).thenReturn(true);
+        when(vendorRepository.findVersionedViewById(1L)).thenReturn(Optional.of(new VersionedVendorView(1L, "Unchanged", 5L)));
+
+        //when
+        Versioned<VendorDTO> patched = vendorService.patchVendor(1L, vendorDTO, null);
+
+        //then
+        assertEquals("Unchanged", patched.getValue().getName());
+        assertEquals(Long.valueOf(5L), patched.getVersion());
+    }
+
+    @Test
+    public void patchVendorIfMatchReturnsNextVersion() throws Exception {
+        //given
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName("Fred");
+
+        when(vendorRepository.patchVendor(eq(1L), eq(3L), eq("Fred"))).thenReturn(true);
+
+        //when
+        Versioned<VendorDTO> patched = vendorService.patchVendor(1L, vendorDTO, 3L);
+
+        //then
+        assertEquals(Long.valueOf(4L), patched.getVersion());
+        verify(vendorRepository, never()).findVersionedViewById(anyLong());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void patchVendorStaleVersion() throws Exception {
+        //given
+        when(vendorRepository.patchVendor(anyLong(), any(), any())).thenReturn(false);
+
+        //when
+        vendorService.patchVendor(1L, new VendorDTO(), 3L);
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void patchVendorNotFound() throws Exception {
+        //given
+        when(vendorRepository.patchVendor(anyLong(), any(), any())).thenReturn(false);
+
+        //when
+        vendorService.patchVendor(1L, new VendorDTO());
+    }
+
+    private VendorView view(Vendor vendor) {
+        return new VendorView(vendor.getId(), vendor.getName());
+    }
 }
@@ -3,6 +3,7 @@ package guru.springfamework.services;
 import guru.springfamework.api.v1.mapper.VendorMapper;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorView;
 import guru.springfamework.repositories.VendorRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -40,9 +41,9 @@ public class VendorServiceTest {
     public void getAllVendors() {
 
         //given
-        List<Vendor> vendors = Arrays.asList(new Vendor(), new Vendor(), new Vendor());
+        List<VendorView> vendors = Arrays.asList(view(new Vendor()), view(new Vendor()), view(new Vendor()));
 
-        when(vendorRepository.findAll()).thenReturn(vendors);
+        when(vendorRepository.findAllProjectedBy()).thenReturn(vendors);
 
         //when
         List<VendorDTO> vendorDTOS = vendorService.getAllVendors();
@@ -60,9 +61,9 @@ public class VendorServiceTest {
         vendor.setId(ID);
         vendor.setName(NAME);
 
-        Optional<Vendor> vendorOptional = Optional.of(vendor);
+        Optional<VendorView> vendorOptional = Optional.of(view(vendor));
 
-        when(vendorRepository.findById(anyLong())).thenReturn((vendorOptional));
+        when(vendorRepository.findViewById(anyLong())).thenReturn((vendorOptional));
 
         //when
         VendorDTO vendorDTO = vendorService.getVendorById(ID);
@@ -91,4 +92,8 @@ public class VendorServiceTest {
         assertEquals(vendorDTO.getName(),savedDto.getName());
         assertEquals("/api/v1/vendors/1", savedDto.getVendorUrl());
     }
+
+    private VendorView view(Vendor vendor) {
+        return new VendorView(vendor.getId(), vendor.getName());
+    }
 }